@@ -15,29 +15,50 @@
  */
 package com.expediagroup.beekeeper.cleanup.context;
 
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
 import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 
 import com.expediagroup.beekeeper.cleanup.handler.GenericHandler;
+import com.expediagroup.beekeeper.cleanup.handler.PathClaimer;
+import com.expediagroup.beekeeper.cleanup.handler.PathCleanupWorkerPool;
+import com.expediagroup.beekeeper.cleanup.handler.PathRetryPolicy;
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunReporter;
+import com.expediagroup.beekeeper.cleanup.path.PathCheckpointer;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.path.aws.AsyncS3Client;
 import com.expediagroup.beekeeper.cleanup.path.aws.S3Client;
+import com.expediagroup.beekeeper.cleanup.path.aws.S3DeleteRetryPolicy;
 import com.expediagroup.beekeeper.cleanup.path.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.cleanup.path.aws.S3RequestRateController;
 import com.expediagroup.beekeeper.cleanup.path.aws.S3SentinelFilesCleaner;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
+import com.expediagroup.beekeeper.cleanup.service.DeletedPathCompactor;
 import com.expediagroup.beekeeper.cleanup.service.PagingCleanupService;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 
 @Configuration
 @EnableScheduling
@@ -65,21 +86,143 @@ public class CommonBeans {
   }
 
   @Bean
-  public S3Client s3Client(AmazonS3 amazonS3, @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
-    return new S3Client(amazonS3, dryRunEnabled);
+  @Lazy
+  @Profile("default")
+  public S3AsyncClient s3AsyncClient() {
+    return S3AsyncClient.create();
+  }
+
+  @Bean
+  @Lazy
+  @Profile("test")
+  S3AsyncClient s3AsyncClientTest() {
+    String s3Endpoint = System.getProperty("aws.s3.endpoint");
+    String region = System.getProperty("aws.region");
+
+    return S3AsyncClient.builder()
+        .endpointOverride(URI.create(s3Endpoint))
+        .region(Region.of(region))
+        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+        .build();
+  }
+
+  @Bean
+  S3RequestRateController s3RequestRateController(
+      MeterRegistry meterRegistry,
+      @Value("${properties.s3-bucket-initial-requests-in-flight}") int initialRequestsInFlight,
+      @Value("${properties.s3-bucket-max-requests-in-flight}") int maxRequestsInFlight
+  ) {
+    return new S3RequestRateController(initialRequestsInFlight, maxRequestsInFlight, meterRegistry);
+  }
+
+  @Bean
+  ExecutorService s3DeleteExecutor(@Value("${properties.delete-objects-parallelism}") int deleteParallelism) {
+    return S3Client.newDeleteExecutor(deleteParallelism);
+  }
+
+  @Bean
+  public S3Client s3Client(
+      AmazonS3 amazonS3,
+      ObjectProvider<S3AsyncClient> s3AsyncClient,
+      S3RequestRateController requestRateController,
+      ExecutorService s3DeleteExecutor,
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.delete-objects-parallelism}") int deleteParallelism,
+      @Value("${properties.s3-async-client-enabled}") boolean asyncClientEnabled,
+      @Value("${properties.s3-async-max-requests-in-flight}") int maxRequestsInFlight
+  ) {
+    if (asyncClientEnabled) {
+      return new AsyncS3Client(s3AsyncClient.getObject(), dryRunEnabled, maxRequestsInFlight, requestRateController);
+    }
+    return new S3Client(amazonS3, dryRunEnabled, deleteParallelism, requestRateController, s3DeleteExecutor);
+  }
+
+  @Bean
+  DryRunReporter dryRunReporter(
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.dry-run-report-path}") String reportPath
+  ) {
+    if (!dryRunEnabled || reportPath.isEmpty()) {
+      return DryRunReporter.disabled();
+    }
+    return new DryRunReporter(Paths.get(reportPath));
+  }
+
+  @Bean
+  PathCheckpointer pathCheckpointer(
+      HousekeepingPathRepository housekeepingPathRepository,
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.cleanup-checkpoint-interval-objects}") long intervalObjects
+  ) {
+    if (dryRunEnabled || intervalObjects <= 0) {
+      return PathCheckpointer.disabled();
+    }
+    return new PathCheckpointer(housekeepingPathRepository, intervalObjects);
   }
 
   @Bean(name = "s3PathCleaner")
-  PathCleaner pathCleaner(S3Client s3Client, BytesDeletedReporter bytesDeletedReporter) {
-    return new S3PathCleaner(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter);
+  PathCleaner pathCleaner(
+      S3Client s3Client,
+      BytesDeletedReporter bytesDeletedReporter,
+      DryRunReporter dryRunReporter,
+      PathCheckpointer pathCheckpointer,
+      @Value("${properties.delete-retries}") int deleteRetries,
+      @Value("${properties.delete-retry-initial-backoff-ms}") long initialBackoffMillis,
+      @Value("${properties.delete-retry-max-backoff-ms}") long maxBackoffMillis
+  ) {
+    S3DeleteRetryPolicy deleteRetryPolicy = new S3DeleteRetryPolicy(deleteRetries, initialBackoffMillis,
+        maxBackoffMillis);
+    return new S3PathCleaner(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter, deleteRetryPolicy,
+        dryRunReporter, pathCheckpointer);
+  }
+
+  @Bean
+  PathCleanupWorkerPool pathCleanupWorkerPool(
+      @Value("${properties.cleanup-parallelism}") int parallelism,
+      @Value("${properties.cleanup-bucket-parallelism}") int bucketParallelism
+  ) {
+    return new PathCleanupWorkerPool(parallelism, bucketParallelism);
+  }
+
+  @Bean
+  PathClaimer pathClaimer(
+      HousekeepingPathRepository housekeepingPathRepository,
+      @Value("${properties.cleanup-work-claiming-enabled}") boolean workClaimingEnabled,
+      @Value("${properties.cleanup-lease-duration-ms}") long leaseDurationMillis
+  ) {
+    if (!workClaimingEnabled) {
+      return PathClaimer.disabled();
+    }
+    return new PathClaimer(housekeepingPathRepository, Duration.ofMillis(leaseDurationMillis));
+  }
+
+  @Bean
+  PathRetryPolicy pathRetryPolicy(
+      @Value("${properties.cleanup-max-attempts}") int maxAttempts,
+      @Value("${properties.cleanup-retry-initial-backoff-ms}") long initialBackoffMillis,
+      @Value("${properties.cleanup-retry-max-backoff-ms}") long maxBackoffMillis
+  ) {
+    return new PathRetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis);
   }
 
   @Bean
   CleanupService cleanupService(
       List<GenericHandler> pathHandlers,
       @Value("${properties.cleanup-page-size}") int pageSize,
-      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.cleanup-run-time-budget-ms}") long runTimeBudgetMillis,
+      @Value("${properties.cleanup-run-max-paths}") int runPathBudget
+  ) {
+    return new PagingCleanupService(pathHandlers, pageSize, dryRunEnabled, Duration.ofMillis(runTimeBudgetMillis),
+        runPathBudget);
+  }
+
+  @Bean
+  DeletedPathCompactor deletedPathCompactor(
+      HousekeepingPathRepository housekeepingPathRepository,
+      @Value("${properties.deleted-path-retention-days}") int retentionDays,
+      @Value("${properties.deleted-path-compaction-batch-size}") int batchSize
   ) {
-    return new PagingCleanupService(pathHandlers, pageSize, dryRunEnabled);
+    return new DeletedPathCompactor(housekeepingPathRepository, Duration.ofDays(retentionDays), batchSize);
   }
 }
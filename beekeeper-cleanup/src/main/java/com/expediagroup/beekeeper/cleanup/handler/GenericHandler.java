@@ -16,12 +16,19 @@
 package com.expediagroup.beekeeper.cleanup.handler;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
@@ -39,28 +46,86 @@ public abstract class GenericHandler {
 
   public abstract PathCleaner getPathCleaner();
 
-  public abstract Page<EntityHousekeepingPath> findRecordsToClean(LocalDateTime instant, Pageable pageable);
+  public abstract PathCleanupWorkerPool getWorkerPool();
+
+  public abstract PathClaimer getPathClaimer();
+
+  public abstract PathRetryPolicy getRetryPolicy();
+
+  public abstract Slice<EntityHousekeepingPath> findRecordsToClean(LocalDateTime instant, Pageable pageable);
+
+  /**
+   * @param lastPath Last record of the previous slice, whose fields the records are ordered by are not changed by
+   * cleaning.
+   */
+  public abstract Slice<EntityHousekeepingPath> findRecordsToClean(LocalDateTime instant,
+      EntityHousekeepingPath lastPath, Pageable pageable);
+
+  /**
+   * @return When the first record which was not yet due at {@code instant} becomes due, if any.
+   */
+  public Optional<LocalDateTime> findNextCleanupTimestamp(LocalDateTime instant) {
+    return getHousekeepingPathRepository().findNextCleanupTimestamp(instant);
+  }
 
   /**
-   * Processes a pageable entityHouseKeepingPath page.
+   * Processes a slice of entityHouseKeepingPath records and fetches the one after it.
    *
-   * @param pageable Pageable to iterate through for dryRun
-   * @param page Page to get content from
+   * @param instant Instant the records to clean are fetched for
+   * @param pageable Pageable holding the page size
+   * @param page Slice to get content from
    * @param dryRunEnabled Dry Run boolean flag
-   * @implNote This parent handler expects the child's cleanupPath call to update & remove the record from this call such
-   * that subsequent DB queries will not return the record. Hence why we only call next during dryRuns where no updates occur.
-   * @implNote Note that we only expect pageable.next to be called during a dry run.
-   * @return Pageable to pass to query. In the case of dry runs, this is the next page.
+   * @implNote The next slice is sought by the ordering key of the last record of this one. Records which are cleaned
+   * move past the instant and are not returned again, while dry run records are skipped by the seek, so the same query
+   * serves both cases.
+   * @implNote Outside dry runs, only the paths the handler's path claimer manages to claim are cleaned, so that other
+   * cleanup instances sharing the backlog do not clean them too. Their leases are renewed until their status is
+   * written, which only happens for paths whose lease has not been taken over by another instance.
+   * @implNote Paths are cleaned on the handler's worker pool.
+   * @implNote The path cleaner is told when the page starts and ends so that it can batch work across the page's paths.
+   * @implNote The status and attempts of the page's paths are written once the page has been cleaned, with one update
+   * per resulting status and, for failed paths, per number of attempts, which decides when they are next tried. If the
+   * process dies before then, the page's paths are still scheduled and are cleaned again by the next run, which is
+   * safe since deleting a path which no longer exists does nothing.
+   * @implNote The checkpoints of deleted paths are dropped by the same statement which updates their status, while
+   * failed paths keep theirs so that they are resumed.
+   * @return Next slice to process, empty once there are no more records.
    */
-  public Pageable processPage(Pageable pageable, Page<EntityHousekeepingPath> page, boolean dryRunEnabled) {
+  public Slice<EntityHousekeepingPath> processPage(LocalDateTime instant, Pageable pageable,
+      Slice<EntityHousekeepingPath> page, boolean dryRunEnabled) {
     List<EntityHousekeepingPath> pageContent = page.getContent();
-    if (dryRunEnabled) {
-      pageContent.forEach(this::cleanUpPath);
-      return pageable.next();
-    } else {
-      pageContent.forEach(this::cleanupContent);
-      return pageable;
+    if (pageContent.isEmpty()) {
+      return page;
+    }
+    EntityHousekeepingPath lastPath = pageContent.get(pageContent.size() - 1);
+
+    PathCleaner pathCleaner = getPathCleaner();
+    Map<PathStatus, Map<Integer, Queue<Long>>> idsByOutcome = new ConcurrentHashMap<>();
+    List<EntityHousekeepingPath> claimedPaths = List.of();
+    pathCleaner.startPage();
+    try {
+      if (dryRunEnabled) {
+        getWorkerPool().process(pageContent, this::cleanUpPath);
+      } else {
+        claimedPaths = getPathClaimer().claim(pageContent, instant);
+        getWorkerPool().process(claimedPaths, housekeepingPath -> cleanupContent(housekeepingPath, idsByOutcome));
+      }
+    } finally {
+      try {
+        pathCleaner.endPage();
+      } finally {
+        try {
+          updateAttemptsAndStatus(idsByOutcome);
+        } finally {
+          getPathClaimer().release(claimedPaths);
+        }
+      }
     }
+
+    if (!page.hasNext()) {
+      return new SliceImpl<>(List.of(), pageable, false);
+    }
+    return findRecordsToClean(instant, lastPath, pageable);
   }
 
   private void cleanUpPath(EntityHousekeepingPath housekeepingPath) {
@@ -68,20 +133,44 @@ public abstract class GenericHandler {
     pathCleaner.cleanupPath(housekeepingPath);
   }
 
-  private void cleanupContent(EntityHousekeepingPath housekeepingPath) {
+  private void cleanupContent(EntityHousekeepingPath housekeepingPath,
+      Map<PathStatus, Map<Integer, Queue<Long>>> idsByOutcome) {
+    int attempts = housekeepingPath.getCleanupAttempts() + 1;
+    PathStatus status;
     try {
       log.info("Cleaning up path \"{}\"", housekeepingPath.getPath());
       cleanUpPath(housekeepingPath);
-      updateAttemptsAndStatus(housekeepingPath, PathStatus.DELETED);
+      status = PathStatus.DELETED;
     } catch (Exception e) {
-      updateAttemptsAndStatus(housekeepingPath, PathStatus.FAILED);
+      status = getRetryPolicy().statusAfterFailure(attempts);
       log.warn("Unexpected exception deleting \"{}\"", housekeepingPath.getPath(), e);
+      if (status == PathStatus.ABANDONED) {
+        log.warn("Abandoning path \"{}\" after {} failed attempts", housekeepingPath.getPath(), attempts);
+      }
     }
+    housekeepingPath.setCleanupAttempts(attempts);
+    housekeepingPath.setPathStatus(status);
+    // only failed paths need telling apart by attempts, as those decide when they are next tried
+    int outcomeAttempts = status == PathStatus.FAILED ? attempts : 0;
+    idsByOutcome.computeIfAbsent(status, s -> new ConcurrentHashMap<>())
+        .computeIfAbsent(outcomeAttempts, a -> new ConcurrentLinkedQueue<>())
+        .add(housekeepingPath.getId());
   }
 
-  private void updateAttemptsAndStatus(EntityHousekeepingPath housekeepingPath, PathStatus status) {
-    housekeepingPath.setCleanupAttempts(housekeepingPath.getCleanupAttempts() + 1);
-    housekeepingPath.setPathStatus(status);
-    getHousekeepingPathRepository().save(housekeepingPath);
+  private void updateAttemptsAndStatus(Map<PathStatus, Map<Integer, Queue<Long>>> idsByOutcome) {
+    LocalDateTime modifiedTimestamp = LocalDateTime.now(ZoneOffset.UTC);
+    idsByOutcome.forEach((status, idsByAttempts) -> idsByAttempts.forEach((attempts, ids) -> {
+      LocalDateTime nextAttemptTimestamp = status == PathStatus.FAILED
+          ? getRetryPolicy().nextAttemptTimestamp(attempts, modifiedTimestamp)
+          : null;
+      if (status == PathStatus.DELETED) {
+        getHousekeepingPathRepository()
+            .updatePathStatusToDeletedAndIncrementCleanupAttempts(ids, getPathClaimer().getOwner(), modifiedTimestamp);
+      } else {
+        getHousekeepingPathRepository()
+            .updatePathStatusAndIncrementCleanupAttempts(ids, getPathClaimer().getOwner(), status, modifiedTimestamp,
+                nextAttemptTimestamp);
+      }
+    }));
   }
 }
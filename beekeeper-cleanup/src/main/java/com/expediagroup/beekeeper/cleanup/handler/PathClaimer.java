@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.handler;
+
+import static java.util.stream.Collectors.toList;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+/**
+ * Claims the paths of a page for this cleanup instance by leasing them, so that several instances can share the
+ * backlog without cleaning the same path twice. Only paths without a lease, or whose lease has expired, can be claimed,
+ * so the paths of an instance which died mid-page are picked up by the others once its leases expire. The leases of
+ * paths still being cleaned are renewed every third of the lease duration, so a page which takes longer than a lease
+ * is not taken over while it is cleaned. Leases are released when the status of the paths is written.
+ */
+public class PathClaimer implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(PathClaimer.class);
+  private static final PathClaimer DISABLED = new PathClaimer(null, null, Duration.ZERO);
+  private static final int RENEWALS_PER_LEASE = 3;
+
+  private final HousekeepingPathRepository housekeepingPathRepository;
+  private final String owner;
+  private final Duration leaseDuration;
+  private final Set<Long> leasedIds = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService renewalExecutor;
+
+  /**
+   * @param leaseDuration How long claimed paths are kept from other instances; must exceed the time taken to clean a
+   * page.
+   */
+  public PathClaimer(HousekeepingPathRepository housekeepingPathRepository, Duration leaseDuration) {
+    this(housekeepingPathRepository, newOwner(), leaseDuration);
+  }
+
+  PathClaimer(HousekeepingPathRepository housekeepingPathRepository, String owner, Duration leaseDuration) {
+    this.housekeepingPathRepository = housekeepingPathRepository;
+    this.owner = owner;
+    this.leaseDuration = leaseDuration;
+    if (housekeepingPathRepository == null) {
+      renewalExecutor = null;
+    } else {
+      renewalExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setNameFormat("path-lease-renewal-%d")
+          .setDaemon(true)
+          .build());
+      long renewalIntervalMillis = Math.max(1, leaseDuration.toMillis() / RENEWALS_PER_LEASE);
+      renewalExecutor.scheduleAtFixedRate(this::renewLeases, renewalIntervalMillis, renewalIntervalMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * @return A claimer which lets every path through, for when a single instance cleans up.
+   */
+  public static PathClaimer disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @param instant Instant the paths were fetched for; paths which are no longer due for cleanup then, because another
+   * instance has cleaned or rescheduled them since, are not claimed.
+   * @return The paths this instance now holds a lease on, in their original order. Their leases are renewed until they
+   * are {@linkplain #release(List) released}.
+   */
+  public List<EntityHousekeepingPath> claim(List<EntityHousekeepingPath> paths, LocalDateTime instant) {
+    if (housekeepingPathRepository == null || paths.isEmpty()) {
+      return paths;
+    }
+    List<Long> ids = paths.stream().map(EntityHousekeepingPath::getId).collect(toList());
+    LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    int claimed = housekeepingPathRepository.leasePaths(ids, owner, now.plus(leaseDuration), instant, now);
+    List<EntityHousekeepingPath> claimedPaths;
+    if (claimed == paths.size()) {
+      claimedPaths = paths;
+    } else if (claimed == 0) {
+      claimedPaths = List.of();
+    } else {
+      Set<Long> claimedIds = new HashSet<>(housekeepingPathRepository.findIdsLeasedBy(ids, owner));
+      claimedPaths = paths.stream().filter(path -> claimedIds.contains(path.getId())).collect(toList());
+    }
+    claimedPaths.forEach(path -> leasedIds.add(path.getId()));
+    return claimedPaths;
+  }
+
+  /**
+   * Stops renewing the leases of {@code paths}, once their status has been written.
+   */
+  public void release(List<EntityHousekeepingPath> paths) {
+    if (housekeepingPathRepository != null) {
+      paths.forEach(path -> leasedIds.remove(path.getId()));
+    }
+  }
+
+  void renewLeases() {
+    if (leasedIds.isEmpty()) {
+      return;
+    }
+    try {
+      LocalDateTime leaseExpiry = LocalDateTime.now(ZoneOffset.UTC).plus(leaseDuration);
+      int renewed = housekeepingPathRepository.renewLeases(List.copyOf(leasedIds), owner, leaseExpiry);
+      log.debug("Renewed the leases of {} paths until {}", renewed, leaseExpiry);
+    } catch (RuntimeException e) {
+      log.warn("Could not renew the leases of {} paths", leasedIds.size(), e);
+    }
+  }
+
+  /**
+   * @return Owner of the leases taken by this claimer, or null if it does not take any.
+   */
+  public String getOwner() {
+    return owner;
+  }
+
+  @Override
+  public void close() {
+    if (renewalExecutor != null) {
+      renewalExecutor.shutdownNow();
+    }
+  }
+
+  private static String newOwner() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      host = "unknown";
+    }
+    return host + "-" + UUID.randomUUID();
+  }
+}
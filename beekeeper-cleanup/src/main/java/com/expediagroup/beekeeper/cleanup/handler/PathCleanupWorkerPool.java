@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.handler;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+
+/**
+ * Cleans the paths of a page concurrently on a fixed number of workers, optionally limiting how many paths of the same
+ * bucket are cleaned at once. Paths are dispatched in page order; a path whose bucket is at its limit is skipped over
+ * until a path of that bucket completes, so a busy bucket does not hold up paths from other buckets.
+ */
+public class PathCleanupWorkerPool implements Closeable {
+
+  private final int parallelism;
+  private final int bucketParallelism;
+  private final ExecutorService executorService;
+
+  /**
+   * @param parallelism Maximum number of paths cleaned at the same time. A value of 1 cleans paths on the calling
+   * thread.
+   * @param bucketParallelism Maximum number of paths of the same bucket cleaned at the same time, or 0 for no limit.
+   */
+  public PathCleanupWorkerPool(int parallelism, int bucketParallelism) {
+    this.parallelism = Math.max(1, parallelism);
+    this.bucketParallelism = Math.max(0, bucketParallelism);
+    if (this.parallelism > 1) {
+      executorService = Executors.newFixedThreadPool(this.parallelism, new ThreadFactoryBuilder()
+          .setNameFormat("path-cleanup-%d")
+          .setDaemon(true)
+          .build());
+    } else {
+      executorService = null;
+    }
+  }
+
+  public static PathCleanupWorkerPool serial() {
+    return new PathCleanupWorkerPool(1, 0);
+  }
+
+  /**
+   * Runs {@code task} for every path and returns once all of them have completed. If a task throws, no further paths
+   * are dispatched and the first exception is rethrown once the running tasks have finished.
+   *
+   * @param paths Paths to process.
+   * @param task Work to do for each path.
+   */
+  public void process(List<EntityHousekeepingPath> paths, Consumer<EntityHousekeepingPath> task) {
+    if (executorService == null) {
+      paths.forEach(task);
+      return;
+    }
+    CompletionService<Void> completionService = new ExecutorCompletionService<>(executorService);
+    Map<Future<Void>, String> runningBuckets = new IdentityHashMap<>();
+    Map<String, Integer> pathsPerBucket = new HashMap<>();
+    List<EntityHousekeepingPath> pending = new LinkedList<>(paths);
+    RuntimeException failure = null;
+
+    while (!runningBuckets.isEmpty() || (failure == null && !pending.isEmpty())) {
+      Iterator<EntityHousekeepingPath> iterator = pending.iterator();
+      while (failure == null && runningBuckets.size() < parallelism && iterator.hasNext()) {
+        EntityHousekeepingPath path = iterator.next();
+        String bucket = bucket(path.getPath());
+        int running = pathsPerBucket.getOrDefault(bucket, 0);
+        if (bucketParallelism > 0 && running >= bucketParallelism) {
+          continue;
+        }
+        iterator.remove();
+        pathsPerBucket.put(bucket, running + 1);
+        runningBuckets.put(completionService.submit(() -> task.accept(path), null), bucket);
+      }
+
+      Future<Void> completed = take(completionService);
+      pathsPerBucket.merge(runningBuckets.remove(completed), -1, Integer::sum);
+      try {
+        completed.get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException
+              ? (RuntimeException) e.getCause()
+              : new BeekeeperException("Error cleaning up path", e.getCause());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new BeekeeperException("Interrupted while cleaning up paths", e);
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private Future<Void> take(CompletionService<Void> completionService) {
+    try {
+      return completionService.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while cleaning up paths", e);
+    }
+  }
+
+  static String bucket(String path) {
+    int schemeEnd = path.indexOf("://");
+    String location = schemeEnd < 0 ? path : path.substring(schemeEnd + 3);
+    int bucketEnd = location.indexOf('/');
+    return bucketEnd < 0 ? location : location.substring(0, bucketEnd);
+  }
+
+  @Override
+  public void close() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.handler;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import com.expediagroup.beekeeper.cleanup.path.ExponentialBackoff;
+import com.expediagroup.beekeeper.core.model.PathStatus;
+
+/**
+ * When paths which failed to be cleaned up are tried again. The wait before the next attempt doubles with every failed
+ * attempt, starting from the initial backoff, up to the maximum backoff. A path which has failed the maximum number of
+ * attempts is abandoned and not tried again.
+ */
+public class PathRetryPolicy {
+
+  private final int maxAttempts;
+  private final ExponentialBackoff backoff;
+
+  /**
+   * @param maxAttempts Number of failed attempts after which a path is abandoned, or 0 to try paths forever.
+   */
+  public PathRetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis) {
+    this.maxAttempts = Math.max(0, maxAttempts);
+    backoff = new ExponentialBackoff(initialBackoffMillis, maxBackoffMillis);
+  }
+
+  /**
+   * @return A policy which tries failed paths again on the next cleanup, forever.
+   */
+  public static PathRetryPolicy retryForever() {
+    return new PathRetryPolicy(0, 0, 0);
+  }
+
+  /**
+   * @param attempts Number of attempts made, including the one which just failed.
+   */
+  public PathStatus statusAfterFailure(int attempts) {
+    return maxAttempts > 0 && attempts >= maxAttempts ? PathStatus.ABANDONED : PathStatus.FAILED;
+  }
+
+  /**
+   * @param attempts Number of attempts made, including the one which just failed.
+   * @param failedAt When the last attempt failed.
+   */
+  public LocalDateTime nextAttemptTimestamp(int attempts, LocalDateTime failedAt) {
+    return failedAt.plus(backoffMillis(attempts), ChronoUnit.MILLIS);
+  }
+
+  long backoffMillis(int attempts) {
+    return backoff.millis(attempts);
+  }
+}
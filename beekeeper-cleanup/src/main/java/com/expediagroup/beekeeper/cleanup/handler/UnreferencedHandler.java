@@ -19,8 +19,9 @@ import java.time.LocalDateTime;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
@@ -33,14 +34,42 @@ public class UnreferencedHandler extends GenericHandler {
 
   private final PathCleaner pathCleaner;
   private final HousekeepingPathRepository housekeepingPathRepository;
+  private final PathCleanupWorkerPool workerPool;
+  private final PathClaimer pathClaimer;
+  private final PathRetryPolicy retryPolicy;
+  private final boolean reclaimPriorityOrderEnabled;
+
+  public UnreferencedHandler(
+      HousekeepingPathRepository housekeepingPathRepository,
+      PathCleaner pathCleaner
+  ) {
+    this(housekeepingPathRepository, pathCleaner, PathCleanupWorkerPool.serial());
+  }
+
+  public UnreferencedHandler(
+      HousekeepingPathRepository housekeepingPathRepository,
+      PathCleaner pathCleaner,
+      PathCleanupWorkerPool workerPool
+  ) {
+    this(housekeepingPathRepository, pathCleaner, workerPool, PathClaimer.disabled(), PathRetryPolicy.retryForever(),
+        false);
+  }
 
   @Autowired
   public UnreferencedHandler(
       HousekeepingPathRepository housekeepingPathRepository,
-      @Qualifier("s3PathCleaner") PathCleaner pathCleaner
+      @Qualifier("s3PathCleaner") PathCleaner pathCleaner,
+      PathCleanupWorkerPool workerPool,
+      PathClaimer pathClaimer,
+      PathRetryPolicy retryPolicy,
+      @Value("${properties.cleanup-reclaim-priority-order-enabled}") boolean reclaimPriorityOrderEnabled
   ) {
     this.housekeepingPathRepository = housekeepingPathRepository;
     this.pathCleaner = pathCleaner;
+    this.workerPool = workerPool;
+    this.pathClaimer = pathClaimer;
+    this.retryPolicy = retryPolicy;
+    this.reclaimPriorityOrderEnabled = reclaimPriorityOrderEnabled;
   }
 
   @Override
@@ -51,11 +80,34 @@ public class UnreferencedHandler extends GenericHandler {
   @Override
   public PathCleaner getPathCleaner() { return pathCleaner; }
 
+  @Override
+  public PathCleanupWorkerPool getWorkerPool() { return workerPool; }
+
+  @Override
+  public PathClaimer getPathClaimer() { return pathClaimer; }
+
+  @Override
+  public PathRetryPolicy getRetryPolicy() { return retryPolicy; }
+
   @Override
   public HousekeepingPathRepository getHousekeepingPathRepository() { return housekeepingPathRepository; }
 
   @Override
-  public Page<EntityHousekeepingPath> findRecordsToClean(LocalDateTime instant, Pageable pageable) {
+  public Slice<EntityHousekeepingPath> findRecordsToClean(LocalDateTime instant, Pageable pageable) {
+    if (reclaimPriorityOrderEnabled) {
+      return housekeepingPathRepository.findRecordsForCleanupByReclaimPriority(instant, pageable);
+    }
     return housekeepingPathRepository.findRecordsForCleanupByModifiedTimestamp(instant, pageable);
   }
+
+  @Override
+  public Slice<EntityHousekeepingPath> findRecordsToClean(LocalDateTime instant, EntityHousekeepingPath lastPath,
+      Pageable pageable) {
+    if (reclaimPriorityOrderEnabled) {
+      return housekeepingPathRepository.findRecordsForCleanupByReclaimPriorityAfter(instant,
+          lastPath.getReclaimPriority(), lastPath.getModifiedTimestamp(), lastPath.getId(), pageable);
+    }
+    return housekeepingPathRepository.findRecordsForCleanupByModifiedTimestampAfter(instant,
+        lastPath.getModifiedTimestamp(), lastPath.getId(), pageable);
+  }
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.monitoring;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+
+/**
+ * Writes a JSON line for every path cleaned up in a dry run, with the objects and bytes the path holds and the S3 list
+ * and delete requests deleting them would take. Lines are appended and flushed as paths are cleaned up, so the report
+ * can be followed while a large backlog is processed, and only the totals of the run are kept in memory. Every line
+ * carries the id of the run which wrote it, as runs append to the same file.
+ */
+public class DryRunReporter implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(DryRunReporter.class);
+  private static final DryRunReporter DISABLED = new DryRunReporter(null);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Path reportFile;
+  private Writer writer;
+  private String runId = newRunId();
+  private long paths;
+  private long objects;
+  private long bytes;
+  private long listRequests;
+  private long deleteRequests;
+
+  /**
+   * @param reportFile File the report is appended to, created if it does not exist.
+   */
+  public DryRunReporter(Path reportFile) {
+    this.reportFile = reportFile;
+  }
+
+  public static DryRunReporter disabled() {
+    return DISABLED;
+  }
+
+  public synchronized void startRun() {
+    runId = newRunId();
+    paths = 0;
+    objects = 0;
+    bytes = 0;
+    listRequests = 0;
+    deleteRequests = 0;
+  }
+
+  public synchronized void reportPath(
+      HousekeepingPath housekeepingPath,
+      long pathObjects,
+      long pathBytes,
+      long pathListRequests,
+      long pathDeleteRequests) {
+    if (reportFile == null) {
+      return;
+    }
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("run_id", runId);
+    row.put("path", housekeepingPath.getPath());
+    row.put("database", housekeepingPath.getDatabaseName());
+    row.put("table", housekeepingPath.getTableName());
+    row.put("objects", pathObjects);
+    row.put("bytes", pathBytes);
+    row.put("list_requests", pathListRequests);
+    row.put("delete_requests", pathDeleteRequests);
+    try {
+      if (writer == null) {
+        writer = Files.newBufferedWriter(reportFile, UTF_8, CREATE, APPEND);
+      }
+      writer.write(objectMapper.writeValueAsString(row));
+      writer.write('\n');
+      writer.flush();
+    } catch (IOException e) {
+      log.warn("Could not write dry run report of path \"{}\" to {}", housekeepingPath.getPath(), reportFile, e);
+    }
+    paths++;
+    objects += pathObjects;
+    bytes += pathBytes;
+    listRequests += pathListRequests;
+    deleteRequests += pathDeleteRequests;
+  }
+
+  public synchronized void endRun() {
+    if (paths > 0) {
+      log.info("Dry run {} - {} paths hold {} objects and {} bytes, taking {} list and {} delete requests, see {}", runId,
+          paths, objects, bytes, listRequests, deleteRequests, reportFile);
+    }
+  }
+
+  private static String newRunId() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path;
+
+/**
+ * A wait which doubles with every attempt, starting from the initial backoff, up to the maximum backoff.
+ */
+public class ExponentialBackoff {
+
+  private static final int MAX_DOUBLINGS = 62;
+
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+
+  public ExponentialBackoff(long initialBackoffMillis, long maxBackoffMillis) {
+    this.initialBackoffMillis = Math.max(0, initialBackoffMillis);
+    this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+  }
+
+  /**
+   * @param attempt Attempt number, starting at 1.
+   * @return Milliseconds to wait after the given attempt, the maximum backoff once doubling would overflow.
+   */
+  public long millis(int attempt) {
+    int doublings = Math.min(Math.max(0, attempt - 1), MAX_DOUBLINGS);
+    long backoff = initialBackoffMillis << doublings;
+    if (backoff < 0 || (backoff >> doublings) != initialBackoffMillis) {
+      return maxBackoffMillis;
+    }
+    return Math.min(backoff, maxBackoffMillis);
+  }
+}
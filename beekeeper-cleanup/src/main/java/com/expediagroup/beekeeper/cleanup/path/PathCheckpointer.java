@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+/**
+ * Saves how far the deletion of a large path has got, so that a cleanup which stops part way through, for instance
+ * because its instance restarts, resumes the path after the last object known to be deleted instead of listing it again
+ * from the start. A checkpoint is saved each time at least the interval's worth of objects have been deleted since the
+ * last one, so that paths of a few thousand objects are not slowed down by database writes.
+ */
+public class PathCheckpointer {
+
+  private static final PathCheckpointer DISABLED = new PathCheckpointer(null, 0);
+
+  private final HousekeepingPathRepository housekeepingPathRepository;
+  private final long intervalObjects;
+
+  /**
+   * @param intervalObjects Number of objects deleted between checkpoints.
+   */
+  public PathCheckpointer(HousekeepingPathRepository housekeepingPathRepository, long intervalObjects) {
+    this.housekeepingPathRepository = housekeepingPathRepository;
+    this.intervalObjects = Math.max(1, intervalObjects);
+  }
+
+  /**
+   * @return A checkpointer which saves nothing, for dry runs and for when paths are always cleaned from the start.
+   */
+  public static PathCheckpointer disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return housekeepingPathRepository != null;
+  }
+
+  public long getIntervalObjects() {
+    return intervalObjects;
+  }
+
+  /**
+   * @param checkpointKey Key of an object such that it and every object listed before it have been deleted.
+   * @param checkpointBytes Bytes deleted up to and including {@code checkpointKey}.
+   */
+  public void save(HousekeepingPath housekeepingPath, String checkpointKey, long checkpointBytes) {
+    if (!isEnabled() || housekeepingPath.getId() == null) {
+      return;
+    }
+    housekeepingPathRepository.updateCheckpoint(housekeepingPath.getId(), checkpointKey, checkpointBytes);
+    housekeepingPath.setCheckpointKey(checkpointKey);
+    housekeepingPath.setCheckpointBytes(checkpointBytes);
+  }
+}
@@ -21,4 +21,26 @@ public interface PathCleaner {
 
   void cleanupPath(HousekeepingPath housekeepingPath);
 
+  /**
+   * Called before the first page of a cleanup run. Until {@link #endRun()} is called, implementations may cache what
+   * they learn about the storage, as long as they keep it up to date with their own deletions.
+   */
+  default void startRun() {}
+
+  /**
+   * Called once a cleanup run is over, to drop anything cached during the run.
+   */
+  default void endRun() {}
+
+  /**
+   * Called before the paths of a page are cleaned up. Until {@link #endPage()} is called, implementations may defer
+   * work which can be shared between the paths of the page.
+   */
+  default void startPage() {}
+
+  /**
+   * Called once every path of a page has been cleaned up, to carry out any deferred work.
+   */
+  default void endPage() {}
+
 }
@@ -15,6 +15,8 @@
  */
 package com.expediagroup.beekeeper.cleanup.path;
 
+import java.util.Collection;
+
 public interface SentinelFilesCleaner {
 
   /**
@@ -23,4 +25,13 @@ public interface SentinelFilesCleaner {
    * @param absolutePath Absolute path to use to delete sentinel files.
    */
   void deleteSentinelFiles(String absolutePath);
+
+  /**
+   * Deletes the sentinel files of each of {@code absolutePaths}, which implementations may do in batches.
+   *
+   * @param absolutePaths Absolute paths to use to delete sentinel files.
+   */
+  default void deleteAllSentinelFiles(Collection<String> absolutePaths) {
+    absolutePaths.forEach(this::deleteSentinelFiles);
+  }
 }
@@ -0,0 +1,381 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.Lists;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * {@link S3Client} backed by the non-blocking {@link S3AsyncClient}. Requests are sent without tying up a thread each,
+ * so many list, delete and head requests can be in flight from a handful of threads; the number of requests in flight
+ * is capped by {@code maxRequestsInFlight}, and callers block only when that cap is reached or a result is needed.
+ */
+public class AsyncS3Client extends S3Client {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncS3Client.class);
+  private static final int NOT_FOUND = 404;
+  private final S3AsyncClient s3AsyncClient;
+  private final boolean dryRunEnabled;
+  private final Semaphore requestsInFlight;
+  private final S3RequestRateController requestRateController;
+
+  public AsyncS3Client(S3AsyncClient s3AsyncClient, boolean dryRunEnabled, int maxRequestsInFlight) {
+    this(s3AsyncClient, dryRunEnabled, maxRequestsInFlight, S3RequestRateController.unlimited());
+  }
+
+  /**
+   * @param requestRateController Further limits the requests in flight to each bucket; requests wait for their bucket
+   * before taking one of the {@code maxRequestsInFlight}.
+   */
+  public AsyncS3Client(
+      S3AsyncClient s3AsyncClient,
+      boolean dryRunEnabled,
+      int maxRequestsInFlight,
+      S3RequestRateController requestRateController) {
+    super(dryRunEnabled);
+    this.s3AsyncClient = s3AsyncClient;
+    this.dryRunEnabled = dryRunEnabled;
+    this.requestsInFlight = new Semaphore(Math.max(1, maxRequestsInFlight));
+    this.requestRateController = requestRateController;
+  }
+
+  @Override
+  void deleteObject(String bucket, String key) {
+    if (dryRunEnabled) {
+      super.deleteObject(bucket, key);
+    } else {
+      log.info("Deleting \"{}/{}\"", bucket, key);
+      DeleteObjectRequest request = DeleteObjectRequest.builder().bucket(bucket).key(key).build();
+      join(send(bucket, () -> s3AsyncClient.deleteObject(request)));
+      objectsDeleted(bucket, List.of(key));
+    }
+  }
+
+  /**
+   * Lists every page under {@code key}, requesting the next page before the current one is handed to
+   * {@code pageConsumer}.
+   */
+  @Override
+  void listObjects(String bucket, String key, String startAfter, Consumer<List<S3ObjectSummary>> pageConsumer) {
+    ListObjectsV2Request request = ListObjectsV2Request.builder()
+        .bucket(bucket)
+        .prefix(key)
+        .startAfter(startAfter)
+        .build();
+    CompletableFuture<ListObjectsV2Response> nextPage = send(bucket, () -> s3AsyncClient.listObjectsV2(request));
+    boolean truncated;
+    do {
+      ListObjectsV2Response response = join(nextPage);
+      truncated = Boolean.TRUE.equals(response.isTruncated());
+      if (truncated) {
+        ListObjectsV2Request nextRequest = request.toBuilder()
+            .continuationToken(response.nextContinuationToken())
+            .build();
+        nextPage = send(bucket, () -> s3AsyncClient.listObjectsV2(nextRequest));
+      }
+      pageConsumer.accept(toSummaries(bucket, response.contents()));
+    } while (truncated);
+  }
+
+  @Override
+  ListObjectsV2Result listFirstPage(String bucket, String key) {
+    ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucket).prefix(key).build();
+    ListObjectsV2Response response = join(send(bucket, () -> s3AsyncClient.listObjectsV2(request)));
+    ListObjectsV2Result result = new ListObjectsV2Result();
+    result.setBucketName(bucket);
+    result.setPrefix(key);
+    result.setTruncated(Boolean.TRUE.equals(response.isTruncated()));
+    result.setNextContinuationToken(response.nextContinuationToken());
+    result.getObjectSummaries().addAll(toSummaries(bucket, response.contents()));
+    return result;
+  }
+
+  /**
+   * Deletes every object under {@code prefix}. Each listed page is deleted asynchronously while listing carries on;
+   * listing pauses once the maximum number of requests is in flight.
+   */
+  @Override
+  void deleteObjectsUnderPrefix(
+      String bucket,
+      String prefix,
+      String startAfter,
+      List<S3ObjectSummary> listedObjects,
+      boolean listRemaining,
+      PrefixDeletionListener listener) {
+    // only deletes in flight are kept, so memory does not grow with the number of pages deleted
+    Set<CompletableFuture<Void>> deletesInFlight = ConcurrentHashMap.newKeySet();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Consumer<List<S3ObjectSummary>> deletePage = page -> {
+      throwIfFailed(failure);
+      if (page.isEmpty()) {
+        return;
+      }
+      listener.pageListed(page);
+      List<String> keys = page.stream().map(S3ObjectSummary::getKey).collect(Collectors.toList());
+      if (dryRunEnabled) {
+        listener.pageDeleted(page, super.deleteObjects(bucket, keys));
+        return;
+      }
+      CompletableFuture<Void> delete = deleteObjectsAsync(bucket, keys)
+          .thenAccept(deletedKeys -> listener.pageDeleted(page, deletedKeys))
+          .whenComplete((result, e) -> {
+            if (e != null) {
+              failure.compareAndSet(null, e);
+            }
+          });
+      deletesInFlight.add(delete);
+      delete.whenComplete((result, e) -> deletesInFlight.remove(delete));
+    };
+    try {
+      deletePage.accept(listedObjects);
+      if (listRemaining) {
+        listObjects(bucket, prefix, listedObjects.isEmpty() ? startAfter : lastKey(listedObjects), deletePage);
+      }
+    } finally {
+      CompletableFuture.allOf(deletesInFlight.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+    }
+    throwIfFailed(failure);
+  }
+
+  private void throwIfFailed(AtomicReference<Throwable> failure) {
+    Throwable e = failure.get();
+    if (e != null) {
+      throw unwrap(e);
+    }
+  }
+
+  @Override
+  List<String> deleteObjects(String bucket, List<String> keys) {
+    if (dryRunEnabled || keys.isEmpty()) {
+      return super.deleteObjects(bucket, keys);
+    }
+    return join(deleteObjectsAsync(bucket, keys));
+  }
+
+  private CompletableFuture<List<String>> deleteObjectsAsync(String bucket, List<String> keys) {
+    List<CompletableFuture<List<String>>> batches = Lists.partition(keys, MAX_KEYS_PER_DELETE_REQUEST)
+        .stream()
+        .map(batch -> deleteBatch(bucket, batch))
+        .collect(Collectors.toList());
+    return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+      List<String> deletedKeys = new ArrayList<>(keys.size());
+      batches.forEach(batch -> deletedKeys.addAll(batch.join()));
+      objectsDeleted(bucket, deletedKeys);
+      return deletedKeys;
+    });
+  }
+
+  private CompletableFuture<List<String>> deleteBatch(String bucket, List<String> keys) {
+    keys.forEach(key -> log.info("Deleting: \"{}/{}\"", bucket, key));
+    List<ObjectIdentifier> objects = keys.stream()
+        .map(key -> ObjectIdentifier.builder().key(key).build())
+        .collect(Collectors.toList());
+    DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+        .bucket(bucket)
+        .delete(Delete.builder().objects(objects).build())
+        .build();
+    // objects S3 could not delete because it was throttling the bucket do not fail the request, so they are reported
+    // to the request rate controller as throttling from the response
+    return send(bucket, () -> s3AsyncClient.deleteObjects(request), S3RequestRateController::isThrottling)
+        .thenApply(response -> {
+          if (!response.errors().isEmpty()) {
+            log.warn("{} of {} objects could not be deleted from bucket {}", response.errors().size(), keys.size(),
+                bucket);
+          }
+          return response.deleted().stream().map(DeletedObject::key).collect(Collectors.toList());
+        });
+  }
+
+  @Override
+  boolean doesObjectExist(String bucket, String key) {
+    try {
+      headObject(bucket, key);
+      return true;
+    } catch (S3Exception e) {
+      if (e.statusCode() == NOT_FOUND) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  ObjectMetadata getObjectMetadata(String bucket, String key) {
+    ObjectMetadata metadata = new ObjectMetadata();
+    metadata.setContentLength(headObject(bucket, key).contentLength());
+    return metadata;
+  }
+
+  private HeadObjectResponse headObject(String bucket, String key) {
+    HeadObjectRequest request = HeadObjectRequest.builder().bucket(bucket).key(key).build();
+    return join(send(bucket, () -> s3AsyncClient.headObject(request)));
+  }
+
+  @Override
+  Optional<String> findObjectLeft(String bucket, String prefix, Set<String> leafKeys) {
+    ListObjectsV2Request request = ListObjectsV2Request.builder()
+        .bucket(bucket)
+        .prefix(prefix)
+        .delimiter(dryRunEnabled ? "/" : null)
+        .maxKeys(maxKeysToFindObjectLeft(leafKeys))
+        .build();
+    ListObjectsV2Response response;
+    do {
+      ListObjectsV2Request pageRequest = request;
+      response = join(send(bucket, () -> s3AsyncClient.listObjectsV2(pageRequest)));
+      Optional<String> objectLeft = firstObjectLeft(toSummaries(bucket, response.contents()),
+          commonPrefixes(response), leafKeys);
+      if (objectLeft.isPresent()) {
+        return objectLeft;
+      }
+      request = request.toBuilder().continuationToken(response.nextContinuationToken()).build();
+    } while (Boolean.TRUE.equals(response.isTruncated()));
+    return Optional.empty();
+  }
+
+  @Override
+  Optional<List<S3ObjectSummary>> listObjectsBetween(
+      String bucket,
+      String prefix,
+      String firstKey,
+      String lastKey,
+      int maxRequests) {
+    List<S3ObjectSummary> objectSummaries = new ArrayList<>();
+    ListObjectsV2Request request = ListObjectsV2Request.builder()
+        .bucket(bucket)
+        .prefix(prefix)
+        .delimiter("/")
+        .startAfter(keyBefore(firstKey))
+        .build();
+    ListObjectsV2Response response;
+    int requests = 0;
+    do {
+      if (requests++ == maxRequests) {
+        return Optional.empty();
+      }
+      ListObjectsV2Request pageRequest = request;
+      response = join(send(bucket, () -> s3AsyncClient.listObjectsV2(pageRequest)));
+      if (collectObjectsBetween(toSummaries(bucket, response.contents()), commonPrefixes(response), firstKey, lastKey,
+          objectSummaries)) {
+        break;
+      }
+      request = request.toBuilder().continuationToken(response.nextContinuationToken()).build();
+    } while (Boolean.TRUE.equals(response.isTruncated()));
+    return Optional.of(objectSummaries);
+  }
+
+  private List<String> commonPrefixes(ListObjectsV2Response response) {
+    return response.commonPrefixes().stream().map(CommonPrefix::prefix).collect(Collectors.toList());
+  }
+
+  private List<S3ObjectSummary> toSummaries(String bucket, List<S3Object> objects) {
+    return objects.stream().map(object -> {
+      S3ObjectSummary summary = new S3ObjectSummary();
+      summary.setBucketName(bucket);
+      summary.setKey(object.key());
+      summary.setSize(object.size());
+      return summary;
+    }).collect(Collectors.toList());
+  }
+
+  private <T> CompletableFuture<T> send(String bucket, Supplier<CompletableFuture<T>> request) {
+    return send(bucket, request, result -> false);
+  }
+
+  /**
+   * @param throttled Whether a request which completed successfully was nevertheless throttled.
+   */
+  private <T> CompletableFuture<T> send(
+      String bucket,
+      Supplier<CompletableFuture<T>> request,
+      Predicate<T> throttled) {
+    S3RequestRateController.Permit permit = requestRateController.acquire(bucket);
+    try {
+      requestsInFlight.acquire();
+    } catch (InterruptedException e) {
+      permit.release(null);
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while waiting to send S3 request", e);
+    }
+    try {
+      return request.get().whenComplete((result, e) -> {
+        requestsInFlight.release();
+        if (e == null && throttled.test(result)) {
+          permit.releaseThrottled();
+        } else {
+          permit.release(e);
+        }
+      });
+    } catch (RuntimeException e) {
+      requestsInFlight.release();
+      permit.release(e);
+      throw e;
+    }
+  }
+
+  private <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw unwrap(e.getCause());
+    }
+  }
+
+  private RuntimeException unwrap(Throwable e) {
+    while (e instanceof CompletionException && e.getCause() != null) {
+      e = e.getCause();
+    }
+    if (e instanceof RuntimeException) {
+      return (RuntimeException) e;
+    }
+    return new BeekeeperException("Error calling S3", e);
+  }
+}
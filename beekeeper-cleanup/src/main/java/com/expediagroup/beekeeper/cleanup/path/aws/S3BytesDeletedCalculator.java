@@ -15,42 +15,81 @@
  */
 package com.expediagroup.beekeeper.cleanup.path.aws;
 
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Sums the sizes of deleted objects batch by batch. Only the sizes of objects which could not be deleted are kept, so
+ * that they can be counted if a later retry deletes them; memory does not grow with the number of objects deleted.
+ * Nor does it grow with the number of objects which could not be deleted: once more than a maximum number of them is
+ * kept, such as when a bucket policy denies every deletion, the cleanup of the path fails rather than going on to list
+ * the rest of it.
+ */
 public class S3BytesDeletedCalculator {
 
-  private S3Client s3Client;
-  private Map<String, Long> keyToSize = new HashMap<>();
+  static final int DEFAULT_MAX_FAILED_KEYS = 10 * S3Client.MAX_KEYS_PER_DELETE_REQUEST;
+
+  private final Map<String, Long> failedKeyToSize = new LinkedHashMap<>();
+  private final int maxFailedKeys;
   private long bytesDeleted = 0;
 
-  public S3BytesDeletedCalculator(S3Client s3Client) {
-    this.s3Client = s3Client;
+  public S3BytesDeletedCalculator() {
+    this(DEFAULT_MAX_FAILED_KEYS);
   }
 
-  public void storeFileSize(String bucket, String key) {
-    long bytes = s3Client.getObjectMetadata(bucket, key).getContentLength();
-    keyToSize.put(key, bytes);
+  S3BytesDeletedCalculator(int maxFailedKeys) {
+    this.maxFailedKeys = maxFailedKeys;
   }
 
-  public void storeFileSizes(List<S3ObjectSummary> objectSummaries) {
+  /**
+   * @param objectSummaries Objects which were requested to be deleted.
+   * @param keysDeleted Keys of the requested objects which were actually deleted.
+   * @throws BeekeeperException If more objects could not be deleted than are kept for retrying.
+   */
+  public void calculateBytesDeleted(List<S3ObjectSummary> objectSummaries, List<String> keysDeleted) {
+    if (keysDeleted.size() == objectSummaries.size()) {
+      objectSummaries.forEach(objectSummary -> bytesDeleted += objectSummary.getSize());
+      return;
+    }
+    Set<String> deleted = new HashSet<>(keysDeleted);
     objectSummaries.forEach(objectSummary -> {
-      long bytes = objectSummary.getSize();
-      keyToSize.put(objectSummary.getKey(), bytes);
+      if (deleted.contains(objectSummary.getKey())) {
+        bytesDeleted += objectSummary.getSize();
+      } else {
+        failedKeyToSize.put(objectSummary.getKey(), objectSummary.getSize());
+      }
     });
+    if (failedKeyToSize.size() > maxFailedKeys) {
+      throw new BeekeeperException(String.format("%d objects could not be deleted, more than the %d kept for retrying, "
+          + "first of them: %s", failedKeyToSize.size(), maxFailedKeys, failedKeyToSize.keySet().iterator().next()));
+    }
   }
 
-  public void calculateBytesDeleted(List<String> keysDeleted) {
-    if (!keyToSize.isEmpty()) {
-      keysDeleted.forEach(key -> {
-        if (keyToSize.containsKey(key)) {
-          bytesDeleted += keyToSize.get(key);
-        }
-      });
+  /**
+   * @param keysDeleted Keys which were deleted when retrying keys that previously could not be deleted.
+   * @return Number of previously failed keys which are now deleted.
+   */
+  public int calculateRetriedBytesDeleted(List<String> keysDeleted) {
+    int retriedKeysDeleted = 0;
+    for (String key : keysDeleted) {
+      Long size = failedKeyToSize.remove(key);
+      if (size != null) {
+        bytesDeleted += size;
+        retriedKeysDeleted++;
+      }
     }
+    return retriedKeysDeleted;
+  }
+
+  public Set<String> getFailedKeys() {
+    return failedKeyToSize.keySet();
   }
 
   public long getBytesDeleted() {
@@ -16,9 +16,22 @@
 package com.expediagroup.beekeeper.cleanup.path.aws;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,31 +41,128 @@ import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
 
 public class S3Client {
 
   private static final Logger log = LoggerFactory.getLogger(S3Client.class);
+  static final int MAX_KEYS_PER_DELETE_REQUEST = 1000;
+  static final int MAX_KEYS_PER_LIST_REQUEST = 1000;
   private final AmazonS3 amazonS3;
   private final boolean dryRunEnabled;
+  private final int deleteParallelism;
+  private final S3RequestRateController requestRateController;
+  private final ExecutorService deleteExecutor;
+  private volatile S3EmptinessCache runEmptinessCache;
 
   public S3Client(AmazonS3 amazonS3, boolean dryRunEnabled) {
+    this(amazonS3, dryRunEnabled, 1);
+  }
+
+  public S3Client(AmazonS3 amazonS3, boolean dryRunEnabled, int deleteParallelism) {
+    this(amazonS3, dryRunEnabled, deleteParallelism, S3RequestRateController.unlimited());
+  }
+
+  public S3Client(
+      AmazonS3 amazonS3,
+      boolean dryRunEnabled,
+      int deleteParallelism,
+      S3RequestRateController requestRateController) {
+    this(amazonS3, dryRunEnabled, deleteParallelism, requestRateController, newDeleteExecutor(deleteParallelism));
+  }
+
+  /**
+   * @param deleteParallelism Maximum number of delete requests sent concurrently.
+   * @param deleteExecutor Executor sending the delete requests, shared by every path being cleaned up, with
+   * {@code deleteParallelism} threads.
+   */
+  public S3Client(
+      AmazonS3 amazonS3,
+      boolean dryRunEnabled,
+      int deleteParallelism,
+      S3RequestRateController requestRateController,
+      ExecutorService deleteExecutor) {
     this.amazonS3 = amazonS3;
     this.dryRunEnabled = dryRunEnabled;
+    this.deleteParallelism = Math.max(1, deleteParallelism);
+    this.requestRateController = requestRateController;
+    this.deleteExecutor = deleteExecutor;
+  }
+
+  /**
+   * Creates an executor for the delete requests of S3 clients, whose threads stop once they have been idle for a
+   * minute so that an executor which is never shut down does not hold on to them.
+   */
+  public static ExecutorService newDeleteExecutor(int deleteParallelism) {
+    int threads = Math.max(1, deleteParallelism);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1L, TimeUnit.MINUTES,
+        new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+            .setNameFormat("s3-delete-%d")
+            .setDaemon(true)
+            .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * For implementations which override every S3 call and do not use a synchronous client.
+   */
+  S3Client(boolean dryRunEnabled) {
+    this(null, dryRunEnabled, 1);
+  }
+
+  /**
+   * Starts caching, until {@link #endRun()}, which directories were found not to be empty.
+   */
+  void startRun() {
+    runEmptinessCache = new S3EmptinessCache();
+  }
+
+  void endRun() {
+    runEmptinessCache = null;
   }
 
   void deleteObject(String bucket, String key) {
     if (dryRunEnabled) {
-      log.info("Dry run - deleting: \"{}/{}\"", bucket, key);
+      log.debug("Dry run - deleting: \"{}/{}\"", bucket, key);
     } else {
       log.info("Deleting \"{}/{}\"", bucket, key);
-      amazonS3.deleteObject(bucket, key);
+      requestRateController.run(bucket, () -> amazonS3.deleteObject(bucket, key));
+      objectsDeleted(bucket, List.of(key));
+    }
+  }
+
+  /**
+   * Must be called with the keys of the objects deleted by every implementation, so that directories are not
+   * remembered as not being empty because of objects which no longer exist.
+   */
+  void objectsDeleted(String bucket, Collection<String> deletedKeys) {
+    S3EmptinessCache emptinessCache = runEmptinessCache;
+    if (emptinessCache != null) {
+      emptinessCache.objectsDeleted(bucket, deletedKeys);
     }
   }
 
   List<S3ObjectSummary> listObjects(String bucket, String key) {
     List<S3ObjectSummary> objectSummaries = new ArrayList<>();
+    listObjects(bucket, key, objectSummaries::addAll);
+    return objectSummaries;
+  }
+
+  void listObjects(String bucket, String key, Consumer<List<S3ObjectSummary>> pageConsumer) {
+    listObjects(bucket, key, null, pageConsumer);
+  }
+
+  /**
+   * @param startAfter Key after which to start listing, or null to list from the start of the prefix.
+   */
+  void listObjects(String bucket, String key, String startAfter, Consumer<List<S3ObjectSummary>> pageConsumer) {
     ListObjectsV2Result listObjectsV2Result;
     String continuationToken = null;
     do {
@@ -60,57 +170,422 @@ public class S3Client {
         .withBucketName(bucket)
         .withPrefix(key)
         .withEncodingType("url")
+        .withStartAfter(startAfter)
         .withContinuationToken(continuationToken);
-      listObjectsV2Result = amazonS3.listObjectsV2(request);
-      objectSummaries.addAll(listObjectsV2Result.getObjectSummaries());
+      listObjectsV2Result = requestRateController.call(bucket, () -> amazonS3.listObjectsV2(request));
+      pageConsumer.accept(listObjectsV2Result.getObjectSummaries());
       continuationToken = listObjectsV2Result.getNextContinuationToken();
     } while (listObjectsV2Result.isTruncated());
-    return objectSummaries;
   }
 
+  /**
+   * Lists the objects directly under {@code prefix}, leaving out anything in sub-directories, whose keys sort between
+   * {@code firstKey} and {@code lastKey} inclusive.
+   *
+   * @param maxRequests Maximum number of list requests to send.
+   * @return The objects found, or empty if the range could not be listed within {@code maxRequests} requests.
+   */
+  Optional<List<S3ObjectSummary>> listObjectsBetween(
+      String bucket,
+      String prefix,
+      String firstKey,
+      String lastKey,
+      int maxRequests) {
+    List<S3ObjectSummary> objectSummaries = new ArrayList<>();
+    ListObjectsV2Result listObjectsV2Result;
+    String continuationToken = null;
+    int requests = 0;
+    do {
+      if (requests++ == maxRequests) {
+        return Optional.empty();
+      }
+      ListObjectsV2Request request = new ListObjectsV2Request()
+        .withBucketName(bucket)
+        .withPrefix(prefix)
+        .withDelimiter("/")
+        .withEncodingType("url")
+        .withStartAfter(keyBefore(firstKey))
+        .withContinuationToken(continuationToken);
+      listObjectsV2Result = requestRateController.call(bucket, () -> amazonS3.listObjectsV2(request));
+      if (collectObjectsBetween(listObjectsV2Result.getObjectSummaries(), listObjectsV2Result.getCommonPrefixes(),
+          firstKey, lastKey, objectSummaries)) {
+        break;
+      }
+      continuationToken = listObjectsV2Result.getNextContinuationToken();
+    } while (listObjectsV2Result.isTruncated());
+    return Optional.of(objectSummaries);
+  }
+
+  /**
+   * @return Whether the listing has gone past {@code lastKey}, in which case no further pages are needed.
+   */
+  static boolean collectObjectsBetween(
+      List<S3ObjectSummary> page,
+      List<String> commonPrefixes,
+      String firstKey,
+      String lastKey,
+      List<S3ObjectSummary> objectSummaries) {
+    for (S3ObjectSummary objectSummary : page) {
+      if (compareKeys(objectSummary.getKey(), lastKey) > 0) {
+        return true;
+      }
+      if (compareKeys(objectSummary.getKey(), firstKey) >= 0) {
+        objectSummaries.add(objectSummary);
+      }
+    }
+    return commonPrefixes.stream().anyMatch(commonPrefix -> compareKeys(commonPrefix, lastKey) > 0);
+  }
+
+  /**
+   * A key which sorts before {@code key}, to list from {@code key} onwards with an exclusive StartAfter.
+   */
+  static String keyBefore(String key) {
+    return key.isEmpty() ? null : key.substring(0, key.length() - 1);
+  }
+
+  /**
+   * Compares keys in the order S3 lists them, that is by their UTF-8 bytes, which is the order of their code points.
+   */
+  static int compareKeys(String key, String otherKey) {
+    int i = 0;
+    while (i < key.length() && i < otherKey.length()) {
+      int codePoint = key.codePointAt(i);
+      int otherCodePoint = otherKey.codePointAt(i);
+      if (codePoint != otherCodePoint) {
+        return Integer.compare(codePoint, otherCodePoint);
+      }
+      i += Character.charCount(codePoint);
+    }
+    return Integer.compare(key.length() - i, otherKey.length() - i);
+  }
+
+  /**
+   * Lists only the first page of objects whose keys start with {@code key}.
+   */
+  ListObjectsV2Result listFirstPage(String bucket, String key) {
+    ListObjectsV2Request request = new ListObjectsV2Request()
+      .withBucketName(bucket)
+      .withPrefix(key)
+      .withEncodingType("url");
+    return requestRateController.call(bucket, () -> amazonS3.listObjectsV2(request));
+  }
+
+  /**
+   * Listens to the deletion of the objects under a prefix.
+   */
+  interface PrefixDeletionListener {
+
+    /**
+     * Called with each page, in listing order, before it is deleted.
+     */
+    default void pageListed(List<S3ObjectSummary> page) {}
+
+    /**
+     * Called, possibly concurrently, with each listed page and the keys deleted from it.
+     */
+    void pageDeleted(List<S3ObjectSummary> page, List<String> deletedKeys);
+  }
+
+  /**
+   * Deletes every object under {@code prefix} without holding the whole listing in memory. Each listed page is handed
+   * to the delete executor while the next page is being listed; listing blocks once twice delete parallelism pages are
+   * waiting to be deleted.
+   *
+   * @param bucket Bucket holding the objects.
+   * @param prefix Prefix to list and delete.
+   * @param listener Told about each page listed and deleted.
+   */
+  void deleteObjectsUnderPrefix(String bucket, String prefix, PrefixDeletionListener listener) {
+    deleteObjectsUnderPrefix(bucket, prefix, Collections.emptyList(), true, listener);
+  }
+
+  /**
+   * As {@link #deleteObjectsUnderPrefix(String, String, PrefixDeletionListener)}, starting from objects the caller has
+   * already listed under {@code prefix} so that they are not listed again.
+   *
+   * @param listedObjects Objects under {@code prefix} which have already been listed, in listing order.
+   * @param listRemaining Whether there may be more objects under {@code prefix} after {@code listedObjects}.
+   */
+  void deleteObjectsUnderPrefix(
+      String bucket,
+      String prefix,
+      List<S3ObjectSummary> listedObjects,
+      boolean listRemaining,
+      PrefixDeletionListener listener) {
+    deleteObjectsUnderPrefix(bucket, prefix, null, listedObjects, listRemaining, listener);
+  }
+
+  /**
+   * As {@link #deleteObjectsUnderPrefix(String, String, List, boolean, PrefixDeletionListener)}, listing after
+   * {@code startAfter} when no objects have been listed yet, to resume a deletion which stopped part way through.
+   *
+   * @param startAfter Key after which to list, or null to list from the start of the prefix; ignored if
+   * {@code listedObjects} is not empty.
+   */
+  void deleteObjectsUnderPrefix(
+      String bucket,
+      String prefix,
+      String startAfter,
+      List<S3ObjectSummary> listedObjects,
+      boolean listRemaining,
+      PrefixDeletionListener listener) {
+    int maxPagesInFlight = deleteParallelism * 2;
+    Semaphore pagesInFlight = new Semaphore(maxPagesInFlight);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Consumer<List<S3ObjectSummary>> deletePage = page -> {
+      throwIfFailed(failure);
+      if (page.isEmpty()) {
+        return;
+      }
+      listener.pageListed(page);
+      acquire(pagesInFlight);
+      try {
+        deleteExecutor.execute(() -> {
+          try {
+            if (failure.get() == null) {
+              List<String> keys = page.stream()
+                  .map(S3ObjectSummary::getKey)
+                  .collect(Collectors.toList());
+              // already on the delete executor, so waiting on it for the batches of the page could starve it
+              listener.pageDeleted(page, deleteObjects(bucket, keys, false));
+            }
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            pagesInFlight.release();
+          }
+        });
+      } catch (RuntimeException e) {
+        pagesInFlight.release();
+        throw e;
+      }
+    };
+    try {
+      deletePage.accept(listedObjects);
+      if (listRemaining) {
+        listObjects(bucket, prefix, listedObjects.isEmpty() ? startAfter : lastKey(listedObjects), deletePage);
+      }
+    } finally {
+      awaitPagesDeleted(pagesInFlight, maxPagesInFlight, failure);
+    }
+    throwIfFailed(failure);
+  }
+
+  static String lastKey(List<S3ObjectSummary> objectSummaries) {
+    return objectSummaries.isEmpty() ? null : objectSummaries.get(objectSummaries.size() - 1).getKey();
+  }
+
+  private void throwIfFailed(AtomicReference<RuntimeException> failure) {
+    RuntimeException e = failure.get();
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  private void acquire(Semaphore semaphore) {
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while waiting for objects to be deleted", e);
+    }
+  }
+
+  /**
+   * Waits until every page handed to the delete executor has been deleted. If interrupted, pages which have not
+   * started yet are skipped.
+   */
+  private void awaitPagesDeleted(
+      Semaphore pagesInFlight,
+      int maxPagesInFlight,
+      AtomicReference<RuntimeException> failure) {
+    try {
+      pagesInFlight.acquire(maxPagesInFlight);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      BeekeeperException interrupted = new BeekeeperException("Interrupted while waiting for objects to be deleted", e);
+      failure.compareAndSet(null, interrupted);
+      throw interrupted;
+    }
+  }
+
+  /**
+   * Deletes the given keys, splitting them into requests of at most {@value #MAX_KEYS_PER_DELETE_REQUEST} keys which
+   * are sent concurrently, up to the configured delete parallelism.
+   *
+   * @param bucket Bucket holding the keys.
+   * @param keys Keys to delete.
+   * @return The keys which were successfully deleted across all requests. Keys which S3 reported as not deleted are
+   * left out of the result rather than failing the whole call.
+   */
   List<String> deleteObjects(String bucket, List<String> keys) {
+    return deleteObjects(bucket, keys, true);
+  }
+
+  private List<String> deleteObjects(String bucket, List<String> keys, boolean concurrently) {
     if (keys.isEmpty()) {
       return Collections.emptyList();
     }
     if (!dryRunEnabled) {
-      keys.forEach(key -> log.info("Deleting: \"{}/{}\"", bucket, key));
-      DeleteObjectsRequest deleteObjectsRequest = new DeleteObjectsRequest(bucket)
-        .withKeys(keys.toArray(new String[]{}));
-      DeleteObjectsResult deleteObjectsResult = amazonS3.deleteObjects(deleteObjectsRequest);
-      return deleteObjectsResult.getDeletedObjects()
-          .stream()
-          .map(DeleteObjectsResult.DeletedObject::getKey)
-          .collect(Collectors.toList());
+      List<List<String>> batches = Lists.partition(keys, MAX_KEYS_PER_DELETE_REQUEST);
+      List<String> deletedKeys;
+      if (!concurrently || batches.size() == 1 || deleteParallelism == 1) {
+        deletedKeys = new ArrayList<>(keys.size());
+        for (List<String> batch : batches) {
+          deletedKeys.addAll(deleteBatch(bucket, batch));
+        }
+      } else {
+        deletedKeys = deleteBatchesConcurrently(bucket, batches, keys.size());
+      }
+      objectsDeleted(bucket, deletedKeys);
+      return deletedKeys;
     } else {
       return keys.stream()
-          .peek(key -> log.info("Dry run - deleting: \"{}/{}\"", bucket, key))
+          .peek(key -> log.debug("Dry run - deleting: \"{}/{}\"", bucket, key))
           .collect(Collectors.toList());
     }
   }
 
+  private List<String> deleteBatchesConcurrently(String bucket, List<List<String>> batches, int totalKeys) {
+    List<Future<List<String>>> futures = new ArrayList<>(batches.size());
+    try {
+      batches.forEach(batch -> futures.add(deleteExecutor.submit(() -> deleteBatch(bucket, batch))));
+      List<String> deletedKeys = new ArrayList<>(totalKeys);
+      for (Future<List<String>> future : futures) {
+        deletedKeys.addAll(future.get());
+      }
+      return deletedKeys;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while deleting objects in bucket " + bucket, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new BeekeeperException("Error deleting objects in bucket " + bucket, e.getCause());
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private List<String> deleteBatch(String bucket, List<String> keys) {
+    keys.forEach(key -> log.info("Deleting: \"{}/{}\"", bucket, key));
+    DeleteObjectsRequest deleteObjectsRequest = new DeleteObjectsRequest(bucket)
+        .withKeys(keys.toArray(new String[] {}));
+    List<DeleteObjectsResult.DeletedObject> deletedObjects;
+    try {
+      deletedObjects = requestRateController.call(bucket, () -> amazonS3.deleteObjects(deleteObjectsRequest))
+          .getDeletedObjects();
+    } catch (MultiObjectDeleteException e) {
+      // partial failure: report what was deleted and let the caller account for the rest
+      log.warn("{} of {} objects could not be deleted from bucket {}", e.getErrors().size(), keys.size(), bucket);
+      deletedObjects = e.getDeletedObjects();
+    }
+    return deletedObjects.stream()
+        .map(DeleteObjectsResult.DeletedObject::getKey)
+        .collect(Collectors.toList());
+  }
+
   boolean doesObjectExist(String bucket, String key) {
-    return amazonS3.doesObjectExist(bucket, key);
+    return requestRateController.call(bucket, () -> amazonS3.doesObjectExist(bucket, key));
   }
 
   ObjectMetadata getObjectMetadata(String bucket, String key) {
-    return amazonS3.getObjectMetadata(bucket, key);
+    return requestRateController.call(bucket, () -> amazonS3.getObjectMetadata(bucket, key));
   }
 
   boolean isEmpty(String bucket, String key, String leafKey) {
-    List<S3ObjectSummary> objectsLeftAtPath = amazonS3.listObjectsV2(bucket, key + "/").getObjectSummaries();
-    if (!dryRunEnabled) {
-      return objectsLeftAtPath.size() == 0;
-    } else {
-      String leafKeySentinel = leafKey + S3SentinelFilesCleaner.SENTINEL_SUFFIX;
+    return isEmptyIgnoringLeafKeys(bucket, key, Collections.singleton(leafKey));
+  }
 
-      for (S3ObjectSummary s3ObjectSummary : objectsLeftAtPath) {
-        String currentKey = s3ObjectSummary.getKey();
-        if (!currentKey.startsWith(leafKey + "/") && !currentKey.equals(leafKeySentinel)) {
-          return false;
-        }
+  /**
+   * During a run, a directory found not to be empty is not listed again for as long as the object found in it has not
+   * been deleted.
+   *
+   * @param leafKeys Keys under {@code key} which have been cleaned up. In a dry run nothing is actually deleted, so
+   * objects under these keys, and their sentinel files, do not count.
+   */
+  boolean isEmptyIgnoringLeafKeys(String bucket, String key, Set<String> leafKeys) {
+    S3EmptinessCache emptinessCache = runEmptinessCache;
+    if (emptinessCache != null) {
+      Optional<String> cachedObjectLeft = emptinessCache.getObjectLeft(bucket, key);
+      if (cachedObjectLeft.isPresent() && isObjectLeft(cachedObjectLeft.get(), leafKeys)) {
+        return false;
+      }
+    }
+    Optional<String> objectLeft = findObjectLeft(bucket, key + "/", leafKeys);
+    if (emptinessCache != null) {
+      objectLeft.ifPresent(left -> emptinessCache.putObjectLeft(bucket, key, left));
+    }
+    return !objectLeft.isPresent();
+  }
+
+  /**
+   * Looks for an object which is left under {@code prefix} once the leaf keys have been cleaned up. Outside of a dry
+   * run any object will do, so a single key is listed. In a dry run the listing is delimited, so that a cleaned up leaf
+   * counts as a single common prefix however many objects it holds.
+   *
+   * @return The key of an object left, or in a dry run possibly the prefix of a sub-directory.
+   */
+  Optional<String> findObjectLeft(String bucket, String prefix, Set<String> leafKeys) {
+    ListObjectsV2Result listObjectsV2Result;
+    String continuationToken = null;
+    do {
+      ListObjectsV2Request request = new ListObjectsV2Request()
+        .withBucketName(bucket)
+        .withPrefix(prefix)
+        .withDelimiter(dryRunEnabled ? "/" : null)
+        .withEncodingType("url")
+        .withMaxKeys(maxKeysToFindObjectLeft(leafKeys))
+        .withContinuationToken(continuationToken);
+      listObjectsV2Result = requestRateController.call(bucket, () -> amazonS3.listObjectsV2(request));
+      Optional<String> objectLeft = firstObjectLeft(listObjectsV2Result.getObjectSummaries(),
+          listObjectsV2Result.getCommonPrefixes(), leafKeys);
+      if (objectLeft.isPresent()) {
+        return objectLeft;
       }
+      continuationToken = listObjectsV2Result.getNextContinuationToken();
+    } while (listObjectsV2Result.isTruncated());
+    return Optional.empty();
+  }
+
+  /**
+   * In a dry run each leaf can show up as both a common prefix and a sentinel file, so one more entry than that is
+   * enough to find an object left in a single request.
+   */
+  int maxKeysToFindObjectLeft(Set<String> leafKeys) {
+    if (!dryRunEnabled) {
+      return 1;
+    }
+    return (int) Math.min(MAX_KEYS_PER_LIST_REQUEST, 2L * leafKeys.size() + 1);
+  }
+
+  Optional<String> firstObjectLeft(
+      List<S3ObjectSummary> objectSummaries,
+      List<String> commonPrefixes,
+      Set<String> leafKeys) {
+    return Stream
+        .concat(objectSummaries.stream().map(S3ObjectSummary::getKey), commonPrefixes.stream())
+        .filter(currentKey -> isObjectLeft(currentKey, leafKeys))
+        .findFirst();
+  }
+
+  private boolean isObjectLeft(String currentKey, Set<String> leafKeys) {
+    return !dryRunEnabled || !isUnderLeafKey(currentKey, leafKeys);
+  }
+
+  private boolean isUnderLeafKey(String currentKey, Set<String> leafKeys) {
+    String sentinelSuffix = S3SentinelFilesCleaner.SENTINEL_SUFFIX;
+    if (currentKey.endsWith(sentinelSuffix)
+        && leafKeys.contains(currentKey.substring(0, currentKey.length() - sentinelSuffix.length()))) {
       return true;
     }
+    for (int slash = currentKey.indexOf('/'); slash >= 0; slash = currentKey.indexOf('/', slash + 1)) {
+      if (leafKeys.contains(currentKey.substring(0, slash))) {
+        return true;
+      }
+    }
+    return false;
   }
 
 }
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import com.expediagroup.beekeeper.cleanup.path.ExponentialBackoff;
+
+/**
+ * How often, and after how long, keys which S3 reported as not deleted are retried within the same cleanup. The wait
+ * before each retry doubles, starting from the initial backoff, up to the maximum backoff.
+ */
+public class S3DeleteRetryPolicy {
+
+  private final int maxRetries;
+  private final ExponentialBackoff backoff;
+
+  public S3DeleteRetryPolicy(int maxRetries, long initialBackoffMillis, long maxBackoffMillis) {
+    this.maxRetries = Math.max(0, maxRetries);
+    backoff = new ExponentialBackoff(initialBackoffMillis, maxBackoffMillis);
+  }
+
+  public static S3DeleteRetryPolicy noRetries() {
+    return new S3DeleteRetryPolicy(0, 0, 0);
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * @param retry Retry number, starting at 1.
+   * @return Milliseconds to wait before the given retry.
+   */
+  public long backoffMillis(int retry) {
+    return backoff.millis(retry);
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, for the duration of a cleanup run, an object found under each directory which was found not to be empty,
+ * so that sibling paths sharing a parent do not each list it again. An entry is dropped as soon as the object it holds
+ * is deleted, after which the directory is listed again.
+ */
+class S3EmptinessCache {
+
+  private final Map<String, String> objectLeftByDirectory = new ConcurrentHashMap<>();
+
+  Optional<String> getObjectLeft(String bucket, String key) {
+    return Optional.ofNullable(objectLeftByDirectory.get(cacheKey(bucket, key)));
+  }
+
+  void putObjectLeft(String bucket, String key, String objectLeft) {
+    objectLeftByDirectory.put(cacheKey(bucket, key), objectLeft);
+  }
+
+  void objectsDeleted(String bucket, Collection<String> deletedKeys) {
+    if (objectLeftByDirectory.isEmpty()) {
+      return;
+    }
+    for (String deletedKey : deletedKeys) {
+      for (int slash = deletedKey.indexOf('/'); slash >= 0; slash = deletedKey.indexOf('/', slash + 1)) {
+        objectLeftByDirectory.remove(cacheKey(bucket, deletedKey.substring(0, slash)), deletedKey);
+      }
+    }
+  }
+
+  private static String cacheKey(String bucket, String key) {
+    return bucket + "/" + key;
+  }
+}
@@ -17,16 +17,30 @@ package com.expediagroup.beekeeper.cleanup.path.aws;
 
 import static java.lang.String.format;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.google.common.base.Strings;
 
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunReporter;
+import com.expediagroup.beekeeper.cleanup.path.PathCheckpointer;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.cleanup.path.SentinelFilesCleaner;
 import com.expediagroup.beekeeper.core.config.FileSystemType;
@@ -41,12 +55,43 @@ public class S3PathCleaner implements PathCleaner {
   private S3Client s3Client;
   private SentinelFilesCleaner sentinelFilesCleaner;
   private BytesDeletedReporter bytesDeletedReporter;
+  private S3DeleteRetryPolicy deleteRetryPolicy;
+  private DryRunReporter dryRunReporter;
+  private PathCheckpointer checkpointer;
+  private final AtomicReference<SentinelFilesBatch> pageSentinelFiles = new AtomicReference<>();
 
   public S3PathCleaner(S3Client s3Client, SentinelFilesCleaner sentinelFilesCleaner,
       BytesDeletedReporter bytesDeletedReporter) {
+    this(s3Client, sentinelFilesCleaner, bytesDeletedReporter, S3DeleteRetryPolicy.noRetries());
+  }
+
+  public S3PathCleaner(S3Client s3Client, SentinelFilesCleaner sentinelFilesCleaner,
+      BytesDeletedReporter bytesDeletedReporter, S3DeleteRetryPolicy deleteRetryPolicy) {
+    this(s3Client, sentinelFilesCleaner, bytesDeletedReporter, deleteRetryPolicy, DryRunReporter.disabled());
+  }
+
+  /**
+   * @param dryRunReporter Reporter of what each path holds, for dry runs.
+   */
+  public S3PathCleaner(S3Client s3Client, SentinelFilesCleaner sentinelFilesCleaner,
+      BytesDeletedReporter bytesDeletedReporter, S3DeleteRetryPolicy deleteRetryPolicy,
+      DryRunReporter dryRunReporter) {
+    this(s3Client, sentinelFilesCleaner, bytesDeletedReporter, deleteRetryPolicy, dryRunReporter,
+        PathCheckpointer.disabled());
+  }
+
+  /**
+   * @param checkpointer Saves how far the deletion of large directories has got, so that it can be resumed.
+   */
+  public S3PathCleaner(S3Client s3Client, SentinelFilesCleaner sentinelFilesCleaner,
+      BytesDeletedReporter bytesDeletedReporter, S3DeleteRetryPolicy deleteRetryPolicy,
+      DryRunReporter dryRunReporter, PathCheckpointer checkpointer) {
     this.s3Client = s3Client;
     this.sentinelFilesCleaner = sentinelFilesCleaner;
     this.bytesDeletedReporter = bytesDeletedReporter;
+    this.deleteRetryPolicy = deleteRetryPolicy;
+    this.dryRunReporter = dryRunReporter;
+    this.checkpointer = checkpointer;
   }
 
   @Override
@@ -55,15 +100,30 @@ public class S3PathCleaner implements PathCleaner {
     S3SchemeURI s3SchemeURI = new S3SchemeURI(housekeepingPath.getPath());
     String key = s3SchemeURI.getKey();
     String bucket = s3SchemeURI.getBucket();
-    S3BytesDeletedCalculator bytesDeletedCalculator = new S3BytesDeletedCalculator(s3Client);
-    boolean isFile = s3Client.doesObjectExist(bucket, key);
+    S3BytesDeletedCalculator bytesDeletedCalculator = new S3BytesDeletedCalculator();
     try {
-      if (isFile) {
-        deleteFile(bucket, key, bytesDeletedCalculator);
+      DirectoryDeletion directoryDeletion;
+      if (housekeepingPath.getCheckpointKey() != null) {
+        // only directories are checkpointed, so there is no need to tell the path from a file again
+        directoryDeletion = resumeFilesInDirectory(bucket, key, housekeepingPath, bytesDeletedCalculator);
       } else {
-        deleteFilesInDirectory(bucket, key, bytesDeletedCalculator);
-        deleteSentinelFiles(s3SchemeURI, key, bucket, housekeepingPath.getTableName());
+        // a single listing both tells a file from a directory and provides the sizes of what is about to be deleted
+        ListObjectsV2Result listing = s3Client.listFirstPage(bucket, key);
+        Optional<S3ObjectSummary> file = listing.getObjectSummaries()
+            .stream()
+            .filter(objectSummary -> objectSummary.getKey().equals(key))
+            .findFirst();
+        if (file.isPresent()) {
+          deleteFile(bucket, file.get(), bytesDeletedCalculator);
+          dryRunReporter.reportPath(housekeepingPath, 1, bytesDeletedCalculator.getBytesDeleted(), 1, 1);
+          return;
+        }
+        directoryDeletion = deleteFilesInDirectory(bucket, key, listing, housekeepingPath, bytesDeletedCalculator);
       }
+      deleteSentinelFiles(bucket, key, s3SchemeURI.getPath(), housekeepingPath.getTableName());
+      dryRunReporter.reportPath(housekeepingPath, directoryDeletion.getTotalObjects(),
+          bytesDeletedCalculator.getBytesDeleted(), directoryDeletion.getListRequests(),
+          directoryDeletion.getDeleteRequests());
     } finally {
       long bytesDeleted = bytesDeletedCalculator.getBytesDeleted();
       if (bytesDeleted > 0) {
@@ -72,64 +132,157 @@ public class S3PathCleaner implements PathCleaner {
     }
   }
 
-  private void deleteFile(String bucket, String key, S3BytesDeletedCalculator bytesDeletedCalculator) {
-    bytesDeletedCalculator.storeFileSize(bucket, key);
-    s3Client.deleteObject(bucket, key);
-    bytesDeletedCalculator.calculateBytesDeleted(List.of(key));
+  private void deleteFile(String bucket, S3ObjectSummary file, S3BytesDeletedCalculator bytesDeletedCalculator) {
+    s3Client.deleteObject(bucket, file.getKey());
+    bytesDeletedCalculator.calculateBytesDeleted(List.of(file), List.of(file.getKey()));
   }
 
-  private void deleteFilesInDirectory(String bucket, String key, S3BytesDeletedCalculator bytesDeletedCalculator) {
-    if (!key.endsWith("/")) {
-      key += "/";
-    }
-    List<S3ObjectSummary> objectSummaries = s3Client.listObjects(bucket, key);
-    bytesDeletedCalculator.storeFileSizes(objectSummaries);
-    List<String> keys = objectSummaries.stream()
-      .map(S3ObjectSummary::getKey)
-      .collect(Collectors.toList());
-    List<String> deletedKeys = s3Client.deleteObjects(bucket, keys);
-    bytesDeletedCalculator.calculateBytesDeleted(deletedKeys);
-    int totalFiles = keys.size();
-    int successfulDeletes = deletedKeys.size();
-    if (successfulDeletes != totalFiles) {
-      keys.removeAll(deletedKeys);
-      String failedDeletions = keys.stream()
-        .map(k -> format("'%s'", k))
-        .collect(Collectors.joining(", "));
-      throw new BeekeeperException(
-          format("Not all files could be deleted at path \"%s/%s\"; deleted %s/%s objects. Objects not deleted: %s.",
-            bucket, key, successfulDeletes, totalFiles, failedDeletions));
+  private DirectoryDeletion deleteFilesInDirectory(
+      String bucket,
+      String key,
+      ListObjectsV2Result listing,
+      HousekeepingPath housekeepingPath,
+      S3BytesDeletedCalculator bytesDeletedCalculator) {
+    String directoryKey = directoryKey(key);
+    // the listing was for the key without a trailing slash, so it can include siblings such as sentinel files
+    List<S3ObjectSummary> listedObjects = listing.getObjectSummaries()
+        .stream()
+        .filter(objectSummary -> objectSummary.getKey().startsWith(directoryKey))
+        .collect(Collectors.toList());
+    DirectoryDeletion directoryDeletion = new DirectoryDeletion(bytesDeletedCalculator, listedObjects.isEmpty() ? 1 : 0,
+        housekeepingPath, checkpointer);
+    s3Client.deleteObjectsUnderPrefix(bucket, directoryKey, listedObjects, listing.isTruncated(), directoryDeletion);
+    retryFailedDeletions(bucket, directoryDeletion);
+    directoryDeletion.verifyAllDeleted(bucket, directoryKey);
+    return directoryDeletion;
+  }
+
+  /**
+   * Lists the directory from after its checkpoint, as every object up to the checkpoint has been deleted by an earlier
+   * cleanup.
+   */
+  private DirectoryDeletion resumeFilesInDirectory(
+      String bucket,
+      String key,
+      HousekeepingPath housekeepingPath,
+      S3BytesDeletedCalculator bytesDeletedCalculator) {
+    String directoryKey = directoryKey(key);
+    String checkpointKey = housekeepingPath.getCheckpointKey();
+    log.info("Resuming cleanup of \"{}\" after \"{}\", {} bytes having already been deleted",
+        housekeepingPath.getPath(), checkpointKey, housekeepingPath.getCheckpointBytes());
+    DirectoryDeletion directoryDeletion = new DirectoryDeletion(bytesDeletedCalculator, 0, housekeepingPath,
+        checkpointer);
+    s3Client.deleteObjectsUnderPrefix(bucket, directoryKey, checkpointKey, List.of(), true, directoryDeletion);
+    retryFailedDeletions(bucket, directoryDeletion);
+    directoryDeletion.verifyAllDeleted(bucket, directoryKey);
+    return directoryDeletion;
+  }
+
+  private static String directoryKey(String key) {
+    return key.endsWith("/") ? key : key + "/";
+  }
+
+  /**
+   * Retries only the keys S3 reported as not deleted, backing off between attempts, so that a path is not marked as
+   * failed, and fully listed again on the next run, because of a few transient per-key errors.
+   */
+  private void retryFailedDeletions(String bucket, DirectoryDeletion directoryDeletion) {
+    List<String> failedKeys = directoryDeletion.getFailedKeys();
+    for (int retry = 1; !failedKeys.isEmpty() && retry <= deleteRetryPolicy.getMaxRetries(); retry++) {
+      long backoffMillis = deleteRetryPolicy.backoffMillis(retry);
+      log.info("Retrying deletion of {} objects in bucket {} in {}ms (retry {}/{})", failedKeys.size(), bucket,
+          backoffMillis, retry, deleteRetryPolicy.getMaxRetries());
+      sleep(backoffMillis);
+      directoryDeletion.retried(s3Client.deleteObjects(bucket, failedKeys));
+      failedKeys = directoryDeletion.getFailedKeys();
     }
   }
 
-  private void deleteSentinelFiles(S3SchemeURI s3SchemeURI, String key, String bucket, String tableName) {
+  private void sleep(long millis) {
     try {
-      String path = s3SchemeURI.getPath();
-      if (path.endsWith("/")) {
-        path = path.substring(0, path.length() - 1);
-      }
-      sentinelFilesCleaner.deleteSentinelFiles(path);
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while waiting to retry deletions", e);
+    }
+  }
 
-      // attempt to delete parents if there is at least one parent
-      if (key.contains("/")) {
-        deleteParentSentinelFiles(bucket, key, path, tableName);
+  private void deleteSentinelFiles(String bucket, String key, String absolutePath, String tableName) {
+    CleanedDirectory directory = new CleanedDirectory(bucket, stripTrailingSlash(key), stripTrailingSlash(absolutePath),
+        tableName);
+    SentinelFilesBatch batch = pageSentinelFiles.get();
+    if (batch != null) {
+      batch.add(directory);
+    } else {
+      deleteSentinelFiles(List.of(directory));
+    }
+  }
+
+  @Override
+  public void startRun() {
+    s3Client.startRun();
+    dryRunReporter.startRun();
+  }
+
+  @Override
+  public void endRun() {
+    s3Client.endRun();
+    dryRunReporter.endRun();
+  }
+
+  @Override
+  public void startPage() {
+    pageSentinelFiles.set(new SentinelFilesBatch());
+  }
+
+  @Override
+  public void endPage() {
+    SentinelFilesBatch batch = pageSentinelFiles.getAndSet(null);
+    if (batch != null) {
+      deleteSentinelFiles(batch.getDirectories());
+    }
+  }
+
+  /**
+   * Deletes the sentinel files of the cleaned directories, then of their parents which are now empty, and so on up to
+   * the table directory. Each level is handled as a whole so that parents shared by several directories are only
+   * checked once.
+   */
+  private void deleteSentinelFiles(Collection<CleanedDirectory> directories) {
+    try {
+      Collection<CleanedDirectory> level = directories;
+      while (!level.isEmpty()) {
+        sentinelFilesCleaner.deleteAllSentinelFiles(level.stream()
+            .map(CleanedDirectory::getAbsolutePath)
+            .collect(Collectors.toCollection(LinkedHashSet::new)));
+        level = getEmptyParents(level);
       }
     } catch (Exception e) {
       log.warn("Sentinel file(s) could not be deleted", e);
     }
   }
 
-  private void deleteParentSentinelFiles(String bucket, String key, String absolutePath, String tableName) {
-    String parentPath = absolutePath.substring(0, absolutePath.lastIndexOf("/"));
-    String parentKey = key.substring(0, key.lastIndexOf("/"));
-
-    if (pathHasValidTableName(parentPath, tableName) && s3Client.isEmpty(bucket, parentKey, key)) {
-      sentinelFilesCleaner.deleteSentinelFiles(parentPath);
-
-      if (parentKey.contains("/")) {
-        deleteParentSentinelFiles(bucket, parentKey, parentPath, tableName);
+  private Collection<CleanedDirectory> getEmptyParents(Collection<CleanedDirectory> directories) {
+    Map<CleanedDirectory, Set<String>> parentToLeafKeys = new LinkedHashMap<>();
+    for (CleanedDirectory directory : directories) {
+      // attempt to delete parents if there is at least one parent
+      if (directory.getKey().contains("/")) {
+        CleanedDirectory parent = directory.getParent();
+        if (pathHasValidTableName(parent.getAbsolutePath(), directory.getTableName())) {
+          parentToLeafKeys.computeIfAbsent(parent, p -> new HashSet<>()).add(directory.getKey());
+        }
       }
     }
+    return parentToLeafKeys.entrySet()
+        .stream()
+        .filter(entry -> s3Client.isEmptyIgnoringLeafKeys(entry.getKey().getBucket(), entry.getKey().getKey(),
+            entry.getValue()))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  private static String stripTrailingSlash(String path) {
+    return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
   }
 
   // stop deleting if the path doesn't contain the table name or we got to the table directory
@@ -138,4 +291,202 @@ public class S3PathCleaner implements PathCleaner {
     return !Strings.isNullOrEmpty(tableName) && parent.contains(tableDirectory) && !parent.endsWith("/" + tableName);
   }
 
+  /**
+   * Accumulates the outcome of a streamed directory deletion; pages may be reported from several delete threads. Pages
+   * can finish deleting out of order, so the checkpoint only moves past a page once it and every page listed before it
+   * have been deleted, and stops moving altogether once a page leaves objects behind.
+   */
+  private static class DirectoryDeletion implements S3Client.PrefixDeletionListener {
+
+    private final S3BytesDeletedCalculator bytesDeletedCalculator;
+    private final HousekeepingPath housekeepingPath;
+    private final PathCheckpointer checkpointer;
+    private final Map<String, ListedPage> uncheckpointedPages = new LinkedHashMap<>();
+    private long totalObjects = 0;
+    private long deletedObjects = 0;
+    private long listRequests;
+    private long deleteRequests = 0;
+    private boolean checkpointBlocked;
+    private long checkpointBytes;
+    private long objectsSinceCheckpoint = 0;
+
+    /**
+     * @param initialListRequests List requests sent before the first page deleted: 1 if the objects listed to tell the
+     * directory from a file were not part of it, 0 if they were the first page or nothing was listed.
+     */
+    private DirectoryDeletion(
+        S3BytesDeletedCalculator bytesDeletedCalculator,
+        long initialListRequests,
+        HousekeepingPath housekeepingPath,
+        PathCheckpointer checkpointer) {
+      this.bytesDeletedCalculator = bytesDeletedCalculator;
+      this.housekeepingPath = housekeepingPath;
+      this.checkpointer = checkpointer;
+      listRequests = initialListRequests;
+      checkpointBlocked = !checkpointer.isEnabled();
+      checkpointBytes = housekeepingPath.getCheckpointBytes() == null ? 0 : housekeepingPath.getCheckpointBytes();
+    }
+
+    @Override
+    public synchronized void pageListed(List<S3ObjectSummary> objectSummaries) {
+      if (!checkpointBlocked) {
+        uncheckpointedPages.put(S3Client.lastKey(objectSummaries), new ListedPage(objectSummaries));
+      }
+    }
+
+    @Override
+    public synchronized void pageDeleted(List<S3ObjectSummary> objectSummaries, List<String> deletedKeys) {
+      bytesDeletedCalculator.calculateBytesDeleted(objectSummaries, deletedKeys);
+      totalObjects += objectSummaries.size();
+      deletedObjects += deletedKeys.size();
+      listRequests++;
+      deleteRequests += (objectSummaries.size() + S3Client.MAX_KEYS_PER_DELETE_REQUEST - 1)
+          / S3Client.MAX_KEYS_PER_DELETE_REQUEST;
+      advanceCheckpoint(objectSummaries, deletedKeys);
+    }
+
+    private void advanceCheckpoint(List<S3ObjectSummary> objectSummaries, List<String> deletedKeys) {
+      if (checkpointBlocked) {
+        return;
+      }
+      ListedPage deletedPage = uncheckpointedPages.get(S3Client.lastKey(objectSummaries));
+      if (deletedPage == null || deletedKeys.size() != objectSummaries.size()) {
+        // objects left behind have to be listed again, so the checkpoint cannot move past them
+        checkpointBlocked = true;
+        uncheckpointedPages.clear();
+        return;
+      }
+      deletedPage.deleted = true;
+      String checkpointKey = null;
+      Iterator<ListedPage> pages = uncheckpointedPages.values().iterator();
+      while (pages.hasNext()) {
+        ListedPage page = pages.next();
+        if (!page.deleted) {
+          break;
+        }
+        checkpointKey = page.lastKey;
+        checkpointBytes += page.bytes;
+        objectsSinceCheckpoint += page.objects;
+        pages.remove();
+      }
+      if (checkpointKey != null && objectsSinceCheckpoint >= checkpointer.getIntervalObjects()) {
+        checkpointer.save(housekeepingPath, checkpointKey, checkpointBytes);
+        objectsSinceCheckpoint = 0;
+      }
+    }
+
+    private synchronized long getTotalObjects() {
+      return totalObjects;
+    }
+
+    private synchronized long getListRequests() {
+      return listRequests;
+    }
+
+    private synchronized long getDeleteRequests() {
+      return deleteRequests;
+    }
+
+    private synchronized List<String> getFailedKeys() {
+      return new ArrayList<>(bytesDeletedCalculator.getFailedKeys());
+    }
+
+    private synchronized void retried(List<String> deletedKeys) {
+      deletedObjects += bytesDeletedCalculator.calculateRetriedBytesDeleted(deletedKeys);
+    }
+
+    private synchronized void verifyAllDeleted(String bucket, String key) {
+      if (deletedObjects != totalObjects) {
+        String failedDeletions = bytesDeletedCalculator.getFailedKeys().stream()
+          .map(k -> format("'%s'", k))
+          .collect(Collectors.joining(", "));
+        throw new BeekeeperException(
+            format("Not all files could be deleted at path \"%s/%s\"; deleted %s/%s objects. Objects not deleted: %s.",
+              bucket, key, deletedObjects, totalObjects, failedDeletions));
+      }
+    }
+  }
+
+  private static class ListedPage {
+
+    private final String lastKey;
+    private final long objects;
+    private final long bytes;
+    private boolean deleted;
+
+    private ListedPage(List<S3ObjectSummary> objectSummaries) {
+      lastKey = S3Client.lastKey(objectSummaries);
+      objects = objectSummaries.size();
+      bytes = objectSummaries.stream().mapToLong(S3ObjectSummary::getSize).sum();
+    }
+  }
+
+  /**
+   * Directories cleaned up during a page, whose sentinel files are deleted once the page is complete.
+   */
+  private static class SentinelFilesBatch {
+
+    private final Set<CleanedDirectory> directories = new LinkedHashSet<>();
+
+    private synchronized void add(CleanedDirectory directory) {
+      directories.add(directory);
+    }
+
+    private synchronized List<CleanedDirectory> getDirectories() {
+      return new ArrayList<>(directories);
+    }
+  }
+
+  private static class CleanedDirectory {
+
+    private final String bucket;
+    private final String key;
+    private final String absolutePath;
+    private final String tableName;
+
+    private CleanedDirectory(String bucket, String key, String absolutePath, String tableName) {
+      this.bucket = bucket;
+      this.key = key;
+      this.absolutePath = absolutePath;
+      this.tableName = tableName;
+    }
+
+    private CleanedDirectory getParent() {
+      return new CleanedDirectory(bucket, key.substring(0, key.lastIndexOf("/")),
+          absolutePath.substring(0, absolutePath.lastIndexOf("/")), tableName);
+    }
+
+    private String getBucket() {
+      return bucket;
+    }
+
+    private String getKey() {
+      return key;
+    }
+
+    private String getAbsolutePath() {
+      return absolutePath;
+    }
+
+    private String getTableName() {
+      return tableName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CleanedDirectory that = (CleanedDirectory) o;
+      return bucket.equals(that.bucket) && key.equals(that.key) && Objects.equals(tableName, that.tableName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bucket, key, tableName);
+    }
+  }
 }
@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Limits the number of S3 requests in flight per bucket, adapting the limit with additive increase and multiplicative
+ * decrease: every successful request raises the bucket's limit by the inverse of the limit, that is by about one
+ * request once a whole limit's worth of requests has succeeded, up to the maximum; a throttled request halves it, down
+ * to one. Requests wait while their bucket is at its limit, so cleanup goes as fast as S3 allows without keeping other
+ * jobs sharing the bucket throttled. The limit of each bucket is reported as the {@value #METRIC_NAME} gauge.
+ */
+public class S3RequestRateController {
+
+  private static final Logger log = LoggerFactory.getLogger(S3RequestRateController.class);
+  public static final String METRIC_NAME = "s3-requests-in-flight-limit";
+  private static final S3RequestRateController UNLIMITED = new S3RequestRateController(0, 0, null);
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int SERVICE_UNAVAILABLE = 503;
+  private static final String SLOW_DOWN = "SlowDown";
+  private static final Permit NO_PERMIT = new Permit(null, 0L);
+
+  private final int initialLimit;
+  private final int maxLimit;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, BucketLimit> bucketLimits = new ConcurrentHashMap<>();
+
+  /**
+   * @param initialLimit Number of requests a bucket can have in flight before any of them has completed.
+   * @param maxLimit Maximum number of requests a bucket can have in flight, or 0 for no limit.
+   * @param meterRegistry Registry of the limit gauges.
+   */
+  public S3RequestRateController(int initialLimit, int maxLimit, MeterRegistry meterRegistry) {
+    this.maxLimit = Math.max(0, maxLimit);
+    this.initialLimit = Math.min(Math.max(1, initialLimit), Math.max(1, this.maxLimit));
+    this.meterRegistry = meterRegistry;
+  }
+
+  public static S3RequestRateController unlimited() {
+    return UNLIMITED;
+  }
+
+  <T> T call(String bucket, Supplier<T> request) {
+    Permit permit = acquire(bucket);
+    RuntimeException failure = null;
+    try {
+      return request.get();
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      permit.release(failure);
+    }
+  }
+
+  void run(String bucket, Runnable request) {
+    call(bucket, () -> {
+      request.run();
+      return null;
+    });
+  }
+
+  /**
+   * Waits until {@code bucket} is below its limit. The permit returned must be released once the request completes.
+   */
+  Permit acquire(String bucket) {
+    if (maxLimit == 0) {
+      return NO_PERMIT;
+    }
+    BucketLimit bucketLimit = bucketLimits.computeIfAbsent(bucket, this::newBucketLimit);
+    return new Permit(bucketLimit, bucketLimit.acquire());
+  }
+
+  double getLimit(String bucket) {
+    BucketLimit bucketLimit = bucketLimits.get(bucket);
+    return bucketLimit == null ? initialLimit : bucketLimit.getLimit();
+  }
+
+  private BucketLimit newBucketLimit(String bucket) {
+    BucketLimit bucketLimit = new BucketLimit(bucket, initialLimit, maxLimit);
+    if (meterRegistry != null) {
+      Gauge.builder(METRIC_NAME, bucketLimit, BucketLimit::getLimit).tag("bucket", bucket).register(meterRegistry);
+    }
+    return bucketLimit;
+  }
+
+  static boolean isThrottling(Throwable e) {
+    if (e instanceof CompletionException && e.getCause() != null) {
+      e = e.getCause();
+    }
+    if (e instanceof MultiObjectDeleteException) {
+      return ((MultiObjectDeleteException) e).getErrors()
+          .stream()
+          .anyMatch(error -> SLOW_DOWN.equals(error.getCode()));
+    }
+    if (e instanceof AmazonServiceException) {
+      AmazonServiceException serviceException = (AmazonServiceException) e;
+      return isThrottling(serviceException.getStatusCode(), serviceException.getErrorCode());
+    }
+    if (e instanceof AwsServiceException) {
+      AwsServiceException serviceException = (AwsServiceException) e;
+      String errorCode = serviceException.awsErrorDetails() == null
+          ? null
+          : serviceException.awsErrorDetails().errorCode();
+      return isThrottling(serviceException.statusCode(), errorCode);
+    }
+    return false;
+  }
+
+  /**
+   * @return Whether S3 could not delete some of the objects because it was throttling the bucket.
+   */
+  static boolean isThrottling(DeleteObjectsResponse response) {
+    return response.errors().stream().anyMatch(error -> SLOW_DOWN.equals(error.code()));
+  }
+
+  private static boolean isThrottling(int statusCode, String errorCode) {
+    return statusCode == SERVICE_UNAVAILABLE || statusCode == TOO_MANY_REQUESTS || SLOW_DOWN.equals(errorCode);
+  }
+
+  static class Permit {
+
+    private final BucketLimit bucketLimit;
+    private final long decreases;
+
+    private Permit(BucketLimit bucketLimit, long decreases) {
+      this.bucketLimit = bucketLimit;
+      this.decreases = decreases;
+    }
+
+    /**
+     * @param failure Exception the request failed with, or null if it succeeded.
+     */
+    void release(Throwable failure) {
+      release(failure != null && isThrottling(failure));
+    }
+
+    /**
+     * Releases the permit of a request which completed but was partly throttled.
+     */
+    void releaseThrottled() {
+      release(true);
+    }
+
+    private void release(boolean throttled) {
+      if (bucketLimit != null) {
+        bucketLimit.release(decreases, throttled);
+      }
+    }
+  }
+
+  private static class BucketLimit {
+
+    private final String bucket;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private long decreases;
+
+    private BucketLimit(String bucket, int initialLimit, int maxLimit) {
+      this.bucket = bucket;
+      this.limit = initialLimit;
+      this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return Number of times the limit had been decreased when the request was let through.
+     */
+    private synchronized long acquire() {
+      while (inFlight >= (int) limit) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new BeekeeperException("Interrupted while waiting to send S3 request to bucket " + bucket, e);
+        }
+      }
+      inFlight++;
+      return decreases;
+    }
+
+    private synchronized void release(long decreasesWhenAcquired, boolean throttled) {
+      inFlight--;
+      if (!throttled) {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      } else if (decreasesWhenAcquired == decreases) {
+        // requests sent before the last decrease were sent at the old rate, so only decrease once for all of them
+        limit = Math.max(1, limit / 2);
+        decreases++;
+        log.info("S3 requests to bucket {} are being throttled, allowing {} requests in flight", bucket, (int) limit);
+      }
+      notifyAll();
+    }
+
+    private synchronized double getLimit() {
+      return limit;
+    }
+  }
+}
@@ -15,9 +15,17 @@
  */
 package com.expediagroup.beekeeper.cleanup.path.aws;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 
 import com.expediagroup.beekeeper.cleanup.path.SentinelFilesCleaner;
 
@@ -32,23 +40,49 @@ public class S3SentinelFilesCleaner implements SentinelFilesCleaner {
 
   @Override
   public void deleteSentinelFiles(String absolutePath) {
-    AmazonS3URI s3Path = new AmazonS3URI(absolutePath, true);
-    String bucket = s3Path.getBucket();
-    String key = s3Path.getKey();
-
-    getSentinelFile(bucket, key).ifPresent(sentinelFile -> s3Client.deleteObject(bucket, sentinelFile));
+    deleteAllSentinelFiles(List.of(absolutePath));
   }
 
-  private Optional<String> getSentinelFile(String bucket, String key) {
-    String sentinelFile = key + SENTINEL_SUFFIX;
-    boolean sentinelExists = s3Client.doesObjectExist(bucket, sentinelFile);
-    if (sentinelExists) {
-      boolean sizeIsZero = s3Client.getObjectMetadata(bucket, sentinelFile).getContentLength() == 0L;
-      if (sizeIsZero) {
-        return Optional.of(sentinelFile);
-      }
+  /**
+   * Sentinel files of sibling paths are found with a listing of their parent directory, rather than a request per
+   * path, and all the zero-byte sentinel files found in a bucket are deleted in batches.
+   */
+  @Override
+  public void deleteAllSentinelFiles(Collection<String> absolutePaths) {
+    // bucket -> parent directory -> candidate sentinel files
+    Map<String, Map<String, SortedSet<String>>> sentinelFiles = new HashMap<>();
+    for (String absolutePath : absolutePaths) {
+      AmazonS3URI s3Path = new AmazonS3URI(absolutePath, true);
+      String key = s3Path.getKey();
+      String parentPrefix = key.substring(0, key.lastIndexOf('/') + 1);
+      sentinelFiles.computeIfAbsent(s3Path.getBucket(), bucket -> new HashMap<>())
+          .computeIfAbsent(parentPrefix, prefix -> new TreeSet<>(S3Client::compareKeys))
+          .add(key + SENTINEL_SUFFIX);
     }
-    return Optional.empty();
+
+    sentinelFiles.forEach((bucket, sentinelFilesByParent) -> {
+      List<String> emptySentinelFiles = new ArrayList<>();
+      sentinelFilesByParent.forEach((parentPrefix, candidates) ->
+          emptySentinelFiles.addAll(getEmptySentinelFiles(bucket, parentPrefix, candidates)));
+      if (!emptySentinelFiles.isEmpty()) {
+        s3Client.deleteObjects(bucket, emptySentinelFiles);
+      }
+    });
+  }
+
+  private List<String> getEmptySentinelFiles(String bucket, String parentPrefix, SortedSet<String> candidates) {
+    // the candidates can be spread across a large directory, so fall back to listing each of them rather than
+    // listing many more siblings than there are candidates
+    List<S3ObjectSummary> objectSummaries = s3Client
+        .listObjectsBetween(bucket, parentPrefix, candidates.first(), candidates.last(), candidates.size())
+        .orElseGet(() -> candidates.stream()
+            .flatMap(candidate -> s3Client.listFirstPage(bucket, candidate).getObjectSummaries().stream())
+            .collect(Collectors.toList()));
+    return objectSummaries.stream()
+        .filter(objectSummary -> candidates.contains(objectSummary.getKey()))
+        .filter(objectSummary -> objectSummary.getSize() == 0L)
+        .map(S3ObjectSummary::getKey)
+        .collect(Collectors.toList());
   }
 
 }
@@ -16,6 +16,7 @@
 package com.expediagroup.beekeeper.cleanup.service;
 
 import java.time.Instant;
+import java.util.Optional;
 
 public interface CleanupService {
 
@@ -23,7 +24,14 @@ public interface CleanupService {
    * Deletes all paths from the file system which are older than {@code referenceTime}.
    *
    * @param referenceTime Path deletion reference time.
+   * @return Whether the run stopped on its budget while paths were still due.
    */
-  void cleanUp(Instant referenceTime);
+  boolean cleanUp(Instant referenceTime);
+
+  /**
+   * @param referenceTime Path deletion reference time of the last run.
+   * @return When the first path which was not yet due at {@code referenceTime} becomes due, if any.
+   */
+  Optional<Instant> nextCleanupTime(Instant referenceTime);
 
 }
@@ -15,31 +15,87 @@
  */
 package com.expediagroup.beekeeper.cleanup.service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Component;
 
+/**
+ * Runs cleanup with a fixed delay between runs. In continuous mode, a run which stopped on its budget is followed by
+ * the next one after the minimum delay, and otherwise the next run starts as soon as the next path becomes due, waiting
+ * no longer than the delay so that paths scheduled in the meantime are picked up. The minimum delay keeps runs which
+ * make no progress, such as those whose paths are all leased by other instances, from following each other in a tight
+ * loop.
+ */
 @Component
-public class CleanupServiceScheduler {
+public class CleanupServiceScheduler implements SchedulingConfigurer {
 
   private static final Logger log = LoggerFactory.getLogger(CleanupServiceScheduler.class);
 
   private final CleanupService cleanupService;
+  private final Duration delay;
+  private final boolean continuousEnabled;
+  private final Duration minDelay;
+  private volatile Instant lastReferenceTime;
+  private volatile boolean pathsLeft;
 
   @Autowired
-  public CleanupServiceScheduler(CleanupService cleanupService) {
+  public CleanupServiceScheduler(
+      CleanupService cleanupService,
+      @Value("${properties.scheduler-delay-ms}") long delayMillis,
+      @Value("${properties.cleanup-continuous-enabled}") boolean continuousEnabled,
+      @Value("${properties.cleanup-continuous-min-delay-ms}") long minDelayMillis
+  ) {
     this.cleanupService = cleanupService;
+    this.delay = Duration.ofMillis(delayMillis);
+    this.continuousEnabled = continuousEnabled;
+    this.minDelay = Duration.ofMillis(Math.max(0, Math.min(minDelayMillis, delayMillis)));
+  }
+
+  @Override
+  public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+    taskRegistrar.addTriggerTask(this::scheduleCleanup, this::nextExecutionTime);
   }
 
-  @Scheduled(fixedDelayString = "${properties.scheduler-delay-ms}")
-  public void scheduleCleanupWithFixedDelay() {
+  public void scheduleCleanup() {
     Instant now = Instant.now();
+    lastReferenceTime = now;
+    pathsLeft = false;
     log.info("Started cleanup for instant {}", now.toString());
-    cleanupService.cleanUp(now);
+    pathsLeft = cleanupService.cleanUp(now);
     log.info("Finished cleanup for instant {}", now.toString());
   }
+
+  Date nextExecutionTime(TriggerContext triggerContext) {
+    Date lastCompletion = triggerContext.lastCompletionTime();
+    if (lastCompletion == null) {
+      return new Date();
+    }
+    Instant next = lastCompletion.toInstant().plus(delay);
+    if (!continuousEnabled) {
+      return Date.from(next);
+    }
+    Instant earliest = lastCompletion.toInstant().plus(minDelay);
+    if (pathsLeft) {
+      return Date.from(earliest);
+    }
+    try {
+      Optional<Instant> nextCleanupTime = cleanupService.nextCleanupTime(lastReferenceTime);
+      if (nextCleanupTime.isPresent() && nextCleanupTime.get().isBefore(next)) {
+        next = nextCleanupTime.get().isAfter(earliest) ? nextCleanupTime.get() : earliest;
+      }
+    } catch (Exception e) {
+      log.warn("Could not find when the next path is due, waiting {} ms for the next cleanup", delay.toMillis(), e);
+    }
+    return Date.from(next);
+  }
 }
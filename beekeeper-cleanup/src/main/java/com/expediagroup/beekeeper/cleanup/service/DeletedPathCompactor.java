@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+/**
+ * Removes the records of deleted paths once they are older than the retention period, so that the path table stays
+ * sized to the paths still to be cleaned up. Records are removed in batches, each in its own short transaction, so
+ * that cleanup and scheduling are never held up behind a large delete.
+ */
+public class DeletedPathCompactor {
+
+  private static final Logger log = LoggerFactory.getLogger(DeletedPathCompactor.class);
+
+  private final HousekeepingPathRepository housekeepingPathRepository;
+  private final Duration retention;
+  private final int batchSize;
+
+  /**
+   * @param retention How long the records of deleted paths are kept, or zero to keep them forever.
+   * @param batchSize Maximum number of records removed per transaction.
+   */
+  public DeletedPathCompactor(HousekeepingPathRepository housekeepingPathRepository, Duration retention,
+      int batchSize) {
+    this.housekeepingPathRepository = housekeepingPathRepository;
+    this.retention = retention;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  @Scheduled(fixedDelayString = "${properties.deleted-path-compaction-delay-ms}")
+  public void scheduleCompactionWithFixedDelay() {
+    compact(Instant.now());
+  }
+
+  /**
+   * @return Number of records removed.
+   */
+  public int compact(Instant referenceTime) {
+    if (retention.isZero() || retention.isNegative()) {
+      return 0;
+    }
+    LocalDateTime instant = LocalDateTime.ofInstant(referenceTime.minus(retention), ZoneOffset.UTC);
+    Pageable pageable = PageRequest.of(0, batchSize);
+    int removed = 0;
+    List<Long> ids = housekeepingPathRepository.findDeletedIdsModifiedBefore(instant, pageable);
+    while (!ids.isEmpty()) {
+      int removedFromBatch = housekeepingPathRepository.deleteDeletedPaths(ids);
+      removed += removedFromBatch;
+      if (removedFromBatch == 0 || ids.size() < batchSize) {
+        break;
+      }
+      ids = housekeepingPathRepository.findDeletedIdsModifiedBefore(instant, pageable);
+    }
+    if (removed > 0) {
+      log.info("Removed {} records of paths deleted before {}", removed, instant);
+    }
+    return removed;
+  }
+}
@@ -17,54 +17,130 @@ package com.expediagroup.beekeeper.cleanup.service;
 
 import static java.lang.String.format;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.domain.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.micrometer.core.annotation.Timed;
 
 import com.expediagroup.beekeeper.cleanup.handler.GenericHandler;
+import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
 
 public class PagingCleanupService implements CleanupService {
 
+  private static final Logger log = LoggerFactory.getLogger(PagingCleanupService.class);
+
   private final List<GenericHandler> pathHandlers;
   private final boolean dryRunEnabled;
   private final int pageSize;
+  private final Duration runTimeBudget;
+  private final int runPathBudget;
 
   public PagingCleanupService(List<GenericHandler> pathHandlers, int pageSize, boolean dryRunEnabled) {
+    this(pathHandlers, pageSize, dryRunEnabled, Duration.ZERO, 0);
+  }
+
+  /**
+   * A run stops fetching pages once it has used up its budget, leaving the paths still due to the next run, so that a
+   * large backlog is cleaned over several bounded runs. The page in progress is always finished.
+   *
+   * @param runTimeBudget Time after which a run stops, or zero for no limit.
+   * @param runPathBudget Number of paths after which a run stops, or 0 for no limit.
+   */
+  public PagingCleanupService(List<GenericHandler> pathHandlers, int pageSize, boolean dryRunEnabled,
+      Duration runTimeBudget, int runPathBudget) {
     this.pathHandlers = pathHandlers;
     this.pageSize = pageSize;
     this.dryRunEnabled = dryRunEnabled;
+    this.runTimeBudget = runTimeBudget;
+    this.runPathBudget = Math.max(0, runPathBudget);
   }
 
   @Override
   @Timed("cleanup-job")
-  public void cleanUp(Instant referenceTime) {
+  public boolean cleanUp(Instant referenceTime) {
+    RunBudget budget = new RunBudget(runTimeBudget, runPathBudget);
     try {
-      pathHandlers.forEach(handler -> pagingCleanup(handler, referenceTime));
+      for (GenericHandler handler : pathHandlers) {
+        if (!pagingCleanup(handler, referenceTime, budget)) {
+          log.info("Cleanup for instant {} ran out of budget, paths are left for the next run", referenceTime);
+          return true;
+        }
+      }
+      return false;
     } catch (Exception e) {
       throw new BeekeeperException(format("Cleanup failed for instant %s", referenceTime.toString()), e);
     }
   }
 
+  @Override
+  public Optional<Instant> nextCleanupTime(Instant referenceTime) {
+    LocalDateTime instant = LocalDateTime.ofInstant(referenceTime, ZoneOffset.UTC);
+    return pathHandlers.stream()
+        .map(handler -> handler.findNextCleanupTimestamp(instant))
+        .flatMap(Optional::stream)
+        .min(LocalDateTime::compareTo)
+        .map(timestamp -> timestamp.toInstant(ZoneOffset.UTC));
+  }
+
+  /**
+   * @return Whether all the paths due were processed before the budget ran out.
+   */
   @Transactional
-  private void pagingCleanup(GenericHandler handler, Instant referenceTime) {
-    Pageable pageable = PageRequest.of(0, pageSize).first();
+  private boolean pagingCleanup(GenericHandler handler, Instant referenceTime, RunBudget budget) {
+    Pageable pageable = PageRequest.of(0, pageSize);
 
     LocalDateTime instant = LocalDateTime.ofInstant(referenceTime, ZoneOffset.UTC);
-    Page<EntityHousekeepingPath> page = handler.findRecordsToClean(instant, pageable);
+    PathCleaner pathCleaner = handler.getPathCleaner();
+    pathCleaner.startRun();
+    try {
+      Slice<EntityHousekeepingPath> page = handler.findRecordsToClean(instant, pageable);
+
+      while (!page.getContent().isEmpty()) {
+        if (budget.isSpent()) {
+          return false;
+        }
+        budget.spend(page.getNumberOfElements());
+        page = handler.processPage(instant, pageable, page, dryRunEnabled);
+      }
+      return true;
+    } finally {
+      pathCleaner.endRun();
+    }
+  }
+
+  private static class RunBudget {
+
+    private final long deadlineNanos;
+    private final boolean timeLimited;
+    private final boolean pathLimited;
+    private int pathsLeft;
+
+    private RunBudget(Duration time, int paths) {
+      timeLimited = !time.isZero() && !time.isNegative();
+      deadlineNanos = timeLimited ? System.nanoTime() + time.toNanos() : 0L;
+      pathLimited = paths > 0;
+      pathsLeft = paths;
+    }
+
+    private void spend(int paths) {
+      pathsLeft -= paths;
+    }
 
-    while (!page.getContent().isEmpty()) {
-      pageable = handler.processPage(pageable, page, dryRunEnabled);
-      page = handler.findRecordsToClean(instant, pageable);
+    private boolean isSpent() {
+      return (pathLimited && pathsLeft <= 0) || (timeLimited && System.nanoTime() - deadlineNanos >= 0);
     }
   }
 }
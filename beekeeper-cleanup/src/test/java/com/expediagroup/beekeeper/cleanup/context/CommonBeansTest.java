@@ -17,28 +17,43 @@ package com.expediagroup.beekeeper.cleanup.context;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.graphite.GraphiteMeterRegistry;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 import com.amazonaws.services.s3.AmazonS3;
 
+import com.expediagroup.beekeeper.cleanup.handler.PathClaimer;
+import com.expediagroup.beekeeper.cleanup.handler.PathCleanupWorkerPool;
+import com.expediagroup.beekeeper.cleanup.handler.PathRetryPolicy;
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunReporter;
+import com.expediagroup.beekeeper.cleanup.path.PathCheckpointer;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.path.aws.AsyncS3Client;
 import com.expediagroup.beekeeper.cleanup.path.aws.S3Client;
 import com.expediagroup.beekeeper.cleanup.path.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.cleanup.path.aws.S3RequestRateController;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
+import com.expediagroup.beekeeper.cleanup.service.DeletedPathCompactor;
 import com.expediagroup.beekeeper.cleanup.service.PagingCleanupService;
+import com.expediagroup.beekeeper.core.model.PathStatus;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +69,9 @@ class CommonBeansTest {
   private final CommonBeans commonBeans = new CommonBeans();
   private @Mock HousekeepingPathRepository repository;
   private @Mock PathCleaner pathCleaner;
+  private @Mock ObjectProvider<S3AsyncClient> s3AsyncClientProvider;
+  private @Mock S3AsyncClient s3AsyncClient;
+  private @Mock ExecutorService s3DeleteExecutor;
 
   @BeforeEach
   void setUp() {
@@ -85,22 +103,115 @@ class CommonBeansTest {
   @Test
   void s3Client() {
     AmazonS3 amazonS3 = commonBeans.amazonS3();
-    S3Client s3Client = new S3Client(amazonS3, false);
-    S3Client beansS3Client = commonBeans.s3Client(amazonS3, false);
+    S3RequestRateController requestRateController = S3RequestRateController.unlimited();
+    S3Client s3Client = new S3Client(amazonS3, false, 4, requestRateController, s3DeleteExecutor);
+    S3Client beansS3Client = commonBeans.s3Client(amazonS3, s3AsyncClientProvider, requestRateController,
+        s3DeleteExecutor, false, 4, false, 10);
     assertThat(s3Client).isEqualToComparingFieldByField(beansS3Client);
   }
 
+  @Test
+  void s3DeleteExecutor() {
+    ExecutorService executor = commonBeans.s3DeleteExecutor(4);
+    try {
+      assertThat(executor.isShutdown()).isFalse();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void asyncS3Client() {
+    when(s3AsyncClientProvider.getObject()).thenReturn(s3AsyncClient);
+    S3Client beansS3Client = commonBeans.s3Client(commonBeans.amazonS3(), s3AsyncClientProvider,
+        S3RequestRateController.unlimited(), s3DeleteExecutor, false, 4, true, 10);
+    assertThat(beansS3Client).isInstanceOf(AsyncS3Client.class);
+  }
+
+  @Test
+  void s3RequestRateController() {
+    MeterRegistry meterRegistry = mock(GraphiteMeterRegistry.class);
+    S3RequestRateController requestRateController = commonBeans.s3RequestRateController(meterRegistry, 8, 64);
+    assertThat(requestRateController).isInstanceOf(S3RequestRateController.class);
+  }
+
+  @Test
+  void endpointConfiguredS3AsyncClient() {
+    System.setProperty(AWS_S3_ENDPOINT_PROPERTY, "http://" + ENDPOINT);
+    try (S3AsyncClient s3AsyncClient = commonBeans.s3AsyncClientTest()) {
+      assertThat(s3AsyncClient).isNotNull();
+    }
+  }
+
   @Test
   void verifyS3pathCleaner() {
-    S3Client s3Client = commonBeans.s3Client(commonBeans.amazonS3(), false);
+    S3Client s3Client = commonBeans.s3Client(commonBeans.amazonS3(), s3AsyncClientProvider,
+        S3RequestRateController.unlimited(), s3DeleteExecutor, false, 1, false, 10);
+    MeterRegistry meterRegistry = mock(GraphiteMeterRegistry.class);
+    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, new BytesDeletedReporter(meterRegistry, false),
+        DryRunReporter.disabled(), PathCheckpointer.disabled(), 3, 100L, 1000L);
+    assertThat(pathCleaner).isInstanceOf(S3PathCleaner.class);
+  }
+
+  @Test
+  void verifyDryRunS3pathCleaner(@TempDir Path tempDir) {
+    S3Client s3Client = commonBeans.s3Client(commonBeans.amazonS3(), s3AsyncClientProvider,
+        S3RequestRateController.unlimited(), s3DeleteExecutor, true, 1, false, 10);
     MeterRegistry meterRegistry = mock(GraphiteMeterRegistry.class);
-    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, new BytesDeletedReporter(meterRegistry, false));
+    DryRunReporter dryRunReporter = commonBeans.dryRunReporter(true, tempDir.resolve("report.jsonl").toString());
+    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, new BytesDeletedReporter(meterRegistry, true),
+        dryRunReporter, PathCheckpointer.disabled(), 3, 100L, 1000L);
     assertThat(pathCleaner).isInstanceOf(S3PathCleaner.class);
+    assertThat(dryRunReporter).isNotSameAs(DryRunReporter.disabled());
+  }
+
+  @Test
+  void dryRunReporter() {
+    assertThat(commonBeans.dryRunReporter(false, "report.jsonl")).isSameAs(DryRunReporter.disabled());
+    assertThat(commonBeans.dryRunReporter(true, "")).isSameAs(DryRunReporter.disabled());
+  }
+
+  @Test
+  void pathCheckpointer() {
+    assertThat(commonBeans.pathCheckpointer(repository, false, 0L)).isSameAs(PathCheckpointer.disabled());
+    assertThat(commonBeans.pathCheckpointer(repository, true, 1000L)).isSameAs(PathCheckpointer.disabled());
+    assertThat(commonBeans.pathCheckpointer(repository, false, 1000L).isEnabled()).isTrue();
+  }
+
+  @Test
+  void pathCleanupWorkerPool() {
+    try (PathCleanupWorkerPool workerPool = commonBeans.pathCleanupWorkerPool(2, 1)) {
+      assertThat(workerPool).isInstanceOf(PathCleanupWorkerPool.class);
+    }
+  }
+
+  @Test
+  void pathClaimer() {
+    assertThat(commonBeans.pathClaimer(repository, false, 1000L)).isSameAs(PathClaimer.disabled());
+    assertThat(commonBeans.pathClaimer(repository, true, 1000L)).isNotSameAs(PathClaimer.disabled());
+  }
+
+  @Test
+  void pathRetryPolicy() {
+    PathRetryPolicy retryPolicy = commonBeans.pathRetryPolicy(10, 1000L, 10000L);
+    assertThat(retryPolicy.statusAfterFailure(10)).isEqualTo(PathStatus.ABANDONED);
   }
 
   @Test
   void cleanupService() {
-    CleanupService cleanupService = commonBeans.cleanupService(Collections.emptyList(), 2, false);
+    CleanupService cleanupService = commonBeans.cleanupService(Collections.emptyList(), 2, false, 0L, 0);
+    assertThat(cleanupService).isInstanceOf(PagingCleanupService.class);
+  }
+
+  @Test
+  void cleanupServiceWithRunBudgets() {
+    CleanupService cleanupService = commonBeans.cleanupService(Collections.emptyList(), 2, false, 60_000L, 100);
     assertThat(cleanupService).isInstanceOf(PagingCleanupService.class);
   }
+
+  @Test
+  void deletedPathCompactor() {
+    DeletedPathCompactor compactor = commonBeans.deletedPathCompactor(repository, 30, 1000);
+    assertThat(compactor).isInstanceOf(DeletedPathCompactor.class);
+  }
 }
@@ -15,21 +15,31 @@
  */
 package com.expediagroup.beekeeper.cleanup.handler;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import com.expediagroup.beekeeper.cleanup.path.aws.S3PathCleaner;
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
@@ -39,52 +49,135 @@ import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 @ExtendWith(MockitoExtension.class)
 public class GenericHandlerTest {
 
+  private static final LocalDateTime INSTANT = LocalDateTime.now();
+  private static final LocalDateTime MODIFIED_TIMESTAMP = INSTANT.minusHours(1);
+  private static final Long ID = 1L;
+  private static final String OWNER = "owner";
+
   @Mock private HousekeepingPathRepository housekeepingPathRepository;
   @Mock private S3PathCleaner pathCleaner;
   @Mock private EntityHousekeepingPath mockPath;
-  @Mock private Pageable mockPageable;
-  @Mock private Pageable nextPage;
-  @Mock private PageImpl<EntityHousekeepingPath> mockPage;
+  @Mock private Slice<EntityHousekeepingPath> nextPage;
+  @Mock private PathClaimer pathClaimer;
+  @Captor private ArgumentCaptor<Collection<Long>> idsCaptor;
+  @Captor private ArgumentCaptor<LocalDateTime> modifiedTimestampCaptor;
+  @Captor private ArgumentCaptor<LocalDateTime> nextAttemptTimestampCaptor;
 
+  private final Pageable pageable = PageRequest.of(0, 1);
   private UnreferencedHandler handler;
 
   @BeforeEach
   public void initTest() {
     handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner);
+    when(mockPath.getId()).thenReturn(ID);
   }
 
   @Test
   public void typicalProcessDryRunPage() {
-    when(mockPage.getContent()).thenReturn(List.of(mockPath));
-    when(mockPageable.next()).thenReturn(nextPage);
-    Pageable pageable = handler.processPage(mockPageable, mockPage, true);
+    when(mockPath.getModifiedTimestamp()).thenReturn(MODIFIED_TIMESTAMP);
+    when(housekeepingPathRepository.findRecordsForCleanupByModifiedTimestampAfter(INSTANT, MODIFIED_TIMESTAMP, ID,
+        pageable)).thenReturn(nextPage);
+    Slice<EntityHousekeepingPath> page = handler.processPage(INSTANT, pageable, slice(true), true);
     verify(pathCleaner).cleanupPath(mockPath);
-    assertThat(pageable).isEqualTo(nextPage);
+    verify(housekeepingPathRepository)
+        .findRecordsForCleanupByModifiedTimestampAfter(INSTANT, MODIFIED_TIMESTAMP, ID, pageable);
+    verifyNoMoreInteractions(housekeepingPathRepository);
+    assertThat(page).isEqualTo(nextPage);
   }
 
   @Test
   public void typicalProcessPage() {
     when(mockPath.getCleanupAttempts()).thenReturn(0);
-    when(mockPage.getContent()).thenReturn(List.of(mockPath));
-    Pageable pageable = handler.processPage(mockPageable, mockPage, false);
+    when(mockPath.getModifiedTimestamp()).thenReturn(MODIFIED_TIMESTAMP);
+    when(housekeepingPathRepository.findRecordsForCleanupByModifiedTimestampAfter(INSTANT, MODIFIED_TIMESTAMP, ID,
+        pageable)).thenReturn(nextPage);
+    Slice<EntityHousekeepingPath> page = handler.processPage(INSTANT, pageable, slice(true), false);
     verify(pathCleaner).cleanupPath(mockPath);
-    verify(mockPageable, never()).next();
     verify(mockPath).setCleanupAttempts(1);
     verify(mockPath).setPathStatus(PathStatus.DELETED);
-    verify(housekeepingPathRepository).save(mockPath);
-    assertThat(pageable).isEqualTo(pageable);
+    verifyStatusUpdate(PathStatus.DELETED);
+    assertThat(page).isEqualTo(nextPage);
+  }
+
+  @Test
+  public void processLastPage() {
+    when(mockPath.getCleanupAttempts()).thenReturn(0);
+    Slice<EntityHousekeepingPath> page = handler.processPage(INSTANT, pageable, slice(false), false);
+    verify(pathCleaner).cleanupPath(mockPath);
+    verifyStatusUpdate(PathStatus.DELETED);
+    verifyNoMoreInteractions(housekeepingPathRepository);
+    assertThat(page.getContent()).isEmpty();
   }
 
   @Test
   public void processPageFails() {
     when(mockPath.getCleanupAttempts()).thenReturn(0);
     doThrow(RuntimeException.class).when(pathCleaner).cleanupPath(mockPath);
-    when(mockPage.getContent()).thenReturn(List.of(mockPath));
-    Pageable pageable = handler.processPage(mockPageable, mockPage, false);
-    verify(mockPageable, never()).next();
+    Slice<EntityHousekeepingPath> page = handler.processPage(INSTANT, pageable, slice(false), false);
     verify(mockPath).setCleanupAttempts(1);
     verify(mockPath).setPathStatus(PathStatus.FAILED);
-    verify(housekeepingPathRepository).save(mockPath);
-    assertThat(pageable).isEqualTo(pageable);
+    verifyStatusUpdate(PathStatus.FAILED);
+    assertThat(nextAttemptTimestampCaptor.getValue()).isEqualTo(modifiedTimestampCaptor.getValue());
+    assertThat(page.getContent()).isEmpty();
+  }
+
+  @Test
+  public void processPageFailsWithBackoff() {
+    handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner, PathCleanupWorkerPool.serial(),
+        PathClaimer.disabled(), new PathRetryPolicy(3, 60_000L, 600_000L), false);
+    when(mockPath.getCleanupAttempts()).thenReturn(1);
+    doThrow(RuntimeException.class).when(pathCleaner).cleanupPath(mockPath);
+    handler.processPage(INSTANT, pageable, slice(false), false);
+    verify(mockPath).setCleanupAttempts(2);
+    verify(mockPath).setPathStatus(PathStatus.FAILED);
+    verifyStatusUpdate(PathStatus.FAILED);
+    assertThat(nextAttemptTimestampCaptor.getValue()).isEqualTo(modifiedTimestampCaptor.getValue().plusMinutes(2));
+  }
+
+  @Test
+  public void processPageFailsTooManyTimes() {
+    handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner, PathCleanupWorkerPool.serial(),
+        PathClaimer.disabled(), new PathRetryPolicy(3, 60_000L, 600_000L), false);
+    when(mockPath.getCleanupAttempts()).thenReturn(2);
+    doThrow(RuntimeException.class).when(pathCleaner).cleanupPath(mockPath);
+    handler.processPage(INSTANT, pageable, slice(false), false);
+    verify(mockPath).setCleanupAttempts(3);
+    verify(mockPath).setPathStatus(PathStatus.ABANDONED);
+    verifyStatusUpdate(PathStatus.ABANDONED);
+  }
+
+  @Test
+  public void processClaimedPage() {
+    handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner, PathCleanupWorkerPool.serial(),
+        pathClaimer, new PathRetryPolicy(0, 0L, 0L), false);
+    when(mockPath.getCleanupAttempts()).thenReturn(0);
+    when(pathClaimer.claim(List.of(mockPath), INSTANT)).thenReturn(List.of(mockPath));
+    when(pathClaimer.getOwner()).thenReturn(OWNER);
+    handler.processPage(INSTANT, pageable, slice(false), false);
+    verify(pathCleaner).cleanupPath(mockPath);
+    verify(housekeepingPathRepository).updatePathStatusToDeletedAndIncrementCleanupAttempts(idsCaptor.capture(),
+        eq(OWNER), any());
+    assertThat(idsCaptor.getValue()).containsExactly(ID);
+    verify(pathClaimer).release(List.of(mockPath));
+  }
+
+  private void verifyStatusUpdate(PathStatus status) {
+    if (status == PathStatus.DELETED) {
+      verify(housekeepingPathRepository).updatePathStatusToDeletedAndIncrementCleanupAttempts(idsCaptor.capture(),
+          isNull(), modifiedTimestampCaptor.capture());
+      verify(housekeepingPathRepository, never())
+          .updatePathStatusAndIncrementCleanupAttempts(any(), any(), any(), any(), any());
+    } else {
+      verify(housekeepingPathRepository).updatePathStatusAndIncrementCleanupAttempts(idsCaptor.capture(), isNull(),
+          eq(status), modifiedTimestampCaptor.capture(), nextAttemptTimestampCaptor.capture());
+      if (status != PathStatus.FAILED) {
+        assertThat(nextAttemptTimestampCaptor.getValue()).isNull();
+      }
+    }
+    assertThat(idsCaptor.getValue()).containsExactly(ID);
+  }
+
+  private Slice<EntityHousekeepingPath> slice(boolean hasNext) {
+    return new SliceImpl<>(List.of(mockPath), pageable, hasNext);
   }
 }
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class PathClaimerTest {
+
+  private static final String OWNER = "owner";
+  private static final Duration LEASE_DURATION = Duration.ofMinutes(30);
+  private static final List<Long> IDS = List.of(1L, 2L, 3L);
+  private static final LocalDateTime INSTANT = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  @Mock private HousekeepingPathRepository housekeepingPathRepository;
+  @Captor private ArgumentCaptor<LocalDateTime> leaseExpiryCaptor;
+  @Captor private ArgumentCaptor<LocalDateTime> nowCaptor;
+
+  private final List<EntityHousekeepingPath> paths = List.of(path(1L), path(2L), path(3L));
+  private PathClaimer pathClaimer;
+
+  @BeforeEach
+  public void initTest() {
+    pathClaimer = new PathClaimer(housekeepingPathRepository, OWNER, LEASE_DURATION);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    pathClaimer.close();
+  }
+
+  @Test
+  public void claimAll() {
+    when(housekeepingPathRepository.leasePaths(eq(IDS), eq(OWNER), any(), eq(INSTANT), any())).thenReturn(3);
+    assertThat(pathClaimer.claim(paths, INSTANT)).isEqualTo(paths);
+    verify(housekeepingPathRepository)
+        .leasePaths(eq(IDS), eq(OWNER), leaseExpiryCaptor.capture(), eq(INSTANT), nowCaptor.capture());
+    assertThat(leaseExpiryCaptor.getValue()).isEqualTo(nowCaptor.getValue().plus(LEASE_DURATION));
+    verify(housekeepingPathRepository, never()).findIdsLeasedBy(any(), any());
+  }
+
+  @Test
+  public void claimSome() {
+    when(housekeepingPathRepository.leasePaths(eq(IDS), eq(OWNER), any(), eq(INSTANT), any())).thenReturn(2);
+    when(housekeepingPathRepository.findIdsLeasedBy(IDS, OWNER)).thenReturn(List.of(3L, 1L));
+    assertThat(pathClaimer.claim(paths, INSTANT)).containsExactly(paths.get(0), paths.get(2));
+  }
+
+  @Test
+  public void claimNone() {
+    when(housekeepingPathRepository.leasePaths(eq(IDS), eq(OWNER), any(), eq(INSTANT), any())).thenReturn(0);
+    assertThat(pathClaimer.claim(paths, INSTANT)).isEmpty();
+    verify(housekeepingPathRepository, never()).findIdsLeasedBy(any(), any());
+  }
+
+  @Test
+  public void renewLeasesOfClaimedPaths() {
+    when(housekeepingPathRepository.leasePaths(eq(IDS), eq(OWNER), any(), eq(INSTANT), any())).thenReturn(3);
+    pathClaimer.claim(paths, INSTANT);
+    pathClaimer.release(List.of(paths.get(1)));
+    LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+
+    pathClaimer.renewLeases();
+
+    ArgumentCaptor<Collection<Long>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+    verify(housekeepingPathRepository).renewLeases(idsCaptor.capture(), eq(OWNER), leaseExpiryCaptor.capture());
+    assertThat(idsCaptor.getValue()).containsExactlyInAnyOrder(1L, 3L);
+    assertThat(leaseExpiryCaptor.getValue()).isAfterOrEqualTo(before.plus(LEASE_DURATION));
+  }
+
+  @Test
+  public void renewNoLeasesOnceReleased() {
+    when(housekeepingPathRepository.leasePaths(eq(IDS), eq(OWNER), any(), eq(INSTANT), any())).thenReturn(3);
+    pathClaimer.release(pathClaimer.claim(paths, INSTANT));
+    pathClaimer.renewLeases();
+    verify(housekeepingPathRepository, never()).renewLeases(any(), any(), any());
+  }
+
+  @Test
+  public void renewLeasesFailureIsIgnored() {
+    when(housekeepingPathRepository.leasePaths(eq(IDS), eq(OWNER), any(), eq(INSTANT), any())).thenReturn(3);
+    when(housekeepingPathRepository.renewLeases(any(), eq(OWNER), any())).thenThrow(new RuntimeException("error"));
+    pathClaimer.claim(paths, INSTANT);
+    pathClaimer.renewLeases();
+    verify(housekeepingPathRepository).renewLeases(any(), eq(OWNER), any());
+  }
+
+  @Test
+  public void disabled() {
+    assertThat(PathClaimer.disabled().claim(paths, INSTANT)).isEqualTo(paths);
+    assertThat(PathClaimer.disabled().getOwner()).isNull();
+    verifyZeroInteractions(housekeepingPathRepository);
+  }
+
+  @Test
+  public void ownersAreUnique() {
+    PathClaimer other = new PathClaimer(housekeepingPathRepository, LEASE_DURATION);
+    assertThat(new PathClaimer(housekeepingPathRepository, LEASE_DURATION).getOwner()).isNotEqualTo(other.getOwner());
+  }
+
+  private static EntityHousekeepingPath path(Long id) {
+    return new EntityHousekeepingPath.Builder()
+        .id(id)
+        .path("s3://bucket/path" + id)
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.ofDays(1))
+        .build();
+  }
+}
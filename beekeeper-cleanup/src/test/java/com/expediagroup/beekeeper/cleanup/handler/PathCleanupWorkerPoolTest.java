@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+
+public class PathCleanupWorkerPoolTest {
+
+  private PathCleanupWorkerPool workerPool;
+
+  @AfterEach
+  public void close() {
+    if (workerPool != null) {
+      workerPool.close();
+    }
+  }
+
+  @Test
+  public void serialKeepsPageOrder() {
+    workerPool = PathCleanupWorkerPool.serial();
+    List<EntityHousekeepingPath> paths = paths("s3://bucket/table", 5);
+    List<EntityHousekeepingPath> processed = new ArrayList<>();
+    workerPool.process(paths, processed::add);
+    assertThat(processed).isEqualTo(paths);
+  }
+
+  @Test
+  public void processesAllPathsWithinParallelism() {
+    workerPool = new PathCleanupWorkerPool(4, 0);
+    List<EntityHousekeepingPath> paths = paths("s3://bucket/table", 50);
+    ConcurrencyTracker tracker = new ConcurrencyTracker();
+    workerPool.process(paths, tracker::process);
+    assertThat(tracker.processed).containsExactlyInAnyOrderElementsOf(paths);
+    assertThat(tracker.maxConcurrent("bucket")).isBetween(1, 4);
+  }
+
+  @Test
+  public void limitsConcurrencyPerBucket() {
+    workerPool = new PathCleanupWorkerPool(4, 1);
+    List<EntityHousekeepingPath> paths = new ArrayList<>(paths("s3://bucket-a/table", 10));
+    paths.addAll(paths("s3a://bucket-b/table", 10));
+    ConcurrencyTracker tracker = new ConcurrencyTracker();
+    workerPool.process(paths, tracker::process);
+    assertThat(tracker.processed).containsExactlyInAnyOrderElementsOf(paths);
+    assertThat(tracker.maxConcurrent("bucket-a")).isEqualTo(1);
+    assertThat(tracker.maxConcurrent("bucket-b")).isEqualTo(1);
+  }
+
+  @Test
+  public void rethrowsFirstFailureAfterRunningPathsComplete() {
+    workerPool = new PathCleanupWorkerPool(2, 0);
+    List<EntityHousekeepingPath> paths = paths("s3://bucket/table", 10);
+    AtomicInteger processed = new AtomicInteger();
+    CountDownLatch failing = new CountDownLatch(1);
+    assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> workerPool.process(paths, path -> {
+          if (path == paths.get(0)) {
+            failing.countDown();
+            throw new BeekeeperException("Failed");
+          }
+          // hold the other worker until the failure has reached the pool so no more paths are dispatched
+          awaitQuietly(failing);
+          sleepQuietly(100);
+          processed.incrementAndGet();
+        }))
+        .withMessage("Failed");
+    assertThat(processed.get()).isOne();
+  }
+
+  @Test
+  public void bucket() {
+    assertThat(PathCleanupWorkerPool.bucket("s3://bucket/table/partition")).isEqualTo("bucket");
+    assertThat(PathCleanupWorkerPool.bucket("s3a://bucket")).isEqualTo("bucket");
+    assertThat(PathCleanupWorkerPool.bucket("bucket/table")).isEqualTo("bucket");
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static List<EntityHousekeepingPath> paths(String prefix, int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new EntityHousekeepingPath.Builder()
+            .path(prefix + "/id=" + i)
+            .creationTimestamp(LocalDateTime.now())
+            .cleanupDelay(Duration.ofDays(1))
+            .build())
+        .collect(Collectors.toList());
+  }
+
+  private static class ConcurrencyTracker {
+    private final List<EntityHousekeepingPath> processed = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Map<String, Integer> maxRunning = new HashMap<>();
+
+    void process(EntityHousekeepingPath path) {
+      String bucket = PathCleanupWorkerPool.bucket(path.getPath());
+      synchronized (this) {
+        int current = running.merge(bucket, 1, Integer::sum);
+        maxRunning.merge(bucket, current, Math::max);
+      }
+      sleepQuietly(5);
+      synchronized (this) {
+        running.merge(bucket, -1, Integer::sum);
+      }
+      processed.add(path);
+    }
+
+    synchronized int maxConcurrent(String bucket) {
+      return maxRunning.getOrDefault(bucket, 0);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.expediagroup.beekeeper.core.model.PathStatus;
+
+public class PathRetryPolicyTest {
+
+  @Test
+  public void backoffDoublesUpToTheMaximum() {
+    PathRetryPolicy retryPolicy = new PathRetryPolicy(0, 100L, 350L);
+    assertThat(retryPolicy.backoffMillis(1)).isEqualTo(100L);
+    assertThat(retryPolicy.backoffMillis(2)).isEqualTo(200L);
+    assertThat(retryPolicy.backoffMillis(3)).isEqualTo(350L);
+    assertThat(retryPolicy.backoffMillis(100)).isEqualTo(350L);
+  }
+
+  @Test
+  public void nextAttemptTimestamp() {
+    PathRetryPolicy retryPolicy = new PathRetryPolicy(0, 60_000L, 3_600_000L);
+    LocalDateTime failedAt = LocalDateTime.of(2020, 6, 1, 0, 0);
+    assertThat(retryPolicy.nextAttemptTimestamp(3, failedAt)).isEqualTo(failedAt.plusMinutes(4));
+  }
+
+  @Test
+  public void abandonAfterMaxAttempts() {
+    PathRetryPolicy retryPolicy = new PathRetryPolicy(3, 100L, 1000L);
+    assertThat(retryPolicy.statusAfterFailure(2)).isEqualTo(PathStatus.FAILED);
+    assertThat(retryPolicy.statusAfterFailure(3)).isEqualTo(PathStatus.ABANDONED);
+  }
+
+  @Test
+  public void retryForever() {
+    PathRetryPolicy retryPolicy = PathRetryPolicy.retryForever();
+    assertThat(retryPolicy.statusAfterFailure(Integer.MAX_VALUE)).isEqualTo(PathStatus.FAILED);
+    assertThat(retryPolicy.backoffMillis(10)).isEqualTo(0L);
+  }
+}
@@ -18,6 +18,7 @@ package com.expediagroup.beekeeper.cleanup.handler;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +30,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import com.expediagroup.beekeeper.cleanup.path.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 
@@ -62,4 +64,40 @@ public class UnreferencedHandlerTest {
     handler.findRecordsToClean(now, emptyPageable);
     verify(housekeepingPathRepository).findRecordsForCleanupByModifiedTimestamp(now, emptyPageable);
   }
+
+  @Test
+  public void verifyHousekeepingPathFetchAfterLastRecord() {
+    LocalDateTime now = LocalDateTime.now();
+    Pageable emptyPageable = PageRequest.of(0, 1);
+    EntityHousekeepingPath lastPath = createLastPath(now);
+    handler.findRecordsToClean(now, lastPath, emptyPageable);
+    verify(housekeepingPathRepository)
+        .findRecordsForCleanupByModifiedTimestampAfter(now, lastPath.getModifiedTimestamp(), 1L, emptyPageable);
+  }
+
+  @Test
+  public void verifyHousekeepingPathFetchByReclaimPriority() {
+    handler = new UnreferencedHandler(housekeepingPathRepository, s3PathCleaner, PathCleanupWorkerPool.serial(),
+        PathClaimer.disabled(), PathRetryPolicy.retryForever(), true);
+    LocalDateTime now = LocalDateTime.now();
+    Pageable emptyPageable = PageRequest.of(0, 1);
+    handler.findRecordsToClean(now, emptyPageable);
+    verify(housekeepingPathRepository).findRecordsForCleanupByReclaimPriority(now, emptyPageable);
+
+    EntityHousekeepingPath lastPath = createLastPath(now);
+    handler.findRecordsToClean(now, lastPath, emptyPageable);
+    verify(housekeepingPathRepository).findRecordsForCleanupByReclaimPriorityAfter(now,
+        lastPath.getReclaimPriority(), lastPath.getModifiedTimestamp(), 1L, emptyPageable);
+  }
+
+  private EntityHousekeepingPath createLastPath(LocalDateTime now) {
+    return new EntityHousekeepingPath.Builder()
+        .id(1L)
+        .path("s3://bucket/path")
+        .creationTimestamp(now)
+        .modifiedTimestamp(now.minusHours(1))
+        .cleanupDelay(Duration.ofDays(1))
+        .estimatedSize(3000L, 1L)
+        .build();
+  }
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+
+class DryRunReporterTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void typical() throws IOException {
+    Path reportFile = tempDir.resolve("report.jsonl");
+    try (DryRunReporter dryRunReporter = new DryRunReporter(reportFile)) {
+      dryRunReporter.startRun();
+      dryRunReporter.reportPath(housekeepingPath("s3://bucket/table/partition_1"), 2500, 1024, 3, 3);
+      dryRunReporter.reportPath(housekeepingPath("s3://bucket/table/partition_2"), 1, 10, 1, 1);
+      dryRunReporter.endRun();
+    }
+
+    List<String> lines = Files.readAllLines(reportFile);
+    String runId = runId(lines.get(0));
+    assertThat(lines).containsExactly(
+        "{\"run_id\":\"" + runId + "\",\"path\":\"s3://bucket/table/partition_1\",\"database\":\"database\","
+            + "\"table\":\"table\",\"objects\":2500,\"bytes\":1024,\"list_requests\":3,\"delete_requests\":3}",
+        "{\"run_id\":\"" + runId + "\",\"path\":\"s3://bucket/table/partition_2\",\"database\":\"database\","
+            + "\"table\":\"table\",\"objects\":1,\"bytes\":10,\"list_requests\":1,\"delete_requests\":1}");
+  }
+
+  @Test
+  void linesOfEachRunCarryItsRunId() throws IOException {
+    Path reportFile = tempDir.resolve("report.jsonl");
+    try (DryRunReporter dryRunReporter = new DryRunReporter(reportFile)) {
+      dryRunReporter.startRun();
+      dryRunReporter.reportPath(housekeepingPath("s3://bucket/table/partition_1"), 1, 10, 1, 1);
+      dryRunReporter.reportPath(housekeepingPath("s3://bucket/table/partition_2"), 1, 10, 1, 1);
+      dryRunReporter.endRun();
+      dryRunReporter.startRun();
+      dryRunReporter.reportPath(housekeepingPath("s3://bucket/table/partition_1"), 1, 10, 1, 1);
+      dryRunReporter.endRun();
+    }
+
+    List<String> lines = Files.readAllLines(reportFile);
+    assertThat(runId(lines.get(0))).isEqualTo(runId(lines.get(1)));
+    assertThat(runId(lines.get(2))).isNotEqualTo(runId(lines.get(0)));
+  }
+
+  @Test
+  void appendsToExistingReport() throws IOException {
+    Path reportFile = tempDir.resolve("report.jsonl");
+    Files.writeString(reportFile, "{}\n");
+    try (DryRunReporter dryRunReporter = new DryRunReporter(reportFile)) {
+      dryRunReporter.reportPath(housekeepingPath("s3://bucket/table/partition_1"), 1, 10, 1, 1);
+    }
+
+    assertThat(Files.readAllLines(reportFile)).hasSize(2).startsWith("{}");
+  }
+
+  @Test
+  void disabled() {
+    DryRunReporter.disabled().reportPath(housekeepingPath("s3://bucket/table/partition_1"), 1, 10, 1, 1);
+
+    assertThat(tempDir.toFile().list()).isEmpty();
+  }
+
+  private String runId(String line) throws IOException {
+    return new ObjectMapper().readTree(line).get("run_id").asText();
+  }
+
+  private HousekeepingPath housekeepingPath(String path) {
+    return new EntityHousekeepingPath.Builder()
+        .path(path)
+        .databaseName("database")
+        .tableName("table")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.ofDays(1))
+        .build();
+  }
+}
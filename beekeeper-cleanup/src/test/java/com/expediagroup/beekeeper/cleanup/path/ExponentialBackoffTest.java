@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ExponentialBackoffTest {
+
+  @Test
+  void doublesUpToMaximum() {
+    ExponentialBackoff backoff = new ExponentialBackoff(100L, 500L);
+    assertThat(backoff.millis(0)).isEqualTo(100L);
+    assertThat(backoff.millis(1)).isEqualTo(100L);
+    assertThat(backoff.millis(2)).isEqualTo(200L);
+    assertThat(backoff.millis(3)).isEqualTo(400L);
+    assertThat(backoff.millis(4)).isEqualTo(500L);
+  }
+
+  @Test
+  void overflowIsCappedAtMaximum() {
+    ExponentialBackoff backoff = new ExponentialBackoff(3L, Long.MAX_VALUE);
+    assertThat(backoff.millis(63)).isEqualTo(Long.MAX_VALUE);
+    assertThat(backoff.millis(Integer.MAX_VALUE)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void maximumIsAtLeastInitial() {
+    assertThat(new ExponentialBackoff(100L, 10L).millis(5)).isEqualTo(100L);
+    assertThat(new ExponentialBackoff(-1L, -1L).millis(5)).isZero();
+  }
+}
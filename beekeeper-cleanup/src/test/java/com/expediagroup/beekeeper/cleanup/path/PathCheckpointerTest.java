@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class PathCheckpointerTest {
+
+  @Mock private HousekeepingPathRepository housekeepingPathRepository;
+
+  @Test
+  public void save() {
+    EntityHousekeepingPath path = path(1L);
+    new PathCheckpointer(housekeepingPathRepository, 1000).save(path, "key/part-01000", 2048L);
+    verify(housekeepingPathRepository).updateCheckpoint(1L, "key/part-01000", 2048L);
+    assertThat(path.getCheckpointKey()).isEqualTo("key/part-01000");
+    assertThat(path.getCheckpointBytes()).isEqualTo(2048L);
+  }
+
+  @Test
+  public void unsavedPathsAreNotCheckpointed() {
+    EntityHousekeepingPath path = path(null);
+    new PathCheckpointer(housekeepingPathRepository, 1000).save(path, "key/part-01000", 2048L);
+    verifyZeroInteractions(housekeepingPathRepository);
+    assertThat(path.getCheckpointKey()).isNull();
+  }
+
+  @Test
+  public void disabled() {
+    EntityHousekeepingPath path = path(1L);
+    PathCheckpointer.disabled().save(path, "key/part-01000", 2048L);
+    assertThat(PathCheckpointer.disabled().isEnabled()).isFalse();
+    assertThat(path.getCheckpointKey()).isNull();
+  }
+
+  private static EntityHousekeepingPath path(Long id) {
+    return new EntityHousekeepingPath.Builder()
+        .id(id)
+        .path("s3://bucket/key")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.ofDays(1))
+        .build();
+  }
+}
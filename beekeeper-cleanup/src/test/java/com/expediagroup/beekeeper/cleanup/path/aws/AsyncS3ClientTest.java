@@ -0,0 +1,264 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncS3ClientTest {
+
+  private final String bucket = "bucket";
+  private final String keyRoot = "table/partition_1";
+
+  private @Mock S3AsyncClient s3AsyncClient;
+
+  private AsyncS3Client s3Client;
+  private AsyncS3Client s3ClientDryRun;
+
+  @BeforeEach
+  void setUp() {
+    s3Client = new AsyncS3Client(s3AsyncClient, false, 10);
+    s3ClientDryRun = new AsyncS3Client(s3AsyncClient, true, 10);
+  }
+
+  @Test
+  void listObjectsFollowsContinuationTokens() {
+    when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(0, 1000), "token")))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(1000, 1100), null)));
+
+    List<S3ObjectSummary> summaries = s3Client.listObjects(bucket, keyRoot);
+
+    assertThat(summaries).hasSize(1100);
+    assertThat(summaries.get(0).getKey()).isEqualTo(keyRoot + "/file0");
+    assertThat(summaries.get(0).getSize()).isEqualTo(10L);
+    assertThat(summaries.get(0).getBucketName()).isEqualTo(bucket);
+    ArgumentCaptor<ListObjectsV2Request> requests = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+    verify(s3AsyncClient, times(2)).listObjectsV2(requests.capture());
+    assertThat(requests.getAllValues().get(0).continuationToken()).isNull();
+    assertThat(requests.getAllValues().get(1).continuationToken()).isEqualTo("token");
+  }
+
+  @Test
+  void listFirstPage() {
+    when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(0, 1000), "token")));
+
+    ListObjectsV2Result listing = s3Client.listFirstPage(bucket, keyRoot);
+
+    assertThat(listing.isTruncated()).isTrue();
+    assertThat(listing.getObjectSummaries()).hasSize(1000);
+    verify(s3AsyncClient).listObjectsV2(any(ListObjectsV2Request.class));
+  }
+
+  @Test
+  void deleteObjectsSplitsKeysIntoBatches() {
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+      DeleteObjectsRequest request = invocation.getArgument(0);
+      List<DeletedObject> deleted = request.delete().objects().stream()
+          .map(object -> DeletedObject.builder().key(object.key()).build())
+          .collect(Collectors.toList());
+      return CompletableFuture.completedFuture(DeleteObjectsResponse.builder().deleted(deleted).build());
+    });
+    List<String> keys = keys(0, 2500);
+
+    List<String> deletedKeys = s3Client.deleteObjects(bucket, keys);
+
+    assertThat(deletedKeys).containsExactlyInAnyOrderElementsOf(keys);
+    ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    verify(s3AsyncClient, times(3)).deleteObjects(requests.capture());
+    List<Integer> batchSizes = new ArrayList<>();
+    requests.getAllValues().forEach(request -> batchSizes.add(request.delete().objects().size()));
+    assertThat(batchSizes).containsExactlyInAnyOrder(1000, 1000, 500);
+  }
+
+  @Test
+  void deleteObjectsPartialFailureReturnsDeletedKeys() {
+    List<String> keys = keys(0, 2);
+    DeleteObjectsResponse response = DeleteObjectsResponse.builder()
+        .deleted(DeletedObject.builder().key(keys.get(0)).build())
+        .errors(S3Error.builder().key(keys.get(1)).code("AccessDenied").build())
+        .build();
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(response));
+
+    assertThat(s3Client.deleteObjects(bucket, keys)).containsExactly(keys.get(0));
+  }
+
+  @Test
+  void deleteObjectsReportsSlowDownErrorsAsThrottling() {
+    S3RequestRateController requestRateController = new S3RequestRateController(8, 8, null);
+    AsyncS3Client rateControlledClient = new AsyncS3Client(s3AsyncClient, false, 10, requestRateController);
+    List<String> keys = keys(0, 2);
+    DeleteObjectsResponse response = DeleteObjectsResponse.builder()
+        .deleted(DeletedObject.builder().key(keys.get(0)).build())
+        .errors(S3Error.builder().key(keys.get(1)).code("SlowDown").build())
+        .build();
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(response));
+
+    assertThat(rateControlledClient.deleteObjects(bucket, keys)).containsExactly(keys.get(0));
+    assertThat(requestRateController.getLimit(bucket)).isEqualTo(4.0);
+  }
+
+  @Test
+  void deleteObjectsUnderPrefixPageByPage() {
+    when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(0, 1000), "token")))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(1000, 1100), null)));
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+      DeleteObjectsRequest request = invocation.getArgument(0);
+      List<DeletedObject> deleted = request.delete().objects().stream()
+          .map(ObjectIdentifier::key)
+          .map(key -> DeletedObject.builder().key(key).build())
+          .collect(Collectors.toList());
+      return CompletableFuture.completedFuture(DeleteObjectsResponse.builder().deleted(deleted).build());
+    });
+    List<Integer> pageSizes = new ArrayList<>();
+    List<Integer> deletedSizes = new ArrayList<>();
+
+    s3Client.deleteObjectsUnderPrefix(bucket, keyRoot + "/", (page, deletedKeys) -> {
+      synchronized (pageSizes) {
+        pageSizes.add(page.size());
+        deletedSizes.add(deletedKeys.size());
+      }
+    });
+
+    assertThat(pageSizes).containsExactlyInAnyOrder(1000, 100);
+    assertThat(deletedSizes).containsExactlyInAnyOrder(1000, 100);
+  }
+
+  @Test
+  void deleteObjectsUnderPrefixWaitsForDeletesInFlight() {
+    when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(0, 1000), "token")))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(1000, 1100), null)));
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+      DeleteObjectsRequest request = invocation.getArgument(0);
+      List<DeletedObject> deleted = request.delete().objects().stream()
+          .map(ObjectIdentifier::key)
+          .map(key -> DeletedObject.builder().key(key).build())
+          .collect(Collectors.toList());
+      return CompletableFuture.supplyAsync(() -> DeleteObjectsResponse.builder().deleted(deleted).build(),
+          CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+    });
+    List<Integer> deletedSizes = new ArrayList<>();
+
+    s3Client.deleteObjectsUnderPrefix(bucket, keyRoot + "/", (page, deletedKeys) -> {
+      synchronized (deletedSizes) {
+        deletedSizes.add(deletedKeys.size());
+      }
+    });
+
+    assertThat(deletedSizes).containsExactlyInAnyOrder(1000, 100);
+  }
+
+  @Test
+  void deleteObjectsUnderPrefixRethrowsFailure() {
+    when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(0, 10), null)));
+    CompletableFuture<DeleteObjectsResponse> failed = new CompletableFuture<>();
+    failed.completeExceptionally(S3Exception.builder().message("SlowDown").statusCode(503).build());
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(failed);
+
+    assertThatExceptionOfType(S3Exception.class)
+        .isThrownBy(() -> s3Client.deleteObjectsUnderPrefix(bucket, keyRoot + "/", (page, deletedKeys) -> {}));
+  }
+
+  @Test
+  void deleteObjectsDryRun() {
+    List<String> keys = keys(0, 5);
+    assertThat(s3ClientDryRun.deleteObjects(bucket, keys)).isEqualTo(keys);
+    verifyNoInteractions(s3AsyncClient);
+  }
+
+  @Test
+  void doesObjectExist() {
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().contentLength(10L).build()));
+    assertThat(s3Client.doesObjectExist(bucket, keyRoot)).isTrue();
+    assertThat(s3Client.getObjectMetadata(bucket, keyRoot).getContentLength()).isEqualTo(10L);
+  }
+
+  @Test
+  void doesObjectExistNotFound() {
+    CompletableFuture<HeadObjectResponse> notFound = new CompletableFuture<>();
+    notFound.completeExceptionally(NoSuchKeyException.builder().statusCode(404).build());
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenReturn(notFound);
+    assertThat(s3Client.doesObjectExist(bucket, keyRoot)).isFalse();
+  }
+
+  @Test
+  void isEmpty() {
+    when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(CompletableFuture.completedFuture(page(List.of(), null)))
+        .thenReturn(CompletableFuture.completedFuture(page(keys(0, 1), null)));
+    assertThat(s3Client.isEmpty(bucket, keyRoot, "partition_1")).isTrue();
+    assertThat(s3Client.isEmpty(bucket, keyRoot, "partition_1")).isFalse();
+  }
+
+  private ListObjectsV2Response page(List<String> keys, String nextContinuationToken) {
+    List<S3Object> contents = keys.stream()
+        .map(key -> S3Object.builder().key(key).size(10L).build())
+        .collect(Collectors.toList());
+    return ListObjectsV2Response.builder()
+        .contents(contents)
+        .isTruncated(nextContinuationToken != null)
+        .nextContinuationToken(nextContinuationToken)
+        .build();
+  }
+
+  private List<String> keys(int from, int to) {
+    return IntStream.range(from, to).mapToObj(i -> keyRoot + "/file" + i).collect(Collectors.toList());
+  }
+}
@@ -16,8 +16,7 @@
 package com.expediagroup.beekeeper.cleanup.path.aws;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,70 +25,94 @@ import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
-@ExtendWith(MockitoExtension.class)
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
 class S3BytesDeletedCalculatorTest {
 
   private long contentBytes = "content".getBytes().length;
-  private String bucket = "bucket";
   private String key1 = "db/table/id/partition1/file1";
   private String key2 = "db/table/id/partition1/file2";
   private String key3 = "db/table/id/partition1/file3";
-  private ObjectMetadata objectMetadata = new ObjectMetadata();
-  private @Mock S3Client s3Client;
   private S3BytesDeletedCalculator s3BytesDeletedCalculator;
 
   @BeforeEach
   void setUp() {
-    s3BytesDeletedCalculator = new S3BytesDeletedCalculator(s3Client);
+    s3BytesDeletedCalculator = new S3BytesDeletedCalculator();
   }
 
   @Test
   void typicalKeySuccessfullyDeleted() {
-    objectMetadata.setContentLength(contentBytes);
-    when(s3Client.getObjectMetadata(any(), any())).thenReturn(objectMetadata);
-    s3BytesDeletedCalculator.storeFileSize(bucket, key1);
-    s3BytesDeletedCalculator.calculateBytesDeleted(List.of(key1));
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries(key1), List.of(key1));
     assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(contentBytes);
+    assertThat(s3BytesDeletedCalculator.getFailedKeys()).isEmpty();
   }
 
   @Test
   void differentKeyDeleted() {
-    objectMetadata.setContentLength(contentBytes);
-    when(s3Client.getObjectMetadata(any(), any())).thenReturn(objectMetadata);
-    s3BytesDeletedCalculator.storeFileSize(bucket, key1);
-    s3BytesDeletedCalculator.calculateBytesDeleted(List.of(key2));
+    s3BytesDeletedCalculator.calculateRetriedBytesDeleted(List.of(key2));
     assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(0);
   }
 
   @Test
   void allObjectsSuccessfullyDeleted() {
     List<S3ObjectSummary> objectSummaries = objectSummaries(key1, key2, key3);
-    s3BytesDeletedCalculator.storeFileSizes(objectSummaries);
-    s3BytesDeletedCalculator.calculateBytesDeleted(Arrays.asList(key1, key2, key3));
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries, Arrays.asList(key1, key2, key3));
     assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(contentBytes * 3);
+    assertThat(s3BytesDeletedCalculator.getFailedKeys()).isEmpty();
   }
 
   @Test
   void someObjectsSuccessfullyDeleted() {
     List<S3ObjectSummary> objectSummaries = objectSummaries(key1, key2, key3);
-    s3BytesDeletedCalculator.storeFileSizes(objectSummaries);
-    s3BytesDeletedCalculator.calculateBytesDeleted(Arrays.asList(key1));
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries, Arrays.asList(key1));
     assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(contentBytes);
+    assertThat(s3BytesDeletedCalculator.getFailedKeys()).containsExactly(key2, key3);
   }
 
   @Test
   void noObjectsSuccessfullyDeleted() {
     List<S3ObjectSummary> objectSummaries = objectSummaries(key1, key2, key3);
-    s3BytesDeletedCalculator.storeFileSizes(objectSummaries);
-    s3BytesDeletedCalculator.calculateBytesDeleted(Collections.emptyList());
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries, Collections.emptyList());
     assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(0);
+    assertThat(s3BytesDeletedCalculator.getFailedKeys()).containsExactly(key1, key2, key3);
+  }
+
+  @Test
+  void failedObjectsDeletedOnRetry() {
+    List<S3ObjectSummary> objectSummaries = objectSummaries(key1, key2, key3);
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries, Arrays.asList(key1));
+    int retriedKeysDeleted = s3BytesDeletedCalculator.calculateRetriedBytesDeleted(Arrays.asList(key1, key2));
+    assertThat(retriedKeysDeleted).isEqualTo(1);
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(contentBytes * 2);
+    assertThat(s3BytesDeletedCalculator.getFailedKeys()).containsExactly(key3);
+  }
+
+  @Test
+  void bytesAccumulateAcrossBatches() {
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries(key1, key2), Arrays.asList(key1, key2));
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries(key3), Arrays.asList(key3));
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(contentBytes * 3);
+  }
+
+  @Test
+  void failedKeysUpToMaximumKept() {
+    s3BytesDeletedCalculator = new S3BytesDeletedCalculator(2);
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries(key1, key2), Collections.emptyList());
+    assertThat(s3BytesDeletedCalculator.getFailedKeys()).containsExactly(key1, key2);
+  }
+
+  @Test
+  void moreFailedKeysThanMaximumFail() {
+    s3BytesDeletedCalculator = new S3BytesDeletedCalculator(2);
+    s3BytesDeletedCalculator.calculateBytesDeleted(objectSummaries(key1, key2), Collections.emptyList());
+    assertThatThrownBy(() -> s3BytesDeletedCalculator
+        .calculateBytesDeleted(objectSummaries(key3), Collections.emptyList()))
+        .isInstanceOf(BeekeeperException.class)
+        .hasMessageContaining("3 objects could not be deleted")
+        .hasMessageContaining(key1);
   }
 
   private List<S3ObjectSummary> objectSummaries(String... keys) {
@@ -16,24 +16,35 @@
 package com.expediagroup.beekeeper.cleanup.path.aws;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.testcontainers.containers.localstack.LocalStackContainer;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
@@ -186,6 +197,68 @@ class S3ClientTest {
     assertThat(result.size()).isEqualTo(s3BatchSize + extraKeys);
   }
 
+  @Test
+  void deleteObjectsUnderPrefixPageByPage() {
+    List<String> keys = keys(1100);
+    keys.parallelStream()
+      .forEach(key -> amazonS3.putObject(bucket, key, content));
+    amazonS3.putObject(bucket, "table/partition_10/file1", content);
+    List<Integer> pageSizes = Collections.synchronizedList(new ArrayList<>());
+    List<String> deletedKeys = Collections.synchronizedList(new ArrayList<>());
+
+    s3Client.deleteObjectsUnderPrefix(bucket, keyRoot + "/", (page, deleted) -> {
+      pageSizes.add(page.size());
+      deletedKeys.addAll(deleted);
+    });
+
+    assertThat(pageSizes).containsExactlyInAnyOrder(1000, 100);
+    assertThat(deletedKeys).containsExactlyInAnyOrderElementsOf(keys);
+    assertThat(amazonS3.listObjectsV2(bucket).getObjectSummaries())
+        .extracting("key")
+        .containsExactly("table/partition_10/file1");
+  }
+
+  @Test
+  void deleteObjectsUnderPrefixResumesAfterListedObjects() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    List<S3ObjectSummary> listedObjects = s3Client.listFirstPage(bucket, keyRoot + "/").getObjectSummaries();
+    assertThat(listedObjects).hasSize(2);
+    List<String> deletedKeys = Collections.synchronizedList(new ArrayList<>());
+
+    s3Client.deleteObjectsUnderPrefix(bucket, keyRoot + "/", listedObjects.subList(0, 1), true,
+        (page, deleted) -> deletedKeys.addAll(deleted));
+
+    assertThat(deletedKeys).containsExactlyInAnyOrder(key1, key2);
+    assertThat(amazonS3.listObjectsV2(bucket).getObjectSummaries()).isEmpty();
+  }
+
+  @Test
+  void listFirstPage() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+
+    ListObjectsV2Result listing = s3Client.listFirstPage(bucket, key1);
+
+    assertThat(listing.isTruncated()).isFalse();
+    assertThat(listing.getObjectSummaries()).hasSize(1);
+    assertThat(listing.getObjectSummaries().get(0).getKey()).isEqualTo(key1);
+    assertThat(listing.getObjectSummaries().get(0).getSize()).isEqualTo(content.getBytes().length);
+  }
+
+  @Test
+  void deleteObjectsUnderPrefixDryRun() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    List<String> deletedKeys = Collections.synchronizedList(new ArrayList<>());
+
+    s3ClientDryRun.deleteObjectsUnderPrefix(bucket, keyRoot, (page, deleted) -> deletedKeys.addAll(deleted));
+
+    assertThat(deletedKeys).containsExactlyInAnyOrder(key1, key2);
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isTrue();
+  }
+
   @Test
   void deleteObjectsInDirectory() {
     amazonS3.putObject(bucket, key1, content);
@@ -225,6 +298,78 @@ class S3ClientTest {
     verifyNoMoreInteractions(amazonS3);
   }
 
+  @Test
+  void deleteObjectsSplitsKeysIntoBatches() {
+    AmazonS3 amazonS3 = Mockito.mock(AmazonS3.class);
+    when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenAnswer(invocation -> new DeleteObjectsResult(deletedObjects(invocation.getArgument(0))));
+    S3Client s3Client = new S3Client(amazonS3, false, 2);
+    List<String> keys = keys(2500);
+
+    List<String> result = s3Client.deleteObjects(bucket, keys);
+
+    assertThat(result).containsExactlyInAnyOrderElementsOf(keys);
+    ArgumentCaptor<DeleteObjectsRequest> requestCaptor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    verify(amazonS3, times(3)).deleteObjects(requestCaptor.capture());
+    List<Integer> batchSizes = requestCaptor.getAllValues()
+        .stream()
+        .map(request -> request.getKeys().size())
+        .collect(Collectors.toList());
+    assertThat(batchSizes).containsExactlyInAnyOrder(1000, 1000, 500);
+  }
+
+  @Test
+  void deleteObjectsSendsBatchesOnSharedExecutor() {
+    AmazonS3 amazonS3 = Mockito.mock(AmazonS3.class);
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+      threadNames.add(Thread.currentThread().getName());
+      return new DeleteObjectsResult(deletedObjects(invocation.getArgument(0)));
+    });
+    ExecutorService deleteExecutor = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "shared"));
+    try {
+      S3Client s3Client = new S3Client(amazonS3, false, 2, S3RequestRateController.unlimited(), deleteExecutor);
+
+      s3Client.deleteObjects(bucket, keys(2500));
+      s3Client.deleteObjects(bucket, keys(1500));
+
+      verify(amazonS3, times(5)).deleteObjects(any(DeleteObjectsRequest.class));
+      assertThat(threadNames).containsExactly("shared");
+      assertThat(deleteExecutor.isShutdown()).isFalse();
+    } finally {
+      deleteExecutor.shutdown();
+    }
+  }
+
+  @Test
+  void deleteObjectsInBatchesAgainstS3() {
+    List<String> keys = keys(1100);
+    keys.parallelStream()
+      .forEach(key -> amazonS3.putObject(bucket, key, content));
+    S3Client s3Client = new S3Client(amazonS3, false, 2);
+
+    List<String> result = s3Client.deleteObjects(bucket, keys);
+
+    assertThat(result.size()).isEqualTo(1100);
+    assertThat(amazonS3.listObjectsV2(bucket).getObjectSummaries()).isEmpty();
+  }
+
+  @Test
+  void deleteObjectsPartialFailureReturnsDeletedKeys() {
+    AmazonS3 amazonS3 = Mockito.mock(AmazonS3.class);
+    DeleteObjectsResult.DeletedObject deletedObject = new DeleteObjectsResult.DeletedObject();
+    deletedObject.setKey(key1);
+    MultiObjectDeleteException.DeleteError deleteError = new MultiObjectDeleteException.DeleteError();
+    deleteError.setKey(key2);
+    when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenThrow(new MultiObjectDeleteException(List.of(deleteError), List.of(deletedObject)));
+    S3Client s3Client = new S3Client(amazonS3, false);
+
+    List<String> result = s3Client.deleteObjects(bucket, List.of(key1, key2));
+
+    assertThat(result).containsExactly(key1);
+  }
+
   @Test
   void doesObjectExistForFile() {
     amazonS3.putObject(bucket, key2, content);
@@ -332,6 +477,53 @@ class S3ClientTest {
     assertThat(result).isTrue();
   }
 
+  @Test
+  void isEmptyListsASingleKey() {
+    AmazonS3 spyAmazonS3 = Mockito.spy(amazonS3);
+    s3Client = new S3Client(spyAmazonS3, false);
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+
+    assertThat(s3Client.isEmpty(bucket, keyRoot, null)).isFalse();
+
+    ArgumentCaptor<ListObjectsV2Request> request = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+    verify(spyAmazonS3).listObjectsV2(request.capture());
+    assertThat(request.getValue().getMaxKeys()).isEqualTo(1);
+  }
+
+  @Test
+  void isEmptyIsNotListedAgainDuringARun() {
+    AmazonS3 spyAmazonS3 = Mockito.spy(amazonS3);
+    s3Client = new S3Client(spyAmazonS3, false);
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+
+    s3Client.startRun();
+    assertThat(s3Client.isEmpty(bucket, keyRoot, null)).isFalse();
+    assertThat(s3Client.isEmpty(bucket, keyRoot, null)).isFalse();
+    verify(spyAmazonS3, times(1)).listObjectsV2(any(ListObjectsV2Request.class));
+
+    s3Client.deleteObjects(bucket, List.of(key1));
+    assertThat(s3Client.isEmpty(bucket, keyRoot, null)).isFalse();
+    verify(spyAmazonS3, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+
+    s3Client.deleteObject(bucket, key2);
+    assertThat(s3Client.isEmpty(bucket, keyRoot, null)).isTrue();
+    s3Client.endRun();
+  }
+
+  @Test
+  void isEmptyDryRunIgnoresCachedObjectUnderLeafKey() {
+    String otherPartition = "table/partition_2";
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, otherPartition + "/file1", content);
+
+    s3ClientDryRun.startRun();
+    assertThat(s3ClientDryRun.isEmpty(bucket, "table", keyRoot)).isFalse();
+    assertThat(s3ClientDryRun.isEmptyIgnoringLeafKeys(bucket, "table", Set.of(keyRoot, otherPartition))).isTrue();
+    s3ClientDryRun.endRun();
+  }
+
   @Test
   void isEmptyDryRunForCommonFolderName() {
     String otherPartition = "table/test/test/partition10";
@@ -356,4 +548,23 @@ class S3ClientTest {
     assertThat(s3ClientDryRun.isEmpty(bucket, folder2, folder3)).isTrue();
     assertThat(s3ClientDryRun.isEmpty(bucket, folder1, folder2)).isTrue();
   }
+
+  private List<String> keys(int count) {
+    List<String> keys = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      keys.add(keyRoot + "/file" + i);
+    }
+    return keys;
+  }
+
+  private List<DeleteObjectsResult.DeletedObject> deletedObjects(DeleteObjectsRequest request) {
+    return request.getKeys()
+      .stream()
+      .map(keyVersion -> {
+        DeleteObjectsResult.DeletedObject deletedObject = new DeleteObjectsResult.DeletedObject();
+        deletedObject.setKey(keyVersion.getKey());
+        return deletedObject;
+      })
+      .collect(Collectors.toList());
+  }
 }
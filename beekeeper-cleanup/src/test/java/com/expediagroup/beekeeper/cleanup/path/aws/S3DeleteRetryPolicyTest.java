@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class S3DeleteRetryPolicyTest {
+
+  @Test
+  void backoffDoublesUpToMaximum() {
+    S3DeleteRetryPolicy retryPolicy = new S3DeleteRetryPolicy(5, 100L, 500L);
+    assertThat(retryPolicy.getMaxRetries()).isEqualTo(5);
+    assertThat(retryPolicy.backoffMillis(1)).isEqualTo(100L);
+    assertThat(retryPolicy.backoffMillis(2)).isEqualTo(200L);
+    assertThat(retryPolicy.backoffMillis(3)).isEqualTo(400L);
+    assertThat(retryPolicy.backoffMillis(4)).isEqualTo(500L);
+    assertThat(retryPolicy.backoffMillis(100)).isEqualTo(500L);
+  }
+
+  @Test
+  void noRetries() {
+    assertThat(S3DeleteRetryPolicy.noRetries().getMaxRetries()).isZero();
+  }
+}
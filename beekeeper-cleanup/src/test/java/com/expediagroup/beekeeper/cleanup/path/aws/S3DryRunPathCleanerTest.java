@@ -18,14 +18,19 @@ package com.expediagroup.beekeeper.cleanup.path.aws;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testcontainers.containers.localstack.LocalStackContainer;
@@ -33,6 +38,7 @@ import org.testcontainers.containers.localstack.LocalStackContainer;
 import com.amazonaws.services.s3.AmazonS3;
 
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunReporter;
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
 
 @ExtendWith(MockitoExtension.class)
@@ -97,6 +103,25 @@ class S3DryRunPathCleanerTest {
     assertThat(amazonS3.doesObjectExist(bucket, key2)).isTrue();
   }
 
+  @Test
+  void reportForDirectory(@TempDir Path tempDir) throws IOException {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    Path reportFile = tempDir.resolve("report.jsonl");
+    try (DryRunReporter dryRunReporter = new DryRunReporter(reportFile)) {
+      s3DryRunPathCleaner = new S3PathCleaner(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter,
+          S3DeleteRetryPolicy.noRetries(), dryRunReporter);
+      s3DryRunPathCleaner.cleanupPath(housekeepingPath);
+    }
+
+    List<String> lines = Files.readAllLines(reportFile);
+    assertThat(lines).hasSize(1);
+    assertThat(lines.get(0)).startsWith("{\"run_id\":\"")
+        .endsWith("\",\"path\":\"" + absolutePath + "\",\"database\":\"" + databaseName + "\",\"table\":\""
+            + tableName + "\",\"objects\":2,\"bytes\":" + 2 * content.length()
+            + ",\"list_requests\":1,\"delete_requests\":1}");
+  }
+
   @Test
   void directoryWithTrailingSlash() {
     amazonS3.putObject(bucket, key1, content);
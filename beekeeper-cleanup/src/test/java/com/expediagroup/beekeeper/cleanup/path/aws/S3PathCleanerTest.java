@@ -21,8 +21,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -46,13 +51,15 @@ import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunReporter;
+import com.expediagroup.beekeeper.cleanup.path.PathCheckpointer;
 import com.expediagroup.beekeeper.core.config.FileSystemType;
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 
 @ExtendWith(MockitoExtension.class)
 class S3PathCleanerTest {
@@ -75,6 +82,7 @@ class S3PathCleanerTest {
   private S3Client s3Client;
   private S3SentinelFilesCleaner s3SentinelFilesCleaner;
   private @Mock BytesDeletedReporter bytesDeletedReporter;
+  private @Mock HousekeepingPathRepository housekeepingPathRepository;
 
   private S3PathCleaner s3PathCleaner;
 
@@ -159,6 +167,85 @@ class S3PathCleanerTest {
     verify(bytesDeletedReporter).reportTaggable(content.getBytes().length, housekeepingPath, FileSystemType.S3);
   }
 
+  @Test
+  void fileIsDeletedAfterASingleListing() {
+    AmazonS3 spyAmazonS3 = spy(amazonS3);
+    s3PathCleaner = new S3PathCleaner(new S3Client(spyAmazonS3, false), s3SentinelFilesCleaner, bytesDeletedReporter);
+    amazonS3.putObject(bucket, key1, content);
+
+    housekeepingPath.setPath("s3://" + bucket + "/" + key1);
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    verify(spyAmazonS3).listObjectsV2(any(ListObjectsV2Request.class));
+    verify(spyAmazonS3).deleteObject(bucket, key1);
+    verify(spyAmazonS3, never()).doesObjectExist(any(), any());
+    verify(spyAmazonS3, never()).getObjectMetadata(any(), any());
+    verify(bytesDeletedReporter).reportTaggable(content.getBytes().length, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void directoryListingIsReusedForDeletion() {
+    AmazonS3 spyAmazonS3 = spy(amazonS3);
+    s3PathCleaner = new S3PathCleaner(new S3Client(spyAmazonS3, false), s3SentinelFilesCleaner, bytesDeletedReporter);
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    // no table name, so parent directories are not checked for sentinel files
+    housekeepingPath.setTableName(null);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isFalse();
+    verify(spyAmazonS3).listObjectsV2(any(ListObjectsV2Request.class));
+    verify(spyAmazonS3, never()).getObjectMetadata(any(), any());
+    verify(bytesDeletedReporter).reportTaggable(content.getBytes().length * 2, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void directoryIsResumedAfterCheckpoint() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    housekeepingPath.setCheckpointKey(key1);
+    housekeepingPath.setCheckpointBytes((long) content.getBytes().length);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    // objects up to the checkpoint were deleted by an earlier cleanup, so are not listed again
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isFalse();
+    verify(bytesDeletedReporter).reportTaggable(content.getBytes().length, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void checkpointIsSavedAsDirectoryIsDeleted() {
+    housekeepingPath = savedHousekeepingPath();
+    s3PathCleaner = new S3PathCleaner(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter,
+        S3DeleteRetryPolicy.noRetries(), DryRunReporter.disabled(),
+        new PathCheckpointer(housekeepingPathRepository, 1));
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    verify(housekeepingPathRepository).updateCheckpoint(1L, key2, (long) content.getBytes().length * 2);
+    assertThat(housekeepingPath.getCheckpointKey()).isEqualTo(key2);
+  }
+
+  @Test
+  void checkpointIsNotSavedPastObjectsNotDeleted() {
+    AmazonS3 mockAmazonS3 = mock(AmazonS3.class);
+    mockOneOutOfTwoObjectsDeleted(mockAmazonS3);
+    housekeepingPath = savedHousekeepingPath();
+    s3PathCleaner = new S3PathCleaner(new S3Client(mockAmazonS3, false), s3SentinelFilesCleaner, bytesDeletedReporter,
+        S3DeleteRetryPolicy.noRetries(), DryRunReporter.disabled(),
+        new PathCheckpointer(housekeepingPathRepository, 1));
+
+    assertThatExceptionOfType(BeekeeperException.class)
+      .isThrownBy(() -> s3PathCleaner.cleanupPath(housekeepingPath));
+    verifyZeroInteractions(housekeepingPathRepository);
+  }
+
   @Test
   void typicalWithSentinelFile() {
     amazonS3.putObject(bucket, partition1Sentinel, "");
@@ -244,7 +331,7 @@ class S3PathCleanerTest {
   @Test
   void sentinelFilesCleanerThrowsException() {
     S3SentinelFilesCleaner s3SentinelFilesCleaner = mock(S3SentinelFilesCleaner.class);
-    doThrow(IllegalArgumentException.class).when(s3SentinelFilesCleaner).deleteSentinelFiles(absolutePath);
+    doThrow(IllegalArgumentException.class).when(s3SentinelFilesCleaner).deleteAllSentinelFiles(anyCollection());
 
     amazonS3.putObject(bucket, key1, content);
 
@@ -310,14 +397,45 @@ class S3PathCleanerTest {
     assertThat(amazonS3.doesObjectExist(bucket, tableSentinel)).isTrue();
   }
 
+  @Test
+  void sentinelFilesAreDeletedAtTheEndOfAPage() {
+    String partition2Key = "table/id1/partition_2/file1";
+    String partition2Sentinel = "table/id1/partition_2_$folder$";
+    String partitionParentSentinel = "table/id1_$folder$";
+    String tableSentinel = "table_$folder$";
+
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, partition2Key, content);
+    amazonS3.putObject(bucket, partition1Sentinel, "");
+    amazonS3.putObject(bucket, partition2Sentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+    amazonS3.putObject(bucket, tableSentinel, "");
+
+    s3PathCleaner.startPage();
+    s3PathCleaner.cleanupPath(housekeepingPath);
+    housekeepingPath.setPath("s3://" + bucket + "/table/id1/partition_2");
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partition2Key)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partition1Sentinel)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, partition2Sentinel)).isTrue();
+
+    s3PathCleaner.endPage();
+
+    assertThat(amazonS3.doesObjectExist(bucket, partition1Sentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partition2Sentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, tableSentinel)).isTrue();
+  }
+
   @Test
   void noBytesDeletedMetricWhenFileDeletionFails() {
     S3Client mockS3Client = mock(S3Client.class);
     s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
-    when(mockS3Client.doesObjectExist(bucket, key1)).thenReturn(true);
-    ObjectMetadata objectMetadata = new ObjectMetadata();
-    objectMetadata.setContentLength(10);
-    when(mockS3Client.getObjectMetadata(bucket, key1)).thenReturn(objectMetadata);
+    ListObjectsV2Result listing = new ListObjectsV2Result();
+    listing.getObjectSummaries().add(objectSummary(key1, 10L));
+    when(mockS3Client.listFirstPage(bucket, key1)).thenReturn(listing);
     doThrow(AmazonServiceException.class).when(mockS3Client).deleteObject(bucket, key1);
 
     housekeepingPath.setPath(absolutePath + "/file1");
@@ -330,7 +448,9 @@ class S3PathCleanerTest {
   void noBytesDeletedMetricWhenDirectoryDeletionFails() {
     S3Client mockS3Client = mock(S3Client.class);
     s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
-    doThrow(AmazonServiceException.class).when(mockS3Client).listObjects(bucket, keyRootAsDirectory);
+    when(mockS3Client.listFirstPage(bucket, keyRoot)).thenReturn(new ListObjectsV2Result());
+    doThrow(AmazonServiceException.class).when(mockS3Client)
+        .deleteObjectsUnderPrefix(eq(bucket), eq(keyRootAsDirectory), eq(List.of()), eq(false), any());
 
     assertThatExceptionOfType(AmazonServiceException.class)
         .isThrownBy(() -> s3PathCleaner.cleanupPath(housekeepingPath));
@@ -351,6 +471,40 @@ class S3PathCleanerTest {
     verify(bytesDeletedReporter).reportTaggable(100L, housekeepingPath, FileSystemType.S3);
   }
 
+  @Test
+  void retriesObjectsWhichCouldNotBeDeleted() {
+    AmazonS3 mockAmazonS3 = mock(AmazonS3.class);
+    S3Client mockS3Client = new S3Client(mockAmazonS3, false);
+    mockTwoObjectsListed(mockAmazonS3);
+    when(mockAmazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
+      .thenReturn(new DeleteObjectsResult(List.of(deletedObjectWithKey(key1))))
+      .thenReturn(new DeleteObjectsResult(List.of(deletedObjectWithKey(key2))));
+    s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter,
+        new S3DeleteRetryPolicy(2, 1L, 1L));
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    verify(mockAmazonS3, times(2)).deleteObjects(any(DeleteObjectsRequest.class));
+    verify(bytesDeletedReporter).reportTaggable(150L, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void failsWhenDeletionRetriesAreExhausted() {
+    AmazonS3 mockAmazonS3 = mock(AmazonS3.class);
+    S3Client mockS3Client = new S3Client(mockAmazonS3, false);
+    mockOneOutOfTwoObjectsDeleted(mockAmazonS3);
+    s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter,
+        new S3DeleteRetryPolicy(2, 1L, 1L));
+
+    assertThatExceptionOfType(BeekeeperException.class)
+      .isThrownBy(() -> s3PathCleaner.cleanupPath(housekeepingPath))
+      .withMessage(format("Not all files could be deleted at path \"%s/%s\"; deleted 1/2 objects. "
+          + "Objects not deleted: 'table/id1/partition_1/file2'.", bucket,
+        keyRootAsDirectory));
+    verify(mockAmazonS3, times(3)).deleteObjects(any(DeleteObjectsRequest.class));
+    verify(bytesDeletedReporter).reportTaggable(100L, housekeepingPath, FileSystemType.S3);
+  }
+
   @Test
   void extractingURIFails() {
     String path = "not a real path";
@@ -361,6 +515,12 @@ class S3PathCleanerTest {
   }
 
   private void mockOneOutOfTwoObjectsDeleted(AmazonS3 mockAmazonS3) {
+    mockTwoObjectsListed(mockAmazonS3);
+    when(mockAmazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
+      .thenReturn(new DeleteObjectsResult(List.of(deletedObjectWithKey(key1))));
+  }
+
+  private void mockTwoObjectsListed(AmazonS3 mockAmazonS3) {
     S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
     s3ObjectSummary.setBucketName(bucket);
     s3ObjectSummary.setKey(key1);
@@ -372,9 +532,28 @@ class S3PathCleanerTest {
     ListObjectsV2Result listObjectsV2Result = mock(ListObjectsV2Result.class);
     when(listObjectsV2Result.getObjectSummaries()).thenReturn(List.of(s3ObjectSummary, s3ObjectSummary2));
     when(mockAmazonS3.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(listObjectsV2Result);
+  }
+
+  private EntityHousekeepingPath savedHousekeepingPath() {
+    return new EntityHousekeepingPath.Builder()
+      .id(1L)
+      .path(absolutePath)
+      .creationTimestamp(LocalDateTime.now())
+      .cleanupDelay(Duration.ofDays(1))
+      .build();
+  }
+
+  private S3ObjectSummary objectSummary(String key, long size) {
+    S3ObjectSummary objectSummary = new S3ObjectSummary();
+    objectSummary.setBucketName(bucket);
+    objectSummary.setKey(key);
+    objectSummary.setSize(size);
+    return objectSummary;
+  }
+
+  private DeleteObjectsResult.DeletedObject deletedObjectWithKey(String key) {
     DeleteObjectsResult.DeletedObject deletedObject = new DeleteObjectsResult.DeletedObject();
-    deletedObject.setKey(key1);
-    when(mockAmazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
-      .thenReturn(new DeleteObjectsResult(List.of(deletedObject)));
+    deletedObject.setKey(key);
+    return deletedObject;
   }
 }
@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import com.amazonaws.AmazonServiceException;
+
+class S3RequestRateControllerTest {
+
+  private static final String BUCKET = "bucket";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void limitGrowsWhileRequestsSucceed() {
+    S3RequestRateController requestRateController = new S3RequestRateController(2, 3, meterRegistry);
+    requestRateController.call(BUCKET, () -> "");
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(2.5);
+    requestRateController.call(BUCKET, () -> "");
+    requestRateController.call(BUCKET, () -> "");
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(3.0);
+    requestRateController.call(BUCKET, () -> "");
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(3.0);
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).tag("bucket", BUCKET).gauge().value())
+        .isEqualTo(3.0);
+  }
+
+  @Test
+  void limitHalvesWhenThrottled() {
+    S3RequestRateController requestRateController = new S3RequestRateController(8, 8, meterRegistry);
+    assertThatExceptionOfType(AmazonServiceException.class)
+        .isThrownBy(() -> requestRateController.run(BUCKET, () -> {
+          throw slowDown();
+        }));
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(4.0);
+  }
+
+  @Test
+  void limitHalvesOnceForRequestsSentAtTheSameRate() {
+    S3RequestRateController requestRateController = new S3RequestRateController(8, 8, meterRegistry);
+    S3RequestRateController.Permit first = requestRateController.acquire(BUCKET);
+    S3RequestRateController.Permit second = requestRateController.acquire(BUCKET);
+    first.release(slowDown());
+    second.release(slowDown());
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(4.0);
+
+    requestRateController.acquire(BUCKET).release(slowDown());
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(2.0);
+  }
+
+  @Test
+  void otherFailuresDoNotDecreaseTheLimit() {
+    S3RequestRateController requestRateController = new S3RequestRateController(4, 4, meterRegistry);
+    AmazonServiceException notFound = new AmazonServiceException("Not Found");
+    notFound.setStatusCode(404);
+    requestRateController.acquire(BUCKET).release(notFound);
+    requestRateController.acquire(BUCKET).release(new IllegalStateException());
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(4.0);
+  }
+
+  @Test
+  void asyncThrottlingIsRecognised() {
+    S3Exception slowDown = (S3Exception) S3Exception.builder().statusCode(503).build();
+    assertThat(S3RequestRateController.isThrottling(slowDown)).isTrue();
+  }
+
+  @Test
+  void partlyThrottledBatchDeleteIsRecognised() {
+    DeleteObjectsResponse slowDown = DeleteObjectsResponse.builder()
+        .errors(S3Error.builder().key("key").code("SlowDown").build())
+        .build();
+    DeleteObjectsResponse accessDenied = DeleteObjectsResponse.builder()
+        .errors(S3Error.builder().key("key").code("AccessDenied").build())
+        .build();
+    assertThat(S3RequestRateController.isThrottling(slowDown)).isTrue();
+    assertThat(S3RequestRateController.isThrottling(accessDenied)).isFalse();
+  }
+
+  @Test
+  void limitHalvesWhenReleasedAsThrottled() {
+    S3RequestRateController requestRateController = new S3RequestRateController(8, 8, meterRegistry);
+    requestRateController.acquire(BUCKET).releaseThrottled();
+    assertThat(requestRateController.getLimit(BUCKET)).isEqualTo(4.0);
+  }
+
+  @Test
+  @Timeout(10)
+  void requestsWaitForTheirBucket() throws Exception {
+    S3RequestRateController requestRateController = new S3RequestRateController(1, 1, meterRegistry);
+    S3RequestRateController.Permit permit = requestRateController.acquire(BUCKET);
+    CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> requestRateController.call(BUCKET,
+        () -> "sent"));
+    CompletableFuture<String> otherBucket = CompletableFuture.supplyAsync(() -> requestRateController.call("other",
+        () -> "sent"));
+
+    assertThat(otherBucket.get()).isEqualTo("sent");
+    assertThatExceptionOfType(TimeoutException.class)
+        .isThrownBy(() -> waiting.get(200, TimeUnit.MILLISECONDS));
+    permit.release(null);
+    assertThat(waiting.get()).isEqualTo("sent");
+  }
+
+  @Test
+  void unlimited() {
+    S3RequestRateController requestRateController = S3RequestRateController.unlimited();
+    for (int i = 0; i < 100; i++) {
+      requestRateController.acquire(BUCKET);
+    }
+    assertThat(requestRateController.call(BUCKET, () -> "sent")).isEqualTo("sent");
+  }
+
+  private AmazonServiceException slowDown() {
+    AmazonServiceException slowDown = new AmazonServiceException("Please reduce your request rate.");
+    slowDown.setStatusCode(503);
+    slowDown.setErrorCode("SlowDown");
+    return slowDown;
+  }
+}
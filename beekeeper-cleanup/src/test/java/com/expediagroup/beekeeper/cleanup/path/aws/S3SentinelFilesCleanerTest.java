@@ -18,6 +18,12 @@ package com.expediagroup.beekeeper.cleanup.path.aws;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -28,6 +34,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.testcontainers.containers.localstack.LocalStackContainer;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
 
 @ExtendWith(MockitoExtension.class)
 class S3SentinelFilesCleanerTest {
@@ -173,4 +181,28 @@ class S3SentinelFilesCleanerTest {
     assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isFalse();
     assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isTrue();
   }
+
+  @Test
+  void sentinelFilesOfSiblingPathsAreDeletedInOneBatch() {
+    AmazonS3 spyAmazonS3 = spy(amazonS3);
+    s3SentinelFilesCleaner = new S3SentinelFilesCleaner(new S3Client(spyAmazonS3, false));
+    String partition2Sentinel = "table/partition_2_$folder$";
+    String partition3Sentinel = "table/partition_3_$folder$";
+    String partition2File = "table/partition_2/data.file";
+    amazonS3.putObject(bucket, partition1Sentinel, "");
+    amazonS3.putObject(bucket, partition2Sentinel, "");
+    amazonS3.putObject(bucket, partition2File, "content");
+    amazonS3.putObject(bucket, partition3Sentinel, "content");
+
+    s3SentinelFilesCleaner.deleteAllSentinelFiles(List.of(partition1AbsolutePath, "s3://bucket/table/partition_2",
+        "s3://bucket/table/partition_3"));
+
+    assertThat(amazonS3.doesObjectExist(bucket, partition1Sentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partition2Sentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partition2File)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, partition3Sentinel)).isTrue();
+    verify(spyAmazonS3).listObjectsV2(any(ListObjectsV2Request.class));
+    verify(spyAmazonS3).deleteObjects(any(DeleteObjectsRequest.class));
+    verify(spyAmazonS3, never()).getObjectMetadata(any(), any());
+  }
 }
@@ -15,13 +15,19 @@
  */
 package com.expediagroup.beekeeper.cleanup.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
 
 import org.awaitility.Duration;
 import org.junit.jupiter.api.Test;
@@ -29,6 +35,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.SimpleTriggerContext;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -42,12 +50,16 @@ import com.expediagroup.beekeeper.core.error.BeekeeperException;
 @ExtendWith(SpringExtension.class)
 @ExtendWith(MockitoExtension.class)
 @TestPropertySource(properties = {
-    "properties.scheduler-delay-ms=2000" })
+    "properties.scheduler-delay-ms=2000",
+    "properties.cleanup-continuous-enabled=false",
+    "properties.cleanup-continuous-min-delay-ms=1000" })
 @ContextConfiguration(classes = { CleanupServiceScheduler.class, TestConfig.class },
     loader = AnnotationConfigContextLoader.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class CleanupServiceSchedulerTest {
 
+  private static final Instant COMPLETION = Instant.parse("2020-01-01T00:00:00Z");
+
   private @MockBean CleanupService cleanupService;
   private @MockBean AmazonS3 amazonS3;
   private @Autowired CleanupServiceScheduler cleanupServiceScheduler;
@@ -65,4 +77,70 @@ class CleanupServiceSchedulerTest {
     await().atMost(Duration.TEN_SECONDS)
         .untilAsserted(() -> verify(cleanupService, atLeast(2)).cleanUp(any()));
   }
+
+  @Test
+  void fixedDelay() {
+    CleanupService service = mock(CleanupService.class);
+    CleanupServiceScheduler scheduler = new CleanupServiceScheduler(service, 60_000L, false, 1_000L);
+    scheduler.scheduleCleanup();
+
+    assertThat(scheduler.nextExecutionTime(new SimpleTriggerContext())).isCloseTo(new Date(), 5_000L);
+    assertThat(scheduler.nextExecutionTime(triggerContext(COMPLETION)))
+        .isEqualTo(Date.from(COMPLETION.plusSeconds(60)));
+    verify(service, never()).nextCleanupTime(any());
+  }
+
+  @Test
+  void continuousRunsAgainAfterMinDelayWhilePathsAreLeft() {
+    CleanupService service = mock(CleanupService.class);
+    when(service.cleanUp(any())).thenReturn(true);
+    CleanupServiceScheduler scheduler = new CleanupServiceScheduler(service, 60_000L, true, 1_000L);
+    scheduler.scheduleCleanup();
+
+    assertThat(scheduler.nextExecutionTime(triggerContext(COMPLETION)))
+        .isEqualTo(Date.from(COMPLETION.plusSeconds(1)));
+    verify(service, never()).nextCleanupTime(any());
+  }
+
+  @Test
+  void continuousWaitsUntilNextPathIsDue() {
+    CleanupService service = mock(CleanupService.class);
+    when(service.nextCleanupTime(any())).thenReturn(Optional.of(COMPLETION.plusSeconds(10)));
+    CleanupServiceScheduler scheduler = new CleanupServiceScheduler(service, 60_000L, true, 1_000L);
+    scheduler.scheduleCleanup();
+
+    assertThat(scheduler.nextExecutionTime(triggerContext(COMPLETION)))
+        .isEqualTo(Date.from(COMPLETION.plusSeconds(10)));
+  }
+
+  @Test
+  void continuousWaitsAtLeastMinDelay() {
+    CleanupService service = mock(CleanupService.class);
+    when(service.nextCleanupTime(any())).thenReturn(Optional.of(COMPLETION.minusSeconds(10)));
+    CleanupServiceScheduler scheduler = new CleanupServiceScheduler(service, 60_000L, true, 1_000L);
+    scheduler.scheduleCleanup();
+
+    assertThat(scheduler.nextExecutionTime(triggerContext(COMPLETION)))
+        .isEqualTo(Date.from(COMPLETION.plusSeconds(1)));
+  }
+
+  @Test
+  void continuousWaitsNoLongerThanDelay() {
+    CleanupService service = mock(CleanupService.class);
+    when(service.nextCleanupTime(any())).thenReturn(Optional.of(COMPLETION.plusSeconds(600)));
+    CleanupServiceScheduler scheduler = new CleanupServiceScheduler(service, 60_000L, true, 1_000L);
+    scheduler.scheduleCleanup();
+
+    assertThat(scheduler.nextExecutionTime(triggerContext(COMPLETION)))
+        .isEqualTo(Date.from(COMPLETION.plusSeconds(60)));
+
+    doThrow(BeekeeperException.class).when(service).nextCleanupTime(any());
+    assertThat(scheduler.nextExecutionTime(triggerContext(COMPLETION)))
+        .isEqualTo(Date.from(COMPLETION.plusSeconds(60)));
+  }
+
+  private TriggerContext triggerContext(Instant lastCompletion) {
+    Date completion = Date.from(lastCompletion);
+    return new SimpleTriggerContext(completion, completion, completion);
+  }
 }
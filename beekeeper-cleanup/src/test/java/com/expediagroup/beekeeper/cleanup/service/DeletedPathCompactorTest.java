@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DeletedPathCompactorTest {
+
+  private static final Instant NOW = Instant.parse("2020-06-01T00:00:00Z");
+  private static final LocalDateTime RETENTION_START = LocalDateTime.ofInstant(NOW.minus(Duration.ofDays(30)),
+      ZoneOffset.UTC);
+
+  private @Mock HousekeepingPathRepository housekeepingPathRepository;
+
+  @Test
+  void removesInBatches() {
+    DeletedPathCompactor compactor = new DeletedPathCompactor(housekeepingPathRepository, Duration.ofDays(30), 2);
+    when(housekeepingPathRepository.findDeletedIdsModifiedBefore(RETENTION_START, PageRequest.of(0, 2)))
+        .thenReturn(List.of(1L, 2L), List.of(3L));
+    when(housekeepingPathRepository.deleteDeletedPaths(any())).thenReturn(2, 1);
+
+    assertThat(compactor.compact(NOW)).isEqualTo(3);
+
+    verify(housekeepingPathRepository, times(2))
+        .findDeletedIdsModifiedBefore(RETENTION_START, PageRequest.of(0, 2));
+    verify(housekeepingPathRepository).deleteDeletedPaths(List.of(1L, 2L));
+    verify(housekeepingPathRepository).deleteDeletedPaths(List.of(3L));
+    verifyNoMoreInteractions(housekeepingPathRepository);
+  }
+
+  @Test
+  void stopsWhenNothingIsRemoved() {
+    DeletedPathCompactor compactor = new DeletedPathCompactor(housekeepingPathRepository, Duration.ofDays(30), 2);
+    when(housekeepingPathRepository.findDeletedIdsModifiedBefore(RETENTION_START, PageRequest.of(0, 2)))
+        .thenReturn(List.of(1L, 2L));
+    when(housekeepingPathRepository.deleteDeletedPaths(List.of(1L, 2L))).thenReturn(0);
+
+    assertThat(compactor.compact(NOW)).isEqualTo(0);
+  }
+
+  @Test
+  void noDeletedPaths() {
+    DeletedPathCompactor compactor = new DeletedPathCompactor(housekeepingPathRepository, Duration.ofDays(30), 2);
+    when(housekeepingPathRepository.findDeletedIdsModifiedBefore(RETENTION_START, PageRequest.of(0, 2)))
+        .thenReturn(List.of());
+
+    assertThat(compactor.compact(NOW)).isEqualTo(0);
+    verifyNoMoreInteractions(housekeepingPathRepository);
+  }
+
+  @Test
+  void keepForever() {
+    DeletedPathCompactor compactor = new DeletedPathCompactor(housekeepingPathRepository, Duration.ZERO, 2);
+    assertThat(compactor.compact(NOW)).isEqualTo(0);
+    verifyZeroInteractions(housekeepingPathRepository);
+  }
+}
@@ -26,6 +26,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -87,10 +88,48 @@ public class PagingCleanupServiceTest {
       assertThat(housekeepingPath.getPathStatus()).isEqualTo(PathStatus.DELETED);
     });
 
+    verify(pathCleaner, times(2)).startPage();
+    verify(pathCleaner, times(2)).endPage();
+
     pagingCleanupService.cleanUp(Instant.now());
+    verify(pathCleaner, times(2)).startRun();
+    verify(pathCleaner, times(2)).endRun();
     verifyNoMoreInteractions(pathCleaner);
   }
 
+  @Test
+  public void runStopsOnPathBudget() {
+    UnreferencedHandler handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner);
+    pagingCleanupService = new PagingCleanupService(List.of(handler), 1, false, Duration.ZERO, 2);
+
+    List<String> paths = List.of("s3://some_foo", "s3://some_bar", "s3://some_foobar");
+    paths.forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, PathStatus.SCHEDULED)));
+    assertThat(pagingCleanupService.cleanUp(Instant.now())).isTrue();
+    verify(pathCleaner, times(2)).cleanupPath(any());
+    verify(pathCleaner).endRun();
+
+    assertThat(pagingCleanupService.cleanUp(Instant.now())).isFalse();
+    verify(pathCleaner, times(3)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues())
+        .extracting("path")
+        .containsExactly(paths.get(0), paths.get(1), paths.get(2));
+  }
+
+  @Test
+  public void nextCleanupTime() {
+    UnreferencedHandler handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner);
+    pagingCleanupService = new PagingCleanupService(List.of(handler), 1, false);
+    Instant referenceTime = Instant.now();
+    assertThat(pagingCleanupService.nextCleanupTime(referenceTime)).isEmpty();
+
+    EntityHousekeepingPath path = createEntityHousekeepingPath("s3://some_foo", PathStatus.SCHEDULED);
+    LocalDateTime cleanupTimestamp = localNow.plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+    path.setCleanupTimestamp(cleanupTimestamp);
+    housekeepingPathRepository.save(path);
+    assertThat(pagingCleanupService.nextCleanupTime(referenceTime))
+        .hasValue(cleanupTimestamp.toInstant(ZoneOffset.UTC));
+  }
+
   @Test
   public void mixOfScheduledAndFailedPaths() {
     UnreferencedHandler handler = new UnreferencedHandler(housekeepingPathRepository, pathCleaner);
@@ -15,6 +15,9 @@
  */
 package com.expediagroup.beekeeper.core.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
@@ -26,6 +29,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 import org.hibernate.annotations.UpdateTimestamp;
@@ -34,16 +38,27 @@ import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.monitoring.MetricTag;
 
 @Entity
-@Table(name = "path")
+@Table(name = "path", indexes = {
+    @Index(name = "path_hash_idx", columnList = "path_hash", unique = true),
+    @Index(name = "path_cleanup_idx", columnList = "modified_timestamp, id, path_status, cleanup_timestamp"),
+    @Index(name = "path_status_modified_idx", columnList = "path_status, modified_timestamp"),
+    @Index(name = "path_reclaim_priority_idx", columnList = "reclaim_priority DESC, modified_timestamp, id") })
 public class EntityHousekeepingPath implements HousekeepingPath {
 
+  // keys covered by each S3 listing and by each multi-object delete
+  private static final long KEYS_PER_REQUEST = 1000L;
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
-  @Column(name = "path", nullable = false, unique = true)
+  @Column(name = "path", nullable = false)
   private String path;
 
+  // paths are too long for MySQL to index, so uniqueness and exact lookups go through a hash of the path
+  @Column(name = "path_hash", nullable = false, length = 64)
+  private String pathHash;
+
   @Column(name = "database_name")
   private String databaseName;
 
@@ -76,6 +91,30 @@ public class EntityHousekeepingPath implements HousekeepingPath {
   @Column(name = "lifecycle_type", nullable = false)
   private String lifecycleType;
 
+  @Column(name = "estimated_bytes")
+  private Long estimatedBytes;
+
+  @Column(name = "estimated_objects")
+  private Long estimatedObjects;
+
+  @Column(name = "reclaim_priority", nullable = false)
+  private long reclaimPriority;
+
+  @Column(name = "next_attempt_timestamp")
+  private LocalDateTime nextAttemptTimestamp;
+
+  @Column(name = "lease_owner")
+  private String leaseOwner;
+
+  @Column(name = "lease_expiry")
+  private LocalDateTime leaseExpiry;
+
+  @Column(name = "checkpoint_key", length = 1024)
+  private String checkpointKey;
+
+  @Column(name = "checkpoint_bytes")
+  private Long checkpointBytes;
+
   public EntityHousekeepingPath() {
 
   }
@@ -83,9 +122,10 @@ public class EntityHousekeepingPath implements HousekeepingPath {
   private EntityHousekeepingPath(Long id, String path, String databaseName, String tableName,
       PathStatus pathStatus, LocalDateTime creationTimestamp, LocalDateTime modifiedTimestamp,
       LocalDateTime cleanupTimestamp, Duration cleanupDelay, int cleanupAttempts, String lifecycleType,
-      String clientId) {
+      String clientId, Long estimatedBytes, Long estimatedObjects) {
     this.id = id;
     this.path = path;
+    this.pathHash = hashPath(path);
     this.databaseName = databaseName;
     this.tableName = tableName;
     this.pathStatus = pathStatus;
@@ -96,6 +136,7 @@ public class EntityHousekeepingPath implements HousekeepingPath {
     this.cleanupAttempts = cleanupAttempts;
     this.lifecycleType = lifecycleType;
     this.clientId = clientId;
+    setEstimatedSize(estimatedBytes, estimatedObjects);
   }
 
   @Override
@@ -121,6 +162,11 @@ public class EntityHousekeepingPath implements HousekeepingPath {
   @Override
   public void setPath(String path) {
     this.path = path;
+    pathHash = hashPath(path);
+  }
+
+  public String getPathHash() {
+    return pathHash;
   }
 
   @Override
@@ -214,11 +260,103 @@ public class EntityHousekeepingPath implements HousekeepingPath {
     cleanupTimestamp = creationTimestamp.plus(cleanupDelay);
   }
 
+  public Long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  public Long getEstimatedObjects() {
+    return estimatedObjects;
+  }
+
+  public long getReclaimPriority() {
+    return reclaimPriority;
+  }
+
+  /**
+   * Sets how much data is expected at the path, either of which may be null if unknown, and with it the path's reclaim
+   * priority: the bytes expected to be reclaimed per S3 request, counting one listing and one delete request per
+   * thousand objects plus the request telling a file from a directory. Paths of unknown size have the lowest priority.
+   */
+  public void setEstimatedSize(Long estimatedBytes, Long estimatedObjects) {
+    this.estimatedBytes = estimatedBytes;
+    this.estimatedObjects = estimatedObjects;
+    if (estimatedBytes == null || estimatedBytes <= 0) {
+      reclaimPriority = 0;
+      return;
+    }
+    long objects = estimatedObjects == null ? 1 : Math.max(1, estimatedObjects);
+    long requestsPerKind = (objects + KEYS_PER_REQUEST - 1) / KEYS_PER_REQUEST;
+    reclaimPriority = estimatedBytes / (2 * requestsPerKind + 1);
+  }
+
+  public LocalDateTime getNextAttemptTimestamp() {
+    return nextAttemptTimestamp;
+  }
+
+  public void setNextAttemptTimestamp(LocalDateTime nextAttemptTimestamp) {
+    this.nextAttemptTimestamp = nextAttemptTimestamp;
+  }
+
+  public String getLeaseOwner() {
+    return leaseOwner;
+  }
+
+  public void setLeaseOwner(String leaseOwner) {
+    this.leaseOwner = leaseOwner;
+  }
+
+  public LocalDateTime getLeaseExpiry() {
+    return leaseExpiry;
+  }
+
+  public void setLeaseExpiry(LocalDateTime leaseExpiry) {
+    this.leaseExpiry = leaseExpiry;
+  }
+
+  @Override
+  public String getCheckpointKey() {
+    return checkpointKey;
+  }
+
+  @Override
+  public void setCheckpointKey(String checkpointKey) {
+    this.checkpointKey = checkpointKey;
+  }
+
+  @Override
+  public Long getCheckpointBytes() {
+    return checkpointBytes;
+  }
+
+  @Override
+  public void setCheckpointBytes(Long checkpointBytes) {
+    this.checkpointBytes = checkpointBytes;
+  }
+
   @Override
   public MetricTag getMetricTag() {
     return new MetricTag("table", String.join(".", databaseName, tableName));
   }
 
+  /**
+   * @return The lower case hex SHA-256 of the UTF-8 bytes of {@code path}, as MySQL's {@code SHA2(path, 256)}.
+   */
+  public static String hashPath(String path) {
+    if (path == null) {
+      return null;
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(path.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hash = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hash.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+      return hash.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new BeekeeperException("SHA-256 is not available to hash path " + path, e);
+    }
+  }
+
   public static final class Builder {
 
     private Long id;
@@ -233,6 +371,8 @@ public class EntityHousekeepingPath implements HousekeepingPath {
     private int cleanupAttempts;
     private String clientId;
     private String lifecycleType;
+    private Long estimatedBytes;
+    private Long estimatedObjects;
 
     public Builder() { }
 
@@ -286,12 +426,18 @@ public class EntityHousekeepingPath implements HousekeepingPath {
       return this;
     }
 
+    public Builder estimatedSize(Long estimatedBytes, Long estimatedObjects) {
+      this.estimatedBytes = estimatedBytes;
+      this.estimatedObjects = estimatedObjects;
+      return this;
+    }
+
     public EntityHousekeepingPath build() {
       cleanupTimestamp = configureCleanupTimestamp();
 
       return new EntityHousekeepingPath(id, path, databaseName, tableName, pathStatus,
           creationTimestamp, modifiedTimestamp, cleanupTimestamp, cleanupDelay, cleanupAttempts, lifecycleType,
-          clientId);
+          clientId, estimatedBytes, estimatedObjects);
     }
 
     private LocalDateTime configureCleanupTimestamp() {
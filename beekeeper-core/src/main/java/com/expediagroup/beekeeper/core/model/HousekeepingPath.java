@@ -67,4 +67,19 @@ public interface HousekeepingPath extends Taggable {
   String getClientId();
 
   void setClientId(String clientId);
+
+  /**
+   * @return Key of the last object known to be deleted by a cleanup of this path which did not finish, from which the
+   * next cleanup resumes, or null to clean the path from the start.
+   */
+  String getCheckpointKey();
+
+  void setCheckpointKey(String checkpointKey);
+
+  /**
+   * @return Bytes deleted up to and including the checkpoint key, or null without a checkpoint.
+   */
+  Long getCheckpointBytes();
+
+  void setCheckpointBytes(Long checkpointBytes);
 }
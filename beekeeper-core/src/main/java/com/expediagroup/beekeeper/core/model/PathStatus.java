@@ -18,5 +18,9 @@ package com.expediagroup.beekeeper.core.model;
 public enum PathStatus {
   SCHEDULED,
   FAILED,
-  DELETED
+  DELETED,
+  /**
+   * Failed to be cleaned up as many times as allowed and is no longer tried.
+   */
+  ABANDONED
 }
@@ -18,6 +18,9 @@
  */
 package com.expediagroup.beekeeper.core.monitoring;
 
+import java.util.List;
+import java.util.Objects;
+
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -33,13 +36,16 @@ import io.micrometer.core.instrument.Timer;
  * Aspect for intercepting methods annotated with {@link TimedTaggable}.
  *
  * The method can have any number of arguments but a {@link Taggable} must be the first. Will add the custom tag to the
- * timer metric.
+ * timer metric. A method whose first argument is a list of {@link Taggable}s is timed once for the whole list, tagged
+ * with the size of the list and with the custom tag if all of them share it.
  */
 @Aspect
 @Component
 public class TimedTaggableAspect {
 
   public static final String EXCEPTION_TAG = "exception";
+  public static final String SIZE_TAG = "size";
+  private static final MetricTag NO_TAG = new MetricTag(null, null);
 
   private MeterRegistry meterRegistry;
 
@@ -74,6 +80,53 @@ public class TimedTaggableAspect {
     }
   }
 
+  @Around("@annotation(timedTaggable) && args(taggables,..)")
+  public Object timeAll(
+      ProceedingJoinPoint pjp,
+      List<?> taggables,
+      TimedTaggable timedTaggable)
+    throws Throwable {
+    String metricName = timedTaggable.value();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exceptionClass = "none";
+    try {
+      return pjp.proceed();
+    } catch (Exception ex) {
+      exceptionClass = ex.getClass().getSimpleName();
+      throw ex;
+    } finally {
+      try {
+        sample.stop(Timer.builder(metricName)
+          .tags(EXCEPTION_TAG, exceptionClass)
+          .tags(metricTags(pjp, commonMetricTag(taggables)))
+          .tag(SIZE_TAG, String.valueOf(taggables.size()))
+          .register(meterRegistry));
+      } catch (Exception e) {
+        // ignoring on purpose
+      }
+    }
+  }
+
+  /**
+   * @return The tag shared by all of {@code taggables}, or an empty tag if they do not share one.
+   */
+  private MetricTag commonMetricTag(List<?> taggables) {
+    MetricTag common = null;
+    for (Object taggable : taggables) {
+      if (!(taggable instanceof Taggable)) {
+        return NO_TAG;
+      }
+      MetricTag metricTag = ((Taggable) taggable).getMetricTag();
+      if (common == null) {
+        common = metricTag;
+      } else if (!Objects.equals(common.getKey(), metricTag.getKey())
+          || !Objects.equals(common.getTag(), metricTag.getTag())) {
+        return NO_TAG;
+      }
+    }
+    return common == null ? NO_TAG : common;
+  }
+
   private Tags metricTags(ProceedingJoinPoint pjp, MetricTag metricTag) {
     Tags tags = Tags.of("class", pjp.getStaticPart().getSignature().getDeclaringTypeName(),
       "method", pjp.getStaticPart().getSignature().getName());
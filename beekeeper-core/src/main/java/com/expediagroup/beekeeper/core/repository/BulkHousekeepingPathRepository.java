@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.repository;
+
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+
+/**
+ * Schedules many records at once. The records are written with multi-row inserts, as the ids of the records are
+ * generated by the database and so keep Hibernate from batching the inserts of {@code saveAll}.
+ */
+public interface BulkHousekeepingPathRepository {
+
+  /**
+   * Inserts {@code paths}, {@value BulkHousekeepingPathRepositoryImpl#ROWS_PER_INSERT} rows per statement. A path
+   * which already has a record, say because the message scheduling it was delivered twice, updates that record in the
+   * same statement instead of failing: its status, cleanup timestamp and delay, size and lifecycle are replaced and its
+   * cleanup attempts, next attempt timestamp, checkpoint and lease are reset. A deleted record is scheduled again, as
+   * data may have been written under its path since, while an abandoned record is left as it is until someone looks
+   * into why it could not be cleaned up. Unlike {@code saveAll}, the ids of the records are not set on {@code paths}.
+   */
+  @Transactional
+  void upsertAll(List<EntityHousekeepingPath> paths);
+}
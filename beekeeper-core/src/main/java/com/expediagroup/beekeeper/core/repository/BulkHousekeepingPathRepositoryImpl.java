@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+
+import com.expediagroup.beekeeper.core.model.DurationConverter;
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+
+/**
+ * Writes the rows with MySQL's {@code insert ... on duplicate key update}. The inserted values are referred to with
+ * {@code values(column)}, which MySQL deprecates from 8.0.20 in favour of a row alias but still supports, since the
+ * row alias needs MySQL 8.0.19 or later and is not understood by H2.
+ */
+public class BulkHousekeepingPathRepositoryImpl implements BulkHousekeepingPathRepository {
+
+  static final int ROWS_PER_INSERT = 100;
+  private static final String INSERT = "insert into path (path, path_hash, database_name, table_name, path_status, "
+      + "creation_timestamp, modified_timestamp, cleanup_timestamp, cleanup_delay, cleanup_attempts, client_id, "
+      + "lifecycle_type, estimated_bytes, estimated_objects, reclaim_priority) values ";
+  private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final List<String> RESCHEDULED_COLUMNS = List.of("database_name", "table_name",
+      "modified_timestamp", "cleanup_timestamp", "cleanup_delay", "cleanup_attempts", "client_id", "lifecycle_type",
+      "estimated_bytes", "estimated_objects", "reclaim_priority");
+  private static final List<String> RESET_COLUMNS = List.of("next_attempt_timestamp", "checkpoint_key",
+      "checkpoint_bytes", "lease_owner", "lease_expiry");
+  // path_status is assigned last, as MySQL evaluates the assignments in order and the others check its old value
+  private static final String ON_DUPLICATE_PATH = " on duplicate key update "
+      + Stream.concat(
+          RESCHEDULED_COLUMNS.stream().map(column -> unlessAbandoned(column, "values(" + column + ")")),
+          Stream.concat(
+              RESET_COLUMNS.stream().map(column -> unlessAbandoned(column, "null")),
+              Stream.of(unlessAbandoned("path_status", "values(path_status)"))))
+          .collect(Collectors.joining(", "));
+  private static final DurationConverter DURATION_CONVERTER = new DurationConverter();
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public void upsertAll(List<EntityHousekeepingPath> paths) {
+    entityManager.unwrap(Session.class).doWork(connection -> {
+      for (int start = 0; start < paths.size(); start += ROWS_PER_INSERT) {
+        List<EntityHousekeepingPath> rows = paths.subList(start, Math.min(paths.size(), start + ROWS_PER_INSERT));
+        try (PreparedStatement statement = connection.prepareStatement(insertStatement(rows.size()))) {
+          // set as @UpdateTimestamp would have set it on save
+          Timestamp modifiedTimestamp = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+          int parameter = 1;
+          for (EntityHousekeepingPath path : rows) {
+            statement.setString(parameter++, path.getPath());
+            statement.setString(parameter++, path.getPathHash());
+            statement.setString(parameter++, path.getDatabaseName());
+            statement.setString(parameter++, path.getTableName());
+            statement.setString(parameter++, path.getPathStatus() == null ? null : path.getPathStatus().name());
+            statement.setTimestamp(parameter++, Timestamp.valueOf(path.getCreationTimestamp()));
+            statement.setTimestamp(parameter++, modifiedTimestamp);
+            statement.setTimestamp(parameter++, Timestamp.valueOf(path.getCleanupTimestamp()));
+            statement.setString(parameter++, DURATION_CONVERTER.convertToDatabaseColumn(path.getCleanupDelay()));
+            statement.setInt(parameter++, path.getCleanupAttempts());
+            statement.setString(parameter++, path.getClientId());
+            statement.setString(parameter++, path.getLifecycleType());
+            statement.setObject(parameter++, path.getEstimatedBytes(), Types.BIGINT);
+            statement.setObject(parameter++, path.getEstimatedObjects(), Types.BIGINT);
+            statement.setLong(parameter++, path.getReclaimPriority());
+          }
+          statement.executeUpdate();
+        }
+      }
+    });
+  }
+
+  private static String unlessAbandoned(String column, String value) {
+    return column + " = case when path_status = 'ABANDONED' then " + column + " else " + value + " end";
+  }
+
+  private static String insertStatement(int rows) {
+    return INSERT + String.join(", ", Collections.nCopies(rows, ROW)) + ON_DUPLICATE_PATH;
+  }
+}
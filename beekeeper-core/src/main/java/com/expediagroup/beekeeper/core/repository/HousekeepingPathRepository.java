@@ -16,22 +16,209 @@
 package com.expediagroup.beekeeper.core.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.PathStatus;
 
 @Repository
-public interface HousekeepingPathRepository extends JpaRepository<EntityHousekeepingPath, Long> {
+public interface HousekeepingPathRepository extends JpaRepository<EntityHousekeepingPath, Long>,
+    BulkHousekeepingPathRepository {
 
-  @Query(value = "from EntityHousekeepingPath p where p.cleanupTimestamp <= :instant "
+  String DUE_FOR_CLEANUP = "p.cleanupTimestamp <= :instant "
       + "and (p.pathStatus = 'SCHEDULED' or p.pathStatus = 'FAILED') "
-      + "and p.modifiedTimestamp <= :instant order by p.modifiedTimestamp")
-  Page<EntityHousekeepingPath> findRecordsForCleanupByModifiedTimestamp(@Param("instant") LocalDateTime instant,
+      + "and p.modifiedTimestamp <= :instant "
+      + "and (p.nextAttemptTimestamp is null or p.nextAttemptTimestamp <= :instant) ";
+
+  String RECORDS_FOR_CLEANUP = "from EntityHousekeepingPath p where " + DUE_FOR_CLEANUP
+      + "and (p.leaseExpiry is null or p.leaseExpiry < :instant) ";
+
+  String DUE_TIMESTAMP = "case when p.pathStatus = 'SCHEDULED' "
+      + "and p.modifiedTimestamp > coalesce(p.nextAttemptTimestamp, p.cleanupTimestamp) then p.modifiedTimestamp "
+      + "else coalesce(p.nextAttemptTimestamp, p.cleanupTimestamp) end";
+
+  /**
+   * Fetches the first page of records to clean up. A {@link Slice} is returned so that no count query is run.
+   */
+  @Query(value = RECORDS_FOR_CLEANUP + "order by p.modifiedTimestamp, p.id")
+  Slice<EntityHousekeepingPath> findRecordsForCleanupByModifiedTimestamp(@Param("instant") LocalDateTime instant,
+      Pageable pageable);
+
+  /**
+   * Fetches the page of records to clean up which follows the record with the given modified timestamp and id. Pages
+   * are sought by key rather than by offset, so fetching a page costs the same however far into the records it is.
+   */
+  @Query(value = RECORDS_FOR_CLEANUP
+      + "and (p.modifiedTimestamp > :lastModifiedTimestamp "
+      + "or (p.modifiedTimestamp = :lastModifiedTimestamp and p.id > :lastId)) "
+      + "order by p.modifiedTimestamp, p.id")
+  Slice<EntityHousekeepingPath> findRecordsForCleanupByModifiedTimestampAfter(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastModifiedTimestamp") LocalDateTime lastModifiedTimestamp,
+      @Param("lastId") Long lastId,
       Pageable pageable);
+
+  /**
+   * Fetches the first page of records to clean up, those expected to reclaim the most bytes per S3 request first.
+   */
+  @Query(value = RECORDS_FOR_CLEANUP + "order by p.reclaimPriority desc, p.modifiedTimestamp, p.id")
+  Slice<EntityHousekeepingPath> findRecordsForCleanupByReclaimPriority(@Param("instant") LocalDateTime instant,
+      Pageable pageable);
+
+  /**
+   * Fetches the page of records to clean up which follows the record with the given reclaim priority, modified
+   * timestamp and id, in the order of {@link #findRecordsForCleanupByReclaimPriority}.
+   */
+  @Query(value = RECORDS_FOR_CLEANUP
+      + "and (p.reclaimPriority < :lastReclaimPriority "
+      + "or (p.reclaimPriority = :lastReclaimPriority and (p.modifiedTimestamp > :lastModifiedTimestamp "
+      + "or (p.modifiedTimestamp = :lastModifiedTimestamp and p.id > :lastId)))) "
+      + "order by p.reclaimPriority desc, p.modifiedTimestamp, p.id")
+  Slice<EntityHousekeepingPath> findRecordsForCleanupByReclaimPriorityAfter(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastReclaimPriority") long lastReclaimPriority,
+      @Param("lastModifiedTimestamp") LocalDateTime lastModifiedTimestamp,
+      @Param("lastId") Long lastId,
+      Pageable pageable);
+
+  /**
+   * Finds when the first record to clean up which is not yet due at {@code instant} becomes due, so that a cleanup
+   * which has run out of work can wait for exactly that long. Scheduled records modified after {@code instant}, such as
+   * paths scheduled again while a run was cleaning up, only become due at their modified timestamp.
+   */
+  @Query(value = "select min(" + DUE_TIMESTAMP + ") from EntityHousekeepingPath p "
+      + "where (p.pathStatus = 'SCHEDULED' or p.pathStatus = 'FAILED') "
+      + "and " + DUE_TIMESTAMP + " > :instant")
+  Optional<LocalDateTime> findNextCleanupTimestamp(@Param("instant") LocalDateTime instant);
+
+  /**
+   * Sets the status and next attempt timestamp of the records with the given ids, counts a cleanup attempt for each of
+   * them and releases their leases, in one statement. Records leased by another owner, which took them over once the
+   * lease of {@code leaseOwner} expired, are left to that owner.
+   *
+   * @param leaseOwner Owner of the leases on the records, or null if they were not leased.
+   * @return Number of records updated.
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "update EntityHousekeepingPath p set p.pathStatus = :pathStatus, "
+      + "p.cleanupAttempts = p.cleanupAttempts + 1, p.modifiedTimestamp = :modifiedTimestamp, "
+      + "p.nextAttemptTimestamp = :nextAttemptTimestamp, p.leaseOwner = null, p.leaseExpiry = null "
+      + "where p.id in :ids and (p.leaseOwner is null or p.leaseOwner = :leaseOwner)")
+  int updatePathStatusAndIncrementCleanupAttempts(
+      @Param("ids") Collection<Long> ids,
+      @Param("leaseOwner") String leaseOwner,
+      @Param("pathStatus") PathStatus pathStatus,
+      @Param("modifiedTimestamp") LocalDateTime modifiedTimestamp,
+      @Param("nextAttemptTimestamp") LocalDateTime nextAttemptTimestamp);
+
+  /**
+   * Marks the records with the given ids as deleted, counts a cleanup attempt for each of them, releases their leases
+   * and drops their checkpoints, which no longer need resuming, in one statement. Records leased by another owner are
+   * left to that owner, as in {@link #updatePathStatusAndIncrementCleanupAttempts}.
+   *
+   * @param leaseOwner Owner of the leases on the records, or null if they were not leased.
+   * @return Number of records updated.
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "update EntityHousekeepingPath p set p.pathStatus = 'DELETED', "
+      + "p.cleanupAttempts = p.cleanupAttempts + 1, p.modifiedTimestamp = :modifiedTimestamp, "
+      + "p.nextAttemptTimestamp = null, p.leaseOwner = null, p.leaseExpiry = null, "
+      + "p.checkpointKey = null, p.checkpointBytes = null "
+      + "where p.id in :ids and (p.leaseOwner is null or p.leaseOwner = :leaseOwner)")
+  int updatePathStatusToDeletedAndIncrementCleanupAttempts(
+      @Param("ids") Collection<Long> ids,
+      @Param("leaseOwner") String leaseOwner,
+      @Param("modifiedTimestamp") LocalDateTime modifiedTimestamp);
+
+  /**
+   * Records how far the cleanup of the path with the given id has got, keeping its modified timestamp as the leases
+   * below do.
+   *
+   * @return Number of records updated.
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "update EntityHousekeepingPath p set p.checkpointKey = :checkpointKey, "
+      + "p.checkpointBytes = :checkpointBytes, p.modifiedTimestamp = p.modifiedTimestamp where p.id = :id")
+  int updateCheckpoint(
+      @Param("id") Long id,
+      @Param("checkpointKey") String checkpointKey,
+      @Param("checkpointBytes") Long checkpointBytes);
+
+  /**
+   * Leases the records with the given ids which are still due for cleanup at {@code instant}, as the records to clean
+   * up are fetched, and are not leased by someone else. A record which another instance has cleaned or rescheduled
+   * since it was fetched is therefore not leased. The modified timestamp is assigned to itself, here and when leases
+   * are renewed, so that MySQL does not move it to the current time, as the records are paged and compacted by it.
+   *
+   * @param instant Instant the records were fetched for.
+   * @param now Current time, which the leases of other owners must have expired by.
+   * @return Number of records leased.
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "update EntityHousekeepingPath p set p.leaseOwner = :leaseOwner, p.leaseExpiry = :leaseExpiry, "
+      + "p.modifiedTimestamp = p.modifiedTimestamp "
+      + "where p.id in :ids and " + DUE_FOR_CLEANUP
+      + "and (p.leaseExpiry is null or p.leaseExpiry < :now)")
+  int leasePaths(
+      @Param("ids") Collection<Long> ids,
+      @Param("leaseOwner") String leaseOwner,
+      @Param("leaseExpiry") LocalDateTime leaseExpiry,
+      @Param("instant") LocalDateTime instant,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Extends the leases {@code leaseOwner} still holds on the records with the given ids.
+   *
+   * @return Number of leases renewed.
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "update EntityHousekeepingPath p set p.leaseExpiry = :leaseExpiry, "
+      + "p.modifiedTimestamp = p.modifiedTimestamp where p.id in :ids and p.leaseOwner = :leaseOwner")
+  int renewLeases(
+      @Param("ids") Collection<Long> ids,
+      @Param("leaseOwner") String leaseOwner,
+      @Param("leaseExpiry") LocalDateTime leaseExpiry);
+
+  @Query(value = "select p.id from EntityHousekeepingPath p where p.id in :ids and p.leaseOwner = :leaseOwner")
+  List<Long> findIdsLeasedBy(@Param("ids") Collection<Long> ids, @Param("leaseOwner") String leaseOwner);
+
+  @Query(value = "select p.id from EntityHousekeepingPath p where p.pathStatus = 'DELETED' "
+      + "and p.modifiedTimestamp < :instant")
+  List<Long> findDeletedIdsModifiedBefore(@Param("instant") LocalDateTime instant, Pageable pageable);
+
+  /**
+   * Removes the records with the given ids which have been deleted.
+   *
+   * @return Number of records removed.
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "delete from EntityHousekeepingPath p where p.id in :ids and p.pathStatus = 'DELETED'")
+  int deleteDeletedPaths(@Param("ids") Collection<Long> ids);
+
+  Optional<EntityHousekeepingPath> findByPathHash(String pathHash);
+
+  /**
+   * Looks the record of {@code path} up through the indexed hash of the path rather than the path itself.
+   */
+  default Optional<EntityHousekeepingPath> findByPath(String path) {
+    return findByPathHash(EntityHousekeepingPath.hashPath(path))
+        .filter(housekeepingPath -> housekeepingPath.getPath().equals(path));
+  }
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class EntityHousekeepingPathTest {
+
+  @Test
+  public void reclaimPriority() {
+    // a listing, a delete and the request telling a file from a directory
+    assertThat(createPath(3000L, 1L).getReclaimPriority()).isEqualTo(1000L);
+    assertThat(createPath(3000L, 1000L).getReclaimPriority()).isEqualTo(1000L);
+    // two of each for up to two thousand objects
+    assertThat(createPath(5000L, 1001L).getReclaimPriority()).isEqualTo(1000L);
+    assertThat(createPath(3000L, null).getReclaimPriority()).isEqualTo(1000L);
+  }
+
+  @Test
+  public void unknownSizeHasLowestPriority() {
+    assertThat(createPath(null, null).getReclaimPriority()).isEqualTo(0L);
+    assertThat(createPath(null, 10L).getReclaimPriority()).isEqualTo(0L);
+    assertThat(createPath(0L, 0L).getReclaimPriority()).isEqualTo(0L);
+  }
+
+  private EntityHousekeepingPath createPath(Long estimatedBytes, Long estimatedObjects) {
+    return new EntityHousekeepingPath.Builder()
+        .path("s3://bucket/path")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.ofDays(1))
+        .estimatedSize(estimatedBytes, estimatedObjects)
+        .build();
+  }
+}
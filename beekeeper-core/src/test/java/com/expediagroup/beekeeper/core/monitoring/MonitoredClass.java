@@ -17,6 +17,8 @@ package com.expediagroup.beekeeper.core.monitoring;
 
 import static com.expediagroup.beekeeper.core.monitoring.TimedTaggableAspectTest.TIMER_NAME;
 
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
@@ -38,4 +40,9 @@ public class MonitoredClass {
   public HousekeepingPath pathIsNotTheFirstArg(int i, String s, HousekeepingPath path) {
     return path;
   }
+
+  @TimedTaggable(TIMER_NAME)
+  public List<HousekeepingPath> doSomethingWithAll(List<HousekeepingPath> paths) {
+    return paths;
+  }
 }
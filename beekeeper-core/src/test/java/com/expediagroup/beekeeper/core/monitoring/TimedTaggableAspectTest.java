@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -97,6 +98,33 @@ public class TimedTaggableAspectTest {
     assertThat(timer).isNotNull();
   }
 
+  @Test
+  public void timeAll() {
+    monitoredClass.doSomethingWithAll(List.of(housekeepingPath, housekeepingPath));
+    Timer timer = RequiredSearch.in(meterRegistry)
+      .name(TIMER_NAME)
+      .tags("table", String.join(".", DATABASE, TABLE), TimedTaggableAspect.SIZE_TAG, "2")
+      .timer();
+    assertThat(timer.count()).isEqualTo(1L);
+  }
+
+  @Test
+  public void timeAllOfSeveralTables() {
+    HousekeepingPath otherPath = new EntityHousekeepingPath.Builder()
+      .databaseName(DATABASE)
+      .tableName(TABLE_2)
+      .creationTimestamp(LocalDateTime.now())
+      .cleanupDelay(Duration.ofDays(1))
+      .build();
+    monitoredClass.doSomethingWithAll(List.of(housekeepingPath, otherPath));
+    Timer timer = RequiredSearch.in(meterRegistry)
+      .name(TIMER_NAME)
+      .tags(TimedTaggableAspect.SIZE_TAG, "2")
+      .timer();
+    assertThat(timer.count()).isEqualTo(1L);
+    assertThat(timer.getId().getTag("table")).isNull();
+  }
+
   @Test
   public void timeFailsIfPathIsNotFirstArgument() {
     monitoredClass.pathIsNotTheFirstArg(1, "test-string", housekeepingPath);
@@ -22,6 +22,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -29,8 +31,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -55,6 +58,9 @@ public class HousekeepingPathRepositoryTest {
   @Autowired
   private HousekeepingPathRepository housekeepingPathRepository;
 
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
   @BeforeEach
   public void setupDb() {
     housekeepingPathRepository.deleteAll();
@@ -134,7 +140,7 @@ public class HousekeepingPathRepositoryTest {
     path.setCleanupTimestamp(LocalDateTime.now(ZoneId.of("UTC")));
     housekeepingPathRepository.save(path);
 
-    Page<EntityHousekeepingPath> result = housekeepingPathRepository
+    Slice<EntityHousekeepingPath> result = housekeepingPathRepository
         .findRecordsForCleanupByModifiedTimestamp(LocalDateTime.now(ZoneId.of("UTC")), PageRequest.of(0, 500));
     assertThat(result.getContent().get(0).getPath()).isEqualTo("path");
   }
@@ -145,7 +151,7 @@ public class HousekeepingPathRepositoryTest {
     path.setPathStatus(PathStatus.DELETED);
     housekeepingPathRepository.save(path);
 
-    Page<EntityHousekeepingPath> result = housekeepingPathRepository
+    Slice<EntityHousekeepingPath> result = housekeepingPathRepository
         .findRecordsForCleanupByModifiedTimestamp(LocalDateTime.now(), PageRequest.of(0, 500));
     assertThat(result.getContent().size()).isEqualTo(0);
   }
@@ -170,7 +176,7 @@ public class HousekeepingPathRepositoryTest {
     housekeepingPath3.setPath("path3");
     housekeepingPathRepository.save(housekeepingPath3);
 
-    Page<EntityHousekeepingPath> result = housekeepingPathRepository
+    Slice<EntityHousekeepingPath> result = housekeepingPathRepository
         .findRecordsForCleanupByModifiedTimestamp(LocalDateTime.now(ZoneId.of("UTC")), PageRequest.of(0, 500));
     assertThat(result.getContent().size()).isEqualTo(2);
   }
@@ -198,8 +204,440 @@ public class HousekeepingPathRepositoryTest {
     assertThat(result.get(1).getPath()).isEqualTo(path2);
   }
 
+  @Test
+  void updatePathStatusAndIncrementCleanupAttempts() {
+    EntityHousekeepingPath path1 = createEntityHousekeepingPath();
+    housekeepingPathRepository.save(path1);
+    EntityHousekeepingPath path2 = createEntityHousekeepingPath();
+    path2.setPath("path2");
+    path2.setCleanupAttempts(1);
+    housekeepingPathRepository.save(path2);
+    EntityHousekeepingPath otherPath = createEntityHousekeepingPath();
+    otherPath.setPath("other_path");
+    housekeepingPathRepository.save(otherPath);
+    LocalDateTime modifiedTimestamp = LocalDateTime.now(ZoneId.of("UTC"))
+        .plusMinutes(1)
+        .truncatedTo(ChronoUnit.SECONDS);
+
+    int updated = housekeepingPathRepository.updatePathStatusAndIncrementCleanupAttempts(
+        List.of(path1.getId(), path2.getId()), null, PathStatus.FAILED, modifiedTimestamp, modifiedTimestamp.plusHours(1));
+
+    assertThat(updated).isEqualTo(2);
+    assertThat(housekeepingPathRepository.findById(path1.getId())).hasValueSatisfying(path -> {
+      assertThat(path.getPathStatus()).isEqualTo(PathStatus.FAILED);
+      assertThat(path.getCleanupAttempts()).isEqualTo(1);
+      assertThat(path.getModifiedTimestamp()).isEqualTo(modifiedTimestamp);
+      assertThat(path.getNextAttemptTimestamp()).isEqualTo(modifiedTimestamp.plusHours(1));
+    });
+    assertThat(housekeepingPathRepository.findById(path2.getId())).hasValueSatisfying(path -> {
+      assertThat(path.getPathStatus()).isEqualTo(PathStatus.FAILED);
+      assertThat(path.getCleanupAttempts()).isEqualTo(2);
+    });
+    assertThat(housekeepingPathRepository.findById(otherPath.getId())).hasValueSatisfying(path -> {
+      assertThat(path.getPathStatus()).isEqualTo(PathStatus.SCHEDULED);
+      assertThat(path.getCleanupAttempts()).isEqualTo(0);
+    });
+  }
+
+  @Test
+  void leasePaths() {
+    EntityHousekeepingPath path = housekeepingPathRepository.save(createDueEntityHousekeepingPath());
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+    LocalDateTime leaseExpiry = now.plusHours(1);
+    List<Long> ids = List.of(path.getId());
+
+    assertThat(housekeepingPathRepository.leasePaths(ids, "owner", leaseExpiry, now, now)).isEqualTo(1);
+    assertThat(housekeepingPathRepository.leasePaths(ids, "other_owner", leaseExpiry, now, now)).isEqualTo(0);
+    assertThat(housekeepingPathRepository.findIdsLeasedBy(ids, "owner")).containsExactly(path.getId());
+    assertThat(housekeepingPathRepository.findIdsLeasedBy(ids, "other_owner")).isEmpty();
+
+    // the lease expires
+    LocalDateTime later = leaseExpiry.plusMinutes(1);
+    assertThat(housekeepingPathRepository.leasePaths(ids, "other_owner", later.plusHours(1), later, later))
+        .isEqualTo(1);
+    assertThat(housekeepingPathRepository.findIdsLeasedBy(ids, "other_owner")).containsExactly(path.getId());
+
+    // the first owner's status update loses to the owner which took the lease over
+    assertThat(housekeepingPathRepository.updatePathStatusAndIncrementCleanupAttempts(ids, "owner", PathStatus.FAILED,
+        later, null)).isEqualTo(0);
+    assertThat(housekeepingPathRepository.updatePathStatusAndIncrementCleanupAttempts(ids, "other_owner",
+        PathStatus.DELETED, later, null)).isEqualTo(1);
+    assertThat(housekeepingPathRepository.findIdsLeasedBy(ids, "other_owner")).isEmpty();
+    assertThat(housekeepingPathRepository.leasePaths(ids, "owner", later.plusHours(1), later, later)).isEqualTo(0);
+  }
+
+  @Test
+  void leasePathsOnlyWhileStillDue() {
+    EntityHousekeepingPath path = housekeepingPathRepository.save(createDueEntityHousekeepingPath());
+    EntityHousekeepingPath otherPath = createDueEntityHousekeepingPath();
+    otherPath.setPath("other_path");
+    otherPath = housekeepingPathRepository.save(otherPath);
+    // both instances fetch the same page
+    LocalDateTime instant = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.MICROS).plusSeconds(1);
+    List<Long> ids = List.of(path.getId());
+    List<Long> otherIds = List.of(otherPath.getId());
+
+    // the first instance fails to clean the paths up and releases them, one with a backoff and one without
+    LocalDateTime modifiedTimestamp = instant.plusMinutes(1);
+    assertThat(housekeepingPathRepository.leasePaths(List.of(path.getId(), otherPath.getId()), "owner",
+        instant.plusHours(1), instant, instant)).isEqualTo(2);
+    housekeepingPathRepository.updatePathStatusAndIncrementCleanupAttempts(ids, "owner", PathStatus.FAILED,
+        modifiedTimestamp, modifiedTimestamp.plusMinutes(5));
+    housekeepingPathRepository.updatePathStatusAndIncrementCleanupAttempts(otherIds, "owner", PathStatus.FAILED,
+        modifiedTimestamp, null);
+
+    // the second instance, still working through the page it fetched earlier, does not try them again
+    LocalDateTime now = modifiedTimestamp.plusSeconds(1);
+    assertThat(housekeepingPathRepository.leasePaths(ids, "other_owner", now.plusHours(1), instant, now))
+        .isEqualTo(0);
+    assertThat(housekeepingPathRepository.leasePaths(otherIds, "other_owner", now.plusHours(1), instant, now))
+        .isEqualTo(0);
+    // until a later run finds them due again
+    LocalDateTime laterInstant = modifiedTimestamp.plusMinutes(5);
+    assertThat(housekeepingPathRepository.leasePaths(ids, "other_owner", laterInstant.plusHours(1), laterInstant,
+        laterInstant)).isEqualTo(1);
+    assertThat(housekeepingPathRepository.leasePaths(otherIds, "other_owner", laterInstant.plusHours(1),
+        laterInstant, laterInstant)).isEqualTo(1);
+  }
+
+  @Test
+  void leasesAndCheckpointsKeepModifiedTimestamp() {
+    // as the column is declared by the MySQL schema
+    jdbcTemplate.execute("alter table path alter column modified_timestamp set on update current_timestamp");
+    try {
+      EntityHousekeepingPath path = housekeepingPathRepository.save(createDueEntityHousekeepingPath());
+      LocalDateTime modifiedTimestamp = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.SECONDS)
+          .minusHours(1);
+      jdbcTemplate.update("update path set modified_timestamp = ? where id = ?", modifiedTimestamp, path.getId());
+      LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+      List<Long> ids = List.of(path.getId());
+
+      assertThat(housekeepingPathRepository.leasePaths(ids, "owner", now.plusHours(1), now, now)).isEqualTo(1);
+      assertThat(housekeepingPathRepository.renewLeases(ids, "owner", now.plusHours(2))).isEqualTo(1);
+      assertThat(housekeepingPathRepository.updateCheckpoint(path.getId(), "key/part-01000", 2048L)).isEqualTo(1);
+
+      assertThat(housekeepingPathRepository.findById(path.getId())).hasValueSatisfying(leased -> {
+        assertThat(leased.getLeaseOwner()).isEqualTo("owner");
+        assertThat(leased.getCheckpointKey()).isEqualTo("key/part-01000");
+        assertThat(leased.getModifiedTimestamp()).isEqualTo(modifiedTimestamp);
+      });
+    } finally {
+      jdbcTemplate.execute("alter table path alter column modified_timestamp drop on update");
+    }
+  }
+
+  @Test
+  void renewLeases() {
+    EntityHousekeepingPath path = housekeepingPathRepository.save(createDueEntityHousekeepingPath());
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+    List<Long> ids = List.of(path.getId());
+    housekeepingPathRepository.leasePaths(ids, "owner", now.plusHours(1), now, now);
+
+    assertThat(housekeepingPathRepository.renewLeases(ids, "other_owner", now.plusHours(2))).isEqualTo(0);
+    assertThat(housekeepingPathRepository.renewLeases(ids, "owner", now.plusHours(2))).isEqualTo(1);
+    assertThat(housekeepingPathRepository.findById(path.getId()))
+        .hasValueSatisfying(leased -> assertThat(leased.getLeaseExpiry()).isEqualTo(now.plusHours(2)));
+    // the renewed lease keeps other owners out past the original expiry
+    LocalDateTime later = now.plusMinutes(90);
+    assertThat(housekeepingPathRepository.leasePaths(ids, "other_owner", now.plusHours(3), later, later))
+        .isEqualTo(0);
+  }
+
+  @Test
+  void updateCheckpointAndClearItOnceDeleted() {
+    EntityHousekeepingPath path = housekeepingPathRepository.save(createEntityHousekeepingPath());
+    EntityHousekeepingPath otherPath = createEntityHousekeepingPath();
+    otherPath.setPath("other_path");
+    housekeepingPathRepository.save(otherPath);
+
+    assertThat(housekeepingPathRepository.updateCheckpoint(path.getId(), "key/part-01000", 2048L)).isEqualTo(1);
+    assertThat(housekeepingPathRepository.updateCheckpoint(otherPath.getId(), "key/part-00500", 1024L)).isEqualTo(1);
+    assertThat(housekeepingPathRepository.findById(path.getId())).hasValueSatisfying(updatedPath -> {
+      assertThat(updatedPath.getCheckpointKey()).isEqualTo("key/part-01000");
+      assertThat(updatedPath.getCheckpointBytes()).isEqualTo(2048L);
+    });
+
+    LocalDateTime modifiedTimestamp = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.SECONDS);
+    assertThat(housekeepingPathRepository.updatePathStatusToDeletedAndIncrementCleanupAttempts(List.of(path.getId()),
+        null, modifiedTimestamp)).isEqualTo(1);
+    assertThat(housekeepingPathRepository.findById(path.getId())).hasValueSatisfying(updatedPath -> {
+      assertThat(updatedPath.getPathStatus()).isEqualTo(PathStatus.DELETED);
+      assertThat(updatedPath.getCleanupAttempts()).isEqualTo(1);
+      assertThat(updatedPath.getModifiedTimestamp()).isEqualTo(modifiedTimestamp);
+      assertThat(updatedPath.getCheckpointKey()).isNull();
+      assertThat(updatedPath.getCheckpointBytes()).isNull();
+    });
+    // failed paths keep their checkpoint so that they are resumed
+    housekeepingPathRepository.updatePathStatusAndIncrementCleanupAttempts(List.of(otherPath.getId()), null,
+        PathStatus.FAILED, modifiedTimestamp, modifiedTimestamp);
+    assertThat(housekeepingPathRepository.findById(otherPath.getId()))
+        .hasValueSatisfying(updatedPath -> assertThat(updatedPath.getCheckpointKey()).isEqualTo("key/part-00500"));
+  }
+
+  @Test
+  void findRecordsForCleanupAfterNextAttemptTimestamp() {
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.SECONDS);
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    path.setCleanupTimestamp(now);
+    path.setPathStatus(PathStatus.FAILED);
+    path.setNextAttemptTimestamp(now.plusHours(1));
+    housekeepingPathRepository.save(path);
+
+    LocalDateTime instant = now.plusMinutes(1);
+    assertThat(housekeepingPathRepository.findRecordsForCleanupByModifiedTimestamp(instant, PageRequest.of(0, 1))
+        .getContent()).isEmpty();
+    instant = now.plusHours(1);
+    assertThat(housekeepingPathRepository.findRecordsForCleanupByModifiedTimestamp(instant, PageRequest.of(0, 1))
+        .getContent()).hasSize(1);
+  }
+
+  @Test
+  void findNextCleanupTimestamp() {
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.SECONDS);
+    EntityHousekeepingPath duePath = createEntityHousekeepingPath();
+    duePath.setCleanupTimestamp(now.minusHours(1));
+    housekeepingPathRepository.save(duePath);
+    EntityHousekeepingPath scheduledPath = createEntityHousekeepingPath();
+    scheduledPath.setPath("scheduled_path");
+    scheduledPath.setCleanupTimestamp(now.plusHours(2));
+    housekeepingPathRepository.save(scheduledPath);
+    EntityHousekeepingPath failedPath = createEntityHousekeepingPath();
+    failedPath.setPath("failed_path");
+    failedPath.setCleanupTimestamp(now.minusHours(1));
+    failedPath.setPathStatus(PathStatus.FAILED);
+    failedPath.setNextAttemptTimestamp(now.plusHours(1));
+    housekeepingPathRepository.save(failedPath);
+    jdbcTemplate.update("update path set modified_timestamp = ?", now.minusHours(1));
+
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(now)).hasValue(now.plusHours(1));
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(now.plusHours(1))).hasValue(now.plusHours(2));
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(now.plusHours(2))).isEmpty();
+  }
+
+  @Test
+  void findNextCleanupTimestampOfPathsModifiedAfterInstant() {
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.SECONDS);
+    EntityHousekeepingPath rescheduledPath = createEntityHousekeepingPath();
+    rescheduledPath.setCleanupTimestamp(now.minusHours(1));
+    housekeepingPathRepository.save(rescheduledPath);
+    EntityHousekeepingPath failedPath = createEntityHousekeepingPath();
+    failedPath.setPath("failed_path");
+    failedPath.setCleanupTimestamp(now.minusHours(1));
+    failedPath.setPathStatus(PathStatus.FAILED);
+    failedPath.setNextAttemptTimestamp(now.plusHours(1));
+    housekeepingPathRepository.save(failedPath);
+    jdbcTemplate.update("update path set modified_timestamp = ?", now.plusMinutes(1));
+
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(now)).hasValue(now.plusMinutes(1));
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(now.plusMinutes(1))).hasValue(now.plusHours(1));
+  }
+
+  @Test
+  void abandonedPathsAreNotCleanedUp() {
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    path.setCleanupTimestamp(now);
+    path.setPathStatus(PathStatus.ABANDONED);
+    housekeepingPathRepository.save(path);
+
+    assertThat(housekeepingPathRepository.findRecordsForCleanupByModifiedTimestamp(now.plusMinutes(1),
+        PageRequest.of(0, 1)).getContent()).isEmpty();
+  }
+
+  @Test
+  void findAndDeleteDeletedPaths() {
+    EntityHousekeepingPath deletedPath = createEntityHousekeepingPath();
+    deletedPath.setPathStatus(PathStatus.DELETED);
+    housekeepingPathRepository.save(deletedPath);
+    EntityHousekeepingPath scheduledPath = createEntityHousekeepingPath();
+    scheduledPath.setPath("scheduled_path");
+    housekeepingPathRepository.save(scheduledPath);
+    LocalDateTime instant = LocalDateTime.now(ZoneId.of("UTC")).plusMinutes(1);
+
+    assertThat(housekeepingPathRepository.findDeletedIdsModifiedBefore(instant.minusHours(1), PageRequest.of(0, 10)))
+        .isEmpty();
+    List<Long> ids = housekeepingPathRepository.findDeletedIdsModifiedBefore(instant, PageRequest.of(0, 10));
+    assertThat(ids).containsExactly(deletedPath.getId());
+
+    assertThat(housekeepingPathRepository.deleteDeletedPaths(List.of(deletedPath.getId(), scheduledPath.getId())))
+        .isEqualTo(1);
+    assertThat(housekeepingPathRepository.findAll()).extracting("path").containsExactly("scheduled_path");
+  }
+
+  @Test
+  void findRecordsForCleanupByReclaimPriority() {
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+    // 1 GB in ten thousand objects, unknown size, 1 GB in one object
+    List.of("path1", "path2", "path3").forEach(path -> {
+      EntityHousekeepingPath housekeepingPath = createEntityHousekeepingPath();
+      housekeepingPath.setCleanupTimestamp(now);
+      housekeepingPath.setPath(path);
+      if (!path.equals("path2")) {
+        housekeepingPath.setEstimatedSize(1_000_000_000L, path.equals("path1") ? 10_000L : 1L);
+      }
+      housekeepingPathRepository.save(housekeepingPath);
+    });
+    LocalDateTime instant = LocalDateTime.now(ZoneId.of("UTC"));
+
+    Slice<EntityHousekeepingPath> firstPage = housekeepingPathRepository
+        .findRecordsForCleanupByReclaimPriority(instant, PageRequest.of(0, 2));
+    assertThat(firstPage.getContent()).extracting("path").containsExactly("path3", "path1");
+
+    EntityHousekeepingPath last = firstPage.getContent().get(1);
+    Slice<EntityHousekeepingPath> secondPage = housekeepingPathRepository
+        .findRecordsForCleanupByReclaimPriorityAfter(instant, last.getReclaimPriority(), last.getModifiedTimestamp(),
+            last.getId(), PageRequest.of(0, 2));
+    assertThat(secondPage.getContent()).extracting("path").containsExactly("path2");
+  }
+
+  @Test
+  void findByPath() {
+    EntityHousekeepingPath path = housekeepingPathRepository.save(createEntityHousekeepingPath());
+    // same as MySQL SHA2('path', 256), which the migration uses for existing paths
+    assertThat(path.getPathHash()).isEqualTo("a0af9f865bf637e6736817f4ce552e4cdf7b8c36ea75bc254c1d1f0af744b5bf");
+
+    assertThat(housekeepingPathRepository.findByPath("path"))
+        .hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(path.getId()));
+    assertThat(housekeepingPathRepository.findByPath("other_path")).isEmpty();
+  }
+
+  @Test
+  void upsertAll() {
+    List<EntityHousekeepingPath> paths = new ArrayList<>();
+    for (int i = 0; i < BulkHousekeepingPathRepositoryImpl.ROWS_PER_INSERT + 1; i++) {
+      EntityHousekeepingPath path = createEntityHousekeepingPath();
+      path.setPath("path" + i);
+      paths.add(path);
+    }
+    paths.get(0).setEstimatedSize(3000L, 1L);
+
+    housekeepingPathRepository.upsertAll(paths);
+
+    assertThat(housekeepingPathRepository.count()).isEqualTo(paths.size());
+    assertThat(housekeepingPathRepository.findByPath("path0")).hasValueSatisfying(savedPath -> {
+      EntityHousekeepingPath path = paths.get(0);
+      assertThat(savedPath.getId()).isNotNull();
+      assertThat(savedPath.getDatabaseName()).isEqualTo("database");
+      assertThat(savedPath.getTableName()).isEqualTo("table");
+      assertThat(savedPath.getPathStatus()).isEqualTo(PathStatus.SCHEDULED);
+      assertThat(savedPath.getCleanupDelay()).isEqualTo(Duration.parse("P3D"));
+      assertThat(savedPath.getCreationTimestamp()).isEqualTo(path.getCreationTimestamp());
+      assertThat(savedPath.getModifiedTimestamp()).isNotNull();
+      assertThat(savedPath.getCleanupTimestamp()).isEqualTo(path.getCleanupTimestamp());
+      assertThat(savedPath.getLifecycleType()).isEqualTo(LifecycleEventType.UNREFERENCED.toString());
+      assertThat(savedPath.getEstimatedBytes()).isEqualTo(3000L);
+      assertThat(savedPath.getEstimatedObjects()).isEqualTo(1L);
+      assertThat(savedPath.getReclaimPriority()).isEqualTo(1000L);
+    });
+    assertThat(housekeepingPathRepository.findByPath("path1"))
+        .hasValueSatisfying(savedPath -> assertThat(savedPath.getEstimatedBytes()).isNull());
+  }
+
+  @Test
+  void upsertAllSchedulesExistingPathsAfresh() {
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    path.setPathStatus(PathStatus.FAILED);
+    path.setCleanupAttempts(2);
+    path.setNextAttemptTimestamp(path.getCleanupTimestamp().plusHours(1));
+    path.setCheckpointKey("key");
+    path.setCheckpointBytes(10L);
+    path.setLeaseOwner("owner");
+    path.setLeaseExpiry(path.getCleanupTimestamp().plusHours(1));
+    path = housekeepingPathRepository.save(path);
+
+    EntityHousekeepingPath rescheduledPath = createEntityHousekeepingPath();
+    rescheduledPath.setCreationTimestamp(path.getCreationTimestamp().plusMinutes(1));
+    rescheduledPath.setCleanupDelay(Duration.parse("P5D"));
+    rescheduledPath.setCleanupTimestamp(rescheduledPath.getCreationTimestamp().plusDays(5));
+    housekeepingPathRepository.upsertAll(List.of(rescheduledPath));
+
+    List<EntityHousekeepingPath> paths = housekeepingPathRepository.findAll();
+    assertThat(paths.size()).isEqualTo(1);
+    EntityHousekeepingPath savedPath = paths.get(0);
+    assertThat(savedPath.getId()).isEqualTo(path.getId());
+    assertThat(savedPath.getCreationTimestamp()).isEqualTo(path.getCreationTimestamp());
+    assertThat(savedPath.getPathStatus()).isEqualTo(PathStatus.SCHEDULED);
+    assertThat(savedPath.getCleanupDelay()).isEqualTo(Duration.parse("P5D"));
+    assertThat(savedPath.getCleanupTimestamp()).isEqualTo(rescheduledPath.getCleanupTimestamp());
+    assertThat(savedPath.getCleanupAttempts()).isEqualTo(0);
+    assertThat(savedPath.getNextAttemptTimestamp()).isNull();
+    assertThat(savedPath.getCheckpointKey()).isNull();
+    assertThat(savedPath.getCheckpointBytes()).isNull();
+    assertThat(savedPath.getLeaseOwner()).isNull();
+    assertThat(savedPath.getLeaseExpiry()).isNull();
+  }
+
+  @Test
+  void upsertAllRevivesDeletedPaths() {
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    path.setPathStatus(PathStatus.DELETED);
+    path.setCleanupAttempts(1);
+    path = housekeepingPathRepository.save(path);
+
+    housekeepingPathRepository.upsertAll(List.of(createEntityHousekeepingPath()));
+
+    assertThat(housekeepingPathRepository.findById(path.getId())).hasValueSatisfying(savedPath -> {
+      assertThat(savedPath.getPathStatus()).isEqualTo(PathStatus.SCHEDULED);
+      assertThat(savedPath.getCleanupAttempts()).isEqualTo(0);
+    });
+  }
+
+  @Test
+  void upsertAllLeavesAbandonedPaths() {
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    path.setPathStatus(PathStatus.ABANDONED);
+    path.setCleanupAttempts(10);
+    path.setCheckpointKey("key");
+    path = housekeepingPathRepository.save(path);
+    LocalDateTime modifiedTimestamp = housekeepingPathRepository.findById(path.getId()).get().getModifiedTimestamp();
+
+    EntityHousekeepingPath rescheduledPath = createEntityHousekeepingPath();
+    rescheduledPath.setCleanupDelay(Duration.parse("P5D"));
+    housekeepingPathRepository.upsertAll(List.of(rescheduledPath));
+
+    assertThat(housekeepingPathRepository.findById(path.getId())).hasValueSatisfying(savedPath -> {
+      assertThat(savedPath.getPathStatus()).isEqualTo(PathStatus.ABANDONED);
+      assertThat(savedPath.getCleanupAttempts()).isEqualTo(10);
+      assertThat(savedPath.getCleanupDelay()).isEqualTo(Duration.parse("P3D"));
+      assertThat(savedPath.getCheckpointKey()).isEqualTo("key");
+      assertThat(savedPath.getModifiedTimestamp()).isEqualTo(modifiedTimestamp);
+    });
+  }
+
+  @Test
+  void findRecordsForCleanupByModifiedTimestampAfter() {
+    LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+    List<String> paths = List.of("path1", "path2", "path3");
+    paths.forEach(path -> {
+      EntityHousekeepingPath housekeepingPath = createEntityHousekeepingPath();
+      housekeepingPath.setCleanupTimestamp(now);
+      housekeepingPath.setPath(path);
+      housekeepingPathRepository.save(housekeepingPath);
+    });
+    LocalDateTime instant = LocalDateTime.now(ZoneId.of("UTC"));
+
+    Slice<EntityHousekeepingPath> firstPage = housekeepingPathRepository
+        .findRecordsForCleanupByModifiedTimestamp(instant, PageRequest.of(0, 2));
+    assertThat(firstPage.getContent()).extracting("path").containsExactly("path1", "path2");
+    assertThat(firstPage.hasNext()).isTrue();
+
+    EntityHousekeepingPath last = firstPage.getContent().get(1);
+    Slice<EntityHousekeepingPath> secondPage = housekeepingPathRepository
+        .findRecordsForCleanupByModifiedTimestampAfter(instant, last.getModifiedTimestamp(), last.getId(),
+            PageRequest.of(0, 2));
+    assertThat(secondPage.getContent()).extracting("path").containsExactly("path3");
+    assertThat(secondPage.hasNext()).isFalse();
+  }
+
+  private EntityHousekeepingPath createDueEntityHousekeepingPath() {
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    path.setCleanupTimestamp(path.getCreationTimestamp().minusDays(1));
+    return path;
+  }
+
   private EntityHousekeepingPath createEntityHousekeepingPath() {
-    LocalDateTime creationTimestamp = LocalDateTime.now(ZoneId.of("UTC"));
+    // the database keeps microseconds, the clock of recent JDKs nanoseconds
+    LocalDateTime creationTimestamp = LocalDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.MICROS);
     return new EntityHousekeepingPath.Builder()
         .path("path")
         .databaseName("database")
@@ -52,6 +52,7 @@ class MySqlTestUtils {
   private static final String ID = "id";
   private static final String MODIFIED_TIMESTAMP = "modified_timestamp";
   private static final String PATH = "path";
+  private static final String PATH_HASH = "path_hash";
   private static final String PATH_STATUS = "path_status";
   private static final String TABLE_NAME = "table_name";
 
@@ -64,8 +65,9 @@ class MySqlTestUtils {
   void insertPath(String path, String table) throws SQLException {
     String lifecycleType = UNREFERENCED.toString().toLowerCase();
 
-    String fields = String.join(", ", PATH, PATH_STATUS, CLEANUP_DELAY, CLEANUP_TIMESTAMP, TABLE_NAME, LIFECYCLE_TYPE);
-    String values = Stream.of(path, PathStatus.SCHEDULED.toString(), "PT1S", Timestamp.valueOf(LocalDateTime.now(UTC)
+    String fields = String.join(", ", PATH, PATH_HASH, PATH_STATUS, CLEANUP_DELAY, CLEANUP_TIMESTAMP, TABLE_NAME,
+        LIFECYCLE_TYPE);
+    String values = Stream.of(path, EntityHousekeepingPath.hashPath(path), PathStatus.SCHEDULED.toString(), "PT1S", Timestamp.valueOf(LocalDateTime.now(UTC)
         .minus(1L, ChronoUnit.DAYS))
         .toString(), table, lifecycleType)
         .map(s -> "\"" + s + "\"")
@@ -16,53 +16,93 @@
 package com.expediagroup.beekeeper.scheduler.apiary.app;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.scheduler.apiary.service.PathSchedulerApiary;
 
+/**
+ * Runs a number of consumers, each reading and scheduling events in a loop, until the runner is destroyed. Shutting
+ * down stops every consumer from reading again and waits for the events they are scheduling to be finished.
+ */
 @Component
 public class PathSchedulerApiaryRunner implements ApplicationRunner {
 
   private static final Logger log = LoggerFactory.getLogger(PathSchedulerApiaryRunner.class);
   private static final long RUNNER_DESTROY_TIMEOUT_SECONDS = 11L;
 
-  private final ReentrantLock lock;
   private final PathSchedulerApiary pathSchedulerApiary;
+  private final int consumers;
 
   private final AtomicBoolean running = new AtomicBoolean(false);
+  private volatile ExecutorService consumerPool;
+  private volatile CountDownLatch consumersStopped;
 
-  @Autowired
   public PathSchedulerApiaryRunner(PathSchedulerApiary pathSchedulerApiary) {
+    this(pathSchedulerApiary, 1);
+  }
+
+  /**
+   * @param consumers Number of threads reading and scheduling events concurrently.
+   */
+  @Autowired
+  public PathSchedulerApiaryRunner(
+      PathSchedulerApiary pathSchedulerApiary,
+      @Value("${properties.apiary.consumers}") int consumers
+  ) {
     this.pathSchedulerApiary = pathSchedulerApiary;
-    lock = new ReentrantLock();
+    this.consumers = Math.max(1, consumers);
   }
 
   @Override
   public void run(ApplicationArguments args) {
-    lock.lock();
     running.set(true);
-    log.info("Starting application runner");
-    while (running.get()) {
-      try {
-        pathSchedulerApiary.scheduleBeekeeperEvent();
-      } catch (Exception e) {
-        log.error("Error while scheduling path", e);
-      }
+    consumersStopped = new CountDownLatch(consumers);
+    consumerPool = Executors.newFixedThreadPool(consumers, new ThreadFactoryBuilder()
+        .setNameFormat("path-scheduler-consumer-%d")
+        .build());
+    log.info("Starting application runner with {} consumers", consumers);
+    for (int i = 0; i < consumers; i++) {
+      consumerPool.execute(this::consume);
+    }
+    consumerPool.shutdown();
+    try {
+      consumersStopped.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while waiting for consumers to stop", e);
     }
     log.info("Runner has stopped");
-    lock.unlock();
+  }
+
+  private void consume() {
+    try {
+      while (running.get()) {
+        try {
+          pathSchedulerApiary.scheduleBeekeeperEvent();
+        } catch (Exception e) {
+          log.error("Error while scheduling path", e);
+        }
+      }
+    } finally {
+      consumersStopped.countDown();
+    }
   }
 
   @PreDestroy
@@ -70,7 +110,9 @@ public class PathSchedulerApiaryRunner implements ApplicationRunner {
     try {
       log.info("Shutting down runner");
       running.set(false);
-      if (!lock.tryLock(RUNNER_DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      CountDownLatch consumersStopped = this.consumersStopped;
+      if (consumersStopped != null && !consumersStopped.await(RUNNER_DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        consumerPool.shutdownNow();
         throw new BeekeeperException("Runner taking too long to shut down");
       }
     } catch (InterruptedException e) {
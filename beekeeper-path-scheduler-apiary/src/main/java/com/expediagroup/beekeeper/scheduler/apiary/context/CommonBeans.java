@@ -18,23 +18,34 @@ package com.expediagroup.beekeeper.scheduler.apiary.context;
 import java.util.EnumMap;
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.retry.annotation.EnableRetry;
 
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.expedia.apiary.extensions.receiver.common.messaging.JsonMetaStoreEventDeserializer;
 import com.expedia.apiary.extensions.receiver.common.messaging.MessageReader;
+import com.expedia.apiary.extensions.receiver.sqs.messaging.DefaultSqsMessageDeserializer;
 import com.expedia.apiary.extensions.receiver.sqs.messaging.SqsMessageReader;
 
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.scheduler.apiary.handler.MessageEventHandler;
 import com.expediagroup.beekeeper.scheduler.apiary.messaging.BeekeeperEventReader;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.MessageBatchReaderAdapter;
 import com.expediagroup.beekeeper.scheduler.apiary.messaging.MessageReaderAdapter;
 import com.expediagroup.beekeeper.scheduler.apiary.messaging.RetryingMessageReader;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.SqsMessageBatchReader;
 import com.expediagroup.beekeeper.scheduler.service.SchedulerService;
 
 @Configuration
@@ -51,21 +62,49 @@ public class CommonBeans {
     return schedulerMap;
   }
 
-  @Bean(name = "sqsMessageReader")
-  public MessageReader messageReader(@Value("${properties.apiary.queue-url}") String queueUrl) {
-    return new SqsMessageReader.Builder(queueUrl).build();
+  /**
+   * Shared by the message readers, which leave shutting it down to the context.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public AmazonSQS amazonSQS() {
+    return AmazonSQSClientBuilder.standard().build();
+  }
+
+  @Bean(name = "sqsMessageReader", destroyMethod = "")
+  public MessageReader messageReader(@Value("${properties.apiary.queue-url}") String queueUrl, AmazonSQS amazonSQS) {
+    return new SqsMessageReader.Builder(queueUrl)
+        .withConsumer(amazonSQS)
+        .build();
   }
 
-  @Bean(name = "retryingMessageReader")
+  @Bean(name = "retryingMessageReader", destroyMethod = "")
   public MessageReader retryingMessageReader(@Qualifier("sqsMessageReader") MessageReader messageReader) {
     return new RetryingMessageReader(messageReader);
   }
 
+  @Bean
+  @Lazy
+  public SqsMessageBatchReader messageBatchReader(
+      @Value("${properties.apiary.queue-url}") String queueUrl,
+      @Value("${properties.apiary.batch-size}") int batchSize,
+      AmazonSQS amazonSQS
+  ) {
+    ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    DefaultSqsMessageDeserializer messageDeserializer = new DefaultSqsMessageDeserializer(
+        new JsonMetaStoreEventDeserializer(objectMapper), objectMapper);
+    return new SqsMessageBatchReader(amazonSQS, queueUrl, messageDeserializer, batchSize);
+  }
+
   @Bean
   public BeekeeperEventReader pathEventReader(
       @Qualifier("retryingMessageReader") MessageReader messageReader,
-      List<MessageEventHandler> handlers
+      ObjectProvider<SqsMessageBatchReader> messageBatchReader,
+      List<MessageEventHandler> handlers,
+      @Value("${properties.apiary.batch-enabled}") boolean batchEnabled
   ) {
+    if (batchEnabled) {
+      return new MessageBatchReaderAdapter(messageBatchReader.getObject(), handlers);
+    }
     return new MessageReaderAdapter(messageReader, handlers);
   }
 }
@@ -36,4 +36,9 @@ public class EventTypeListenerEventFilter implements ListenerEventFilter {
         DropPartitionEvent.class.equals(eventClass) ||
         DropTableEvent.class.equals(eventClass));
   }
+
+  @Override
+  public boolean isTableScoped() {
+    return true;
+  }
 }
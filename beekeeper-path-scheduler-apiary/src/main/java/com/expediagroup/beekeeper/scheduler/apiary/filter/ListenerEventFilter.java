@@ -22,4 +22,12 @@ import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 public interface ListenerEventFilter {
 
   boolean filter(ListenerEvent listenerEvent, LifecycleEventType lifecycleEventType);
+
+  /**
+   * @return Whether the filter only looks at the type, database, table and table parameters of an event, so that its
+   * decision holds for every event of that type on the table for as long as its parameters stay the same.
+   */
+  default boolean isTableScoped() {
+    return false;
+  }
 }
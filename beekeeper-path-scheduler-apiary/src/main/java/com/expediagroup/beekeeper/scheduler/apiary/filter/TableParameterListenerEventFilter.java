@@ -36,4 +36,9 @@ public class TableParameterListenerEventFilter implements ListenerEventFilter {
 
     return !Boolean.valueOf(tableParameters.get(lifecycleEventType.getTableParameterName()));
   }
+
+  @Override
+  public boolean isTableScoped() {
+    return true;
+  }
 }
@@ -39,6 +39,11 @@ public class WhitelistedListenerEventFilter implements ListenerEventFilter {
     return !isDefaultBehaviour(listenerEvent);
   }
 
+  @Override
+  public boolean isTableScoped() {
+    return true;
+  }
+
   private boolean isWhitelisted(ListenerEvent listenerEvent, String whitelist) {
     return Arrays.stream(whitelist.split(","))
         .map(String::trim)
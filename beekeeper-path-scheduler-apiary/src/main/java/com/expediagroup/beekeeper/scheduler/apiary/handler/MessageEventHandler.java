@@ -20,11 +20,13 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.expedia.apiary.extensions.receiver.common.event.EventType;
 import com.expedia.apiary.extensions.receiver.common.event.ListenerEvent;
 import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
 
@@ -33,42 +35,69 @@ import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.core.model.PathStatus;
 import com.expediagroup.beekeeper.scheduler.apiary.filter.ListenerEventFilter;
+import com.expediagroup.beekeeper.scheduler.apiary.handler.TableFilterCache.TableDecision;
 import com.expediagroup.beekeeper.scheduler.apiary.model.EventModel;
 
 public abstract class MessageEventHandler {
 
   private static final Logger log = LoggerFactory.getLogger(MessageEventHandler.class);
   private static final String CLIENT_ID = "apiary-metastore-event";
+  private static final String TOTAL_SIZE_PARAMETER = "totalSize";
+  private static final String NUM_FILES_PARAMETER = "numFiles";
   private final LifecycleEventType lifecycleEventType;
   private final String cleanupDelay;
   private final String hivePropertyKey;
+  private final TableFilterCache tableFilterCache;
 
   MessageEventHandler(
       String cleanupDelay,
       String hivePropertyKey,
       LifecycleEventType lifecycleEventType
+  ) {
+    this(cleanupDelay, hivePropertyKey, lifecycleEventType, TableFilterCache.disabled());
+  }
+
+  MessageEventHandler(
+      String cleanupDelay,
+      String hivePropertyKey,
+      LifecycleEventType lifecycleEventType,
+      TableFilterCache tableFilterCache
   ) {
     this.cleanupDelay = cleanupDelay;
     this.hivePropertyKey = hivePropertyKey;
     this.lifecycleEventType = lifecycleEventType;
+    this.tableFilterCache = tableFilterCache;
   }
 
   public List<HousekeepingPath> handleMessage(MessageEvent event) {
     ListenerEvent listenerEvent = event.getEvent();
 
-    if (shouldFilterMessage(listenerEvent)) {
+    TableDecision tableDecision = tableFilterCache.get(listenerEvent, this::decideForTable);
+    if (tableDecision.isFiltered() || shouldFilterMessage(listenerEvent)) {
       return Collections.emptyList();
     }
 
-    return generateHouseKeepingPaths(listenerEvent);
+    return generateHouseKeepingPaths(listenerEvent, tableDecision.getCleanupDelay());
   }
 
   abstract List<EventModel> generateEventModels(ListenerEvent listenerEvent);
 
   protected abstract List<ListenerEventFilter> getFilters();
 
+  /**
+   * Runs the filters which only depend on the table and the type of the event, and parses the table's cleanup delay if
+   * they let the event through. The decision is remembered by the {@link TableFilterCache}.
+   */
+  private TableDecision decideForTable(ListenerEvent listenerEvent) {
+    boolean filtered = getFilters().stream()
+        .filter(ListenerEventFilter::isTableScoped)
+        .anyMatch(filter -> filter.filter(listenerEvent, lifecycleEventType));
+    return new TableDecision(filtered, filtered ? null : extractCleanupDelay(listenerEvent));
+  }
+
   private boolean shouldFilterMessage(ListenerEvent listenerEvent) {
     return getFilters().stream()
+        .filter(filter -> !filter.isTableScoped())
         .anyMatch(filter -> filter.filter(listenerEvent, lifecycleEventType));
   }
 
@@ -76,11 +105,12 @@ public abstract class MessageEventHandler {
    * Generates housekeeping paths for a given event.
    *
    * @param listenerEvent Listener event from the current message
+   * @param cleanupDelay Cleanup delay of the event's table
    * @return list of housekeeping paths. This can be an empty list if there are no valid paths.
    */
-  private List<HousekeepingPath> generateHouseKeepingPaths(ListenerEvent listenerEvent) {
+  private List<HousekeepingPath> generateHouseKeepingPaths(ListenerEvent listenerEvent, Duration cleanupDelay) {
     return generateEventModels(listenerEvent).stream()
-        .map(event -> generatePath(event, listenerEvent))
+        .map(event -> generatePath(event, listenerEvent, cleanupDelay))
         .collect(Collectors.toList());
   }
 
@@ -95,22 +125,55 @@ public abstract class MessageEventHandler {
    *
    * @param event The eventmodel holding data about this path
    * @param listenerEvent The current event we're generating this path for
+   * @param cleanupDelay Cleanup delay of the event's table
    * @return EntityHouseKeepingPath Path object for the given parameters
    */
-  private final EntityHousekeepingPath generatePath(EventModel event, ListenerEvent listenerEvent) {
+  private final EntityHousekeepingPath generatePath(EventModel event, ListenerEvent listenerEvent,
+      Duration cleanupDelay) {
     EntityHousekeepingPath.Builder builder = new EntityHousekeepingPath.Builder()
         .pathStatus(PathStatus.SCHEDULED)
         .creationTimestamp(LocalDateTime.now())
-        .cleanupDelay(extractCleanupDelay(listenerEvent))
+        .cleanupDelay(cleanupDelay)
         .lifecycleType(event.getLifecycleEvent().name())
         .clientId(CLIENT_ID)
         .tableName(listenerEvent.getTableName())
         .databaseName(listenerEvent.getDbName())
         .path(event.getCleanupPath());
 
+    if (isTableLocation(listenerEvent)) {
+      Map<String, String> tableParameters = listenerEvent.getTableParameters();
+      builder.estimatedSize(parseStatistic(tableParameters, TOTAL_SIZE_PARAMETER),
+          parseStatistic(tableParameters, NUM_FILES_PARAMETER));
+    }
     return builder.build();
   }
 
+  /**
+   * The table's statistics only describe the path when it is the table's location rather than a partition's.
+   */
+  private boolean isTableLocation(ListenerEvent listenerEvent) {
+    EventType eventType = listenerEvent.getEventType();
+    return eventType == EventType.DROP_TABLE || eventType == EventType.ALTER_TABLE;
+  }
+
+  /**
+   * Reads one of the statistics Hive keeps in the table parameters, which give the size of the path for free.
+   *
+   * @return The statistic, or null if it is missing or invalid.
+   */
+  private Long parseStatistic(Map<String, String> tableParameters, String parameter) {
+    String value = tableParameters == null ? null : tableParameters.get(parameter);
+    if (value == null) {
+      return null;
+    }
+    try {
+      long statistic = Long.parseLong(value.trim());
+      return statistic < 0 ? null : statistic;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
   /**
    * Extracts the cleanup delay from the given event.
    * If the cleanupDelay on the event cannot be parsed, use the predefined default value.
@@ -121,7 +184,10 @@ public abstract class MessageEventHandler {
   private final Duration extractCleanupDelay(ListenerEvent listenerEvent) {
     String propertyKey = getHivePropertyKey();
     String defaultValue = getCleanupDelay();
-    String tableCleanupDelay = listenerEvent.getTableParameters().getOrDefault(propertyKey, defaultValue);
+    Map<String, String> tableParameters = listenerEvent.getTableParameters();
+    String tableCleanupDelay = tableParameters == null
+        ? defaultValue
+        : tableParameters.getOrDefault(propertyKey, defaultValue);
 
     try {
       return Duration.parse(tableCleanupDelay);
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.scheduler.apiary.handler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import com.expedia.apiary.extensions.receiver.common.event.EventType;
+import com.expedia.apiary.extensions.receiver.common.event.ListenerEvent;
+
+/**
+ * Remembers what a handler decided about each type of event on each table: whether the table-scoped filters filter it
+ * out and, if not, the cleanup delay the table asks for. Entries are keyed by the table's parameters as well, so a
+ * table whose parameters change gets a new entry rather than a stale one. Hits and misses are reported as the cache
+ * metrics of {@value #CACHE_NAME}.
+ */
+class TableFilterCache {
+
+  static final String CACHE_NAME = "apiary-table-filter-cache";
+  private static final TableFilterCache DISABLED = new TableFilterCache(0L, null);
+
+  private final Cache<TableKey, TableDecision> decisions;
+
+  /**
+   * @param maximumSize Maximum number of decisions kept, or 0 to keep none.
+   * @param meterRegistry Registry of the cache metrics, or null for none.
+   */
+  TableFilterCache(long maximumSize, MeterRegistry meterRegistry) {
+    decisions = CacheBuilder.newBuilder().maximumSize(Math.max(0L, maximumSize)).recordStats().build();
+    if (meterRegistry != null) {
+      GuavaCacheMetrics.monitor(meterRegistry, decisions, CACHE_NAME);
+    }
+  }
+
+  static TableFilterCache disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Returns the decision remembered for the table and type of {@code listenerEvent}, or makes it with {@code decide}.
+   * Two threads missing the same entry at once both make the decision, which is harmless as they make the same one.
+   */
+  TableDecision get(ListenerEvent listenerEvent, Function<ListenerEvent, TableDecision> decide) {
+    TableKey key = new TableKey(listenerEvent);
+    TableDecision decision = decisions.getIfPresent(key);
+    if (decision == null) {
+      decision = decide.apply(listenerEvent);
+      decisions.put(key, decision);
+    }
+    return decision;
+  }
+
+  static class TableDecision {
+
+    private final boolean filtered;
+    private final Duration cleanupDelay;
+
+    TableDecision(boolean filtered, Duration cleanupDelay) {
+      this.filtered = filtered;
+      this.cleanupDelay = cleanupDelay;
+    }
+
+    boolean isFiltered() {
+      return filtered;
+    }
+
+    /**
+     * @return The cleanup delay of the table's paths, or null if its events are filtered out.
+     */
+    Duration getCleanupDelay() {
+      return cleanupDelay;
+    }
+  }
+
+  private static class TableKey {
+
+    private final String dbName;
+    private final String tableName;
+    private final EventType eventType;
+    private final Map<String, String> tableParameters;
+    // the parameters are hashed once, rather than on every lookup
+    private final int hashCode;
+
+    private TableKey(ListenerEvent listenerEvent) {
+      dbName = listenerEvent.getDbName();
+      tableName = listenerEvent.getTableName();
+      eventType = listenerEvent.getEventType();
+      tableParameters = listenerEvent.getTableParameters();
+      hashCode = Objects.hash(dbName, tableName, eventType, tableParameters);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TableKey other = (TableKey) o;
+      return hashCode == other.hashCode
+          && eventType == other.eventType
+          && Objects.equals(dbName, other.dbName)
+          && Objects.equals(tableName, other.tableName)
+          && Objects.equals(tableParameters, other.tableParameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
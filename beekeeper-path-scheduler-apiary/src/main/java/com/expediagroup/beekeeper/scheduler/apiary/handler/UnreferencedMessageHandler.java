@@ -24,6 +24,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import com.expedia.apiary.extensions.receiver.common.event.AlterPartitionEvent;
 import com.expedia.apiary.extensions.receiver.common.event.AlterTableEvent;
 import com.expedia.apiary.extensions.receiver.common.event.DropPartitionEvent;
@@ -49,15 +51,16 @@ public class UnreferencedMessageHandler extends MessageEventHandler {
   @Autowired
   public UnreferencedMessageHandler(
       @Value("${properties.apiary.cleanup-delay-property-key}") String hivePropertyKey,
-      @Value("${properties.beekeeper.default-cleanup-delay}") String cleanupDelay
+      @Value("${properties.beekeeper.default-cleanup-delay}") String cleanupDelay,
+      @Value("${properties.apiary.table-filter-cache-size}") long tableFilterCacheSize,
+      MeterRegistry meterRegistry
   ) {
-    super(cleanupDelay, hivePropertyKey, LIFECYCLE_EVENT_TYPE);
-    filters = List.of(
+    this(hivePropertyKey, cleanupDelay, List.of(
         new EventTypeListenerEventFilter(),
         new MetadataOnlyListenerEventFilter(),
         new TableParameterListenerEventFilter(),
         new WhitelistedListenerEventFilter()
-    );
+    ), tableFilterCacheSize, meterRegistry);
   }
 
   public UnreferencedMessageHandler(
@@ -69,6 +72,22 @@ public class UnreferencedMessageHandler extends MessageEventHandler {
     this.filters = filters;
   }
 
+  /**
+   * @param tableFilterCacheSize Maximum number of table filter decisions kept, or 0 to keep none.
+   * @param meterRegistry Registry of the cache metrics.
+   */
+  public UnreferencedMessageHandler(
+      String hivePropertyKey,
+      String cleanupDelay,
+      List<ListenerEventFilter> filters,
+      long tableFilterCacheSize,
+      MeterRegistry meterRegistry
+  ) {
+    super(cleanupDelay, hivePropertyKey, LIFECYCLE_EVENT_TYPE,
+        new TableFilterCache(tableFilterCacheSize, meterRegistry));
+    this.filters = filters;
+  }
+
   @Override
   protected List<ListenerEventFilter> getFilters() { return filters; }
 
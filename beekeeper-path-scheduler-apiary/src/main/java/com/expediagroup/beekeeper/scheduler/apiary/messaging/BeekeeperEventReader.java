@@ -16,6 +16,7 @@
 package com.expediagroup.beekeeper.scheduler.apiary.messaging;
 
 import java.io.Closeable;
+import java.util.List;
 import java.util.Optional;
 
 import com.expediagroup.beekeeper.scheduler.apiary.model.BeekeeperEvent;
@@ -25,4 +26,19 @@ public interface BeekeeperEventReader extends Closeable {
   Optional<BeekeeperEvent> read();
 
   void delete(BeekeeperEvent beekeeperEvent);
+
+  /**
+   * Reads the events of a batch of messages. Events may hold no paths, in which case their messages only need deleting.
+   * By default the batch is the single event returned by {@link #read()}.
+   */
+  default List<BeekeeperEvent> readBatch() {
+    return read().map(List::of).orElse(List.of());
+  }
+
+  /**
+   * Deletes the messages of the given events, by default one by one.
+   */
+  default void delete(List<BeekeeperEvent> beekeeperEvents) {
+    beekeeperEvents.forEach(this::delete);
+  }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.scheduler.apiary.messaging;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.scheduler.apiary.handler.MessageEventHandler;
+import com.expediagroup.beekeeper.scheduler.apiary.model.BeekeeperEvent;
+
+/**
+ * Reads the events of a batch of messages at a time and deletes their messages together, so that each SQS request
+ * covers up to {@value SqsMessageBatchReader#MAX_BATCH_SIZE} messages.
+ */
+public class MessageBatchReaderAdapter implements BeekeeperEventReader {
+
+  private static final Logger log = LoggerFactory.getLogger(MessageBatchReaderAdapter.class);
+
+  private final SqsMessageBatchReader delegate;
+  private final List<MessageEventHandler> handlers;
+  private final Deque<BeekeeperEvent> unreadEvents = new ArrayDeque<>();
+
+  public MessageBatchReaderAdapter(SqsMessageBatchReader delegate, List<MessageEventHandler> handlers) {
+    this.delegate = delegate;
+    this.handlers = handlers;
+  }
+
+  /**
+   * Hands out the events of a batch one at a time, only reading the next batch once they have all been read.
+   */
+  @Override
+  public synchronized Optional<BeekeeperEvent> read() {
+    if (unreadEvents.isEmpty()) {
+      unreadEvents.addAll(readBatch());
+    }
+    return Optional.ofNullable(unreadEvents.poll());
+  }
+
+  /**
+   * Messages whose events cannot be handled are left out of the batch, so they are never deleted and come back once
+   * their visibility timeout expires, while the rest of the batch goes ahead.
+   */
+  @Override
+  public List<BeekeeperEvent> readBatch() {
+    return delegate.read()
+        .stream()
+        .map(this::toBeekeeperEvent)
+        .flatMap(Optional::stream)
+        .collect(Collectors.toList());
+  }
+
+  private Optional<BeekeeperEvent> toBeekeeperEvent(MessageEvent message) {
+    try {
+      List<HousekeepingPath> housekeepingPaths = handlers.parallelStream()
+          .map(eventHandler -> eventHandler.handleMessage(message))
+          .flatMap(paths -> paths.stream())
+          .collect(Collectors.toList());
+      return Optional.of(new BeekeeperEvent(housekeepingPaths, message));
+    } catch (Exception e) {
+      log.error("Could not handle message, leaving it on the queue: ", e);
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void delete(BeekeeperEvent beekeeperEvent) {
+    delete(List.of(beekeeperEvent));
+  }
+
+  @Override
+  public void delete(List<BeekeeperEvent> beekeeperEvents) {
+    if (beekeeperEvents.isEmpty()) {
+      return;
+    }
+    List<MessageEvent> messageEvents = beekeeperEvents.stream()
+        .map(BeekeeperEvent::getMessageEvent)
+        .collect(Collectors.toList());
+    try {
+      List<MessageEvent> notDeleted = delegate.delete(messageEvents);
+      log.debug("{} messages deleted successfully", messageEvents.size() - notDeleted.size());
+    } catch (Exception e) {
+      log.error("Could not delete messages from queue: ", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+}
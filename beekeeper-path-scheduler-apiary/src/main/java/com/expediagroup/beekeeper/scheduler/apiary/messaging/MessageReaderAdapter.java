@@ -15,7 +15,6 @@
  */
 package com.expediagroup.beekeeper.scheduler.apiary.messaging;
 
-import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -43,9 +42,16 @@ public class MessageReaderAdapter implements BeekeeperEventReader {
     this.handlers = handlers;
   }
 
+  /**
+   * Can be called by several consumers at once: only reading from the delegate, which buffers the messages it receives,
+   * is done one consumer at a time.
+   */
   @Override
   public Optional<BeekeeperEvent> read() {
-    Optional<MessageEvent> messageEvent = delegate.read();
+    Optional<MessageEvent> messageEvent;
+    synchronized (delegate) {
+      messageEvent = delegate.read();
+    }
 
     if (messageEvent.isEmpty()) {
       return Optional.empty();
@@ -76,8 +82,10 @@ public class MessageReaderAdapter implements BeekeeperEventReader {
     }
   }
 
+  /**
+   * Does not close the delegate, whose SQS client is shared and shut down by whoever created it.
+   */
   @Override
-  public void close() throws IOException {
-    delegate.close();
+  public void close() {
   }
 }
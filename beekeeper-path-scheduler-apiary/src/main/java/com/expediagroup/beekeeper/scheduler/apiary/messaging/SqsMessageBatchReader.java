@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.scheduler.apiary.messaging;
+
+import static java.lang.String.format;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+
+import com.expedia.apiary.extensions.receiver.common.event.ListenerEvent;
+import com.expedia.apiary.extensions.receiver.common.messaging.MessageDeserializer;
+import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
+import com.expedia.apiary.extensions.receiver.sqs.messaging.SqsMessageProperty;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Receives messages from an SQS queue up to {@value #MAX_BATCH_SIZE} at a time, the most a single request can return,
+ * and deletes them with a single batch request. Messages which cannot be deserialized, and messages the batch delete
+ * reports as not deleted, are left on the queue, so only they come back once their visibility timeout expires.
+ */
+public class SqsMessageBatchReader implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(SqsMessageBatchReader.class);
+  public static final int MAX_BATCH_SIZE = 10;
+  private static final int WAIT_TIME_SECONDS = 10;
+  private static final long INITIAL_DELAY_MS = 1000;
+  private static final int BACKOFF_MULTIPLIER = 2;
+  private static final int MAX_ATTEMPTS = 4;
+
+  private final AmazonSQS amazonSQS;
+  private final String queueUrl;
+  private final MessageDeserializer messageDeserializer;
+  private final int batchSize;
+
+  /**
+   * @param batchSize Maximum number of messages received at a time, at most {@value #MAX_BATCH_SIZE}.
+   */
+  public SqsMessageBatchReader(
+      AmazonSQS amazonSQS,
+      String queueUrl,
+      MessageDeserializer messageDeserializer,
+      int batchSize) {
+    this.amazonSQS = amazonSQS;
+    this.queueUrl = queueUrl;
+    this.messageDeserializer = messageDeserializer;
+    this.batchSize = Math.min(Math.max(1, batchSize), MAX_BATCH_SIZE);
+  }
+
+  /**
+   * Waits up to {@value #WAIT_TIME_SECONDS} seconds for messages, returning as soon as any are available.
+   */
+  @Retryable(value = { AmazonClientException.class },
+      maxAttempts = MAX_ATTEMPTS,
+      backoff = @Backoff(delay = INITIAL_DELAY_MS, multiplier = BACKOFF_MULTIPLIER))
+  public List<MessageEvent> read() {
+    ReceiveMessageRequest request = new ReceiveMessageRequest(queueUrl)
+        .withMaxNumberOfMessages(batchSize)
+        .withWaitTimeSeconds(WAIT_TIME_SECONDS);
+    List<MessageEvent> messageEvents = new ArrayList<>();
+    for (Message message : amazonSQS.receiveMessage(request).getMessages()) {
+      try {
+        ListenerEvent listenerEvent = messageDeserializer.unmarshal(message.getBody());
+        messageEvents.add(new MessageEvent(listenerEvent,
+            Map.of(SqsMessageProperty.SQS_MESSAGE_RECEIPT_HANDLE, message.getReceiptHandle())));
+      } catch (RuntimeException e) {
+        log.error("Could not deserialize message {}, leaving it on the queue", message.getMessageId(), e);
+      }
+    }
+    return messageEvents;
+  }
+
+  /**
+   * @return The message events which could not be deleted.
+   */
+  @Retryable(value = { AmazonClientException.class },
+      maxAttempts = MAX_ATTEMPTS,
+      backoff = @Backoff(delay = INITIAL_DELAY_MS, multiplier = BACKOFF_MULTIPLIER))
+  public List<MessageEvent> delete(List<MessageEvent> messageEvents) {
+    List<MessageEvent> notDeleted = new ArrayList<>();
+    for (int start = 0; start < messageEvents.size(); start += MAX_BATCH_SIZE) {
+      List<MessageEvent> batch = messageEvents.subList(start, Math.min(start + MAX_BATCH_SIZE, messageEvents.size()));
+      List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>();
+      for (int i = 0; i < batch.size(); i++) {
+        String receiptHandle = batch.get(i).getMessageProperties().get(SqsMessageProperty.SQS_MESSAGE_RECEIPT_HANDLE);
+        entries.add(new DeleteMessageBatchRequestEntry(String.valueOf(i), receiptHandle));
+      }
+      DeleteMessageBatchResult result = amazonSQS.deleteMessageBatch(new DeleteMessageBatchRequest(queueUrl, entries));
+      for (BatchResultErrorEntry failed : result.getFailed()) {
+        log.error("Could not delete message from queue: {} {}", failed.getCode(), failed.getMessage());
+        notDeleted.add(batch.get(Integer.parseInt(failed.getId())));
+      }
+    }
+    return notDeleted;
+  }
+
+  /**
+   * Does not shut down the SQS client, which is shared and shut down by whoever created it.
+   */
+  @Override
+  public void close() {
+  }
+
+  @Recover
+  public List<MessageEvent> recover(AmazonClientException e) {
+    throw new BeekeeperException(format("Error calling queue %s after %s attempts.", queueUrl, MAX_ATTEMPTS), e);
+  }
+}
@@ -18,13 +18,15 @@ package com.expediagroup.beekeeper.scheduler.apiary.service;
 import static java.lang.String.format;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
@@ -38,37 +40,81 @@ public class PathSchedulerApiary {
 
   private final BeekeeperEventReader beekeeperEventReader;
   private final EnumMap<LifecycleEventType, SchedulerService> schedulerServiceMap;
+  private final TransactionTemplate transactionTemplate;
 
   @Autowired
   public PathSchedulerApiary(
       BeekeeperEventReader beekeeperEventReader,
-      EnumMap<LifecycleEventType, SchedulerService> schedulerServiceMap
+      EnumMap<LifecycleEventType, SchedulerService> schedulerServiceMap,
+      PlatformTransactionManager transactionManager
   ) {
     this.beekeeperEventReader = beekeeperEventReader;
     this.schedulerServiceMap = schedulerServiceMap;
+    transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
-  @Transactional
+  /**
+   * Schedules the paths of a batch of events, each event in its own transaction, then deletes the messages of the
+   * events whose paths were all scheduled together. The messages of the events which failed go back on the queue.
+   */
   public void scheduleBeekeeperEvent() {
-    Optional<BeekeeperEvent> pathToBeScheduled = beekeeperEventReader.read();
-    if (pathToBeScheduled.isEmpty()) { return; }
-    BeekeeperEvent beekeeperEvent = pathToBeScheduled.get();
-    List<HousekeepingPath> paths = beekeeperEvent.getHousekeepingPaths();
+    List<BeekeeperEvent> beekeeperEvents = beekeeperEventReader.readBatch();
+    List<BeekeeperEvent> scheduledEvents = new ArrayList<>(beekeeperEvents.size());
+    RuntimeException failure = null;
+    for (BeekeeperEvent beekeeperEvent : beekeeperEvents) {
+      try {
+        transactionTemplate.execute(status -> {
+          schedule(beekeeperEvent.getHousekeepingPaths());
+          return null;
+        });
+        scheduledEvents.add(beekeeperEvent);
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+
+    if (!scheduledEvents.isEmpty()) {
+      beekeeperEventReader.delete(scheduledEvents);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
 
+  /**
+   * Schedules the paths of an event with one call to the scheduler of each lifecycle type, so that the paths of an
+   * event affecting many partitions are inserted together rather than one at a time.
+   */
+  private void schedule(List<HousekeepingPath> paths) {
+    Map<LifecycleEventType, List<HousekeepingPath>> pathsByType = new EnumMap<>(LifecycleEventType.class);
     for (HousekeepingPath path : paths) {
       try {
         LifecycleEventType pathEventType = LifecycleEventType.valueOf(path.getLifecycleType());
-        SchedulerService scheduler = schedulerServiceMap.get(pathEventType);
-        scheduler.scheduleForHousekeeping(path);
+        pathsByType.computeIfAbsent(pathEventType, type -> new ArrayList<>()).add(path);
       } catch (Exception e) {
-        throw new BeekeeperException(format(
-            "Unable to schedule path '%s' for deletion, this message will go back on the queue",
-            path.getPath()), e
-        );
+        throw scheduleFailure(List.of(path), e);
       }
     }
+    pathsByType.forEach((pathEventType, typePaths) -> {
+      try {
+        SchedulerService scheduler = schedulerServiceMap.get(pathEventType);
+        scheduler.scheduleForHousekeeping(typePaths);
+      } catch (Exception e) {
+        throw scheduleFailure(typePaths, e);
+      }
+    });
+  }
 
-    beekeeperEventReader.delete(beekeeperEvent);
+  private BeekeeperException scheduleFailure(List<HousekeepingPath> paths, Exception e) {
+    String description = paths.size() == 1
+        ? format("path '%s'", paths.get(0).getPath())
+        : format("%d paths starting with '%s'", paths.size(), paths.get(0).getPath());
+    return new BeekeeperException(
+        format("Unable to schedule %s for deletion, this message will go back on the queue", description), e);
   }
 
   public void close() throws IOException {
@@ -0,0 +1,22 @@
+USE beekeeper;
+
+ALTER TABLE path ADD COLUMN path_hash CHAR(64);
+UPDATE path SET path_hash = SHA2(path, 256);
+-- lets the duplicates below be found through the index rather than by joining every row with every other row
+CREATE INDEX path_hash_dedupe_idx ON path (path_hash);
+
+-- paths were meant to be unique but nothing enforced it, so of the records of a duplicated path keep the one whose
+-- cleanup got furthest, DELETED over FAILED over SCHEDULED, and of those the latest
+DELETE lesser FROM path lesser JOIN path greater ON lesser.path_hash = greater.path_hash
+  AND (FIELD(lesser.path_status, 'SCHEDULED', 'FAILED', 'DELETED')
+      < FIELD(greater.path_status, 'SCHEDULED', 'FAILED', 'DELETED')
+    OR (FIELD(lesser.path_status, 'SCHEDULED', 'FAILED', 'DELETED')
+        = FIELD(greater.path_status, 'SCHEDULED', 'FAILED', 'DELETED')
+      AND lesser.id < greater.id));
+
+ALTER TABLE path MODIFY path_hash CHAR(64) NOT NULL,
+  DROP INDEX path_hash_dedupe_idx,
+  ADD UNIQUE INDEX path_hash_idx (path_hash);
+
+-- seek order of the cleanup query, with the columns it filters on so rows are filtered from the index
+CREATE INDEX path_cleanup_idx ON path (modified_timestamp, id, path_status, cleanup_timestamp);
@@ -0,0 +1,3 @@
+USE beekeeper;
+ALTER TABLE path ADD COLUMN lease_owner VARCHAR(255);
+ALTER TABLE path ADD COLUMN lease_expiry TIMESTAMP NULL;
@@ -0,0 +1,4 @@
+USE beekeeper;
+
+-- lets the compaction of deleted paths find old deleted paths without scanning the others
+CREATE INDEX path_status_modified_idx ON path (path_status, modified_timestamp);
@@ -0,0 +1,2 @@
+USE beekeeper;
+ALTER TABLE path ADD COLUMN next_attempt_timestamp TIMESTAMP NULL;
@@ -0,0 +1,8 @@
+USE beekeeper;
+
+ALTER TABLE path ADD COLUMN estimated_bytes BIGINT(20);
+ALTER TABLE path ADD COLUMN estimated_objects BIGINT(20);
+ALTER TABLE path ADD COLUMN reclaim_priority BIGINT(20) NOT NULL DEFAULT 0;
+
+-- seek order of the cleanup query when the backlog is cleaned up by reclaim priority
+CREATE INDEX path_reclaim_priority_idx ON path (reclaim_priority DESC, modified_timestamp, id);
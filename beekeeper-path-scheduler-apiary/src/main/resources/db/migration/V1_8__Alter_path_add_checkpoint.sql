@@ -0,0 +1,5 @@
+USE beekeeper;
+
+-- how far an unfinished cleanup of a large path has got, so that the next cleanup resumes from there
+ALTER TABLE path ADD COLUMN checkpoint_key VARCHAR(1024);
+ALTER TABLE path ADD COLUMN checkpoint_bytes BIGINT(20);
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -74,6 +75,23 @@ public class PathSchedulerApiaryRunnerTest {
     verify(pathSchedulerApiary).close();
   }
 
+  @Test
+  public void consumersScheduleConcurrently() throws Exception {
+    pathSchedulerApiaryRunner = new PathSchedulerApiaryRunner(pathSchedulerApiary, 3);
+    CountDownLatch consumersScheduling = new CountDownLatch(3);
+    doAnswer(answer -> {
+      consumersScheduling.countDown();
+      consumersScheduling.await();
+      return null;
+    }).when(pathSchedulerApiary)
+        .scheduleBeekeeperEvent();
+
+    runRunner();
+    assertThat(consumersScheduling.await(5, TimeUnit.SECONDS)).isTrue();
+    destroy();
+    verify(pathSchedulerApiary).close();
+  }
+
   @Test
   public void typicalRunSchedulerTimesoutOnDestroy() throws Exception {
     doAnswer(answer -> {
@@ -16,6 +16,9 @@
 package com.expediagroup.beekeeper.scheduler.context;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.EnumMap;
@@ -26,6 +29,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.amazonaws.services.sqs.AmazonSQS;
 
 import com.expedia.apiary.extensions.receiver.common.messaging.MessageReader;
 import com.expedia.apiary.extensions.receiver.sqs.messaging.SqsMessageReader;
@@ -33,7 +39,10 @@ import com.expedia.apiary.extensions.receiver.sqs.messaging.SqsMessageReader;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.scheduler.apiary.context.CommonBeans;
 import com.expediagroup.beekeeper.scheduler.apiary.messaging.BeekeeperEventReader;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.MessageBatchReaderAdapter;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.MessageReaderAdapter;
 import com.expediagroup.beekeeper.scheduler.apiary.messaging.RetryingMessageReader;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.SqsMessageBatchReader;
 import com.expediagroup.beekeeper.scheduler.service.SchedulerService;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,7 +56,10 @@ public class CommonBeansTest {
   private static final String BUCKET = "bucket";
   private static final String KEY = "key";
   private final CommonBeans commonBeans = new CommonBeans();
+  @Mock private AmazonSQS amazonSQS;
   @Mock private MessageReader messageReader;
+  @Mock private ObjectProvider<SqsMessageBatchReader> messageBatchReaderProvider;
+  @Mock private SqsMessageBatchReader messageBatchReader;
 
   @AfterAll
   static void tearDown() {
@@ -67,9 +79,16 @@ public class CommonBeansTest {
     assertThat(scheduleMap).isInstanceOf(EnumMap.class);
   }
   
+  @Test
+  public void validateAmazonSQS() {
+    AmazonSQS sqs = commonBeans.amazonSQS();
+    assertThat(sqs).isNotNull();
+    sqs.shutdown();
+  }
+
   @Test
   public void validateMessageReader() {
-    MessageReader reader = commonBeans.messageReader("some_path");
+    MessageReader reader = commonBeans.messageReader("some_path", amazonSQS);
     assertThat(reader).isInstanceOf(SqsMessageReader.class);
   }
 
@@ -81,7 +100,24 @@ public class CommonBeansTest {
 
   @Test
   public void validatePathEventReader() {
-    BeekeeperEventReader reader = commonBeans.pathEventReader(messageReader, Collections.emptyList());
-    assertThat(reader).isInstanceOf(BeekeeperEventReader.class);
+    BeekeeperEventReader reader = commonBeans.pathEventReader(messageReader, messageBatchReaderProvider,
+        Collections.emptyList(), false);
+    assertThat(reader).isInstanceOf(MessageReaderAdapter.class);
+  }
+
+  @Test
+  public void validateBatchPathEventReader() {
+    when(messageBatchReaderProvider.getObject()).thenReturn(messageBatchReader);
+    BeekeeperEventReader reader = commonBeans.pathEventReader(messageReader, messageBatchReaderProvider,
+        Collections.emptyList(), true);
+    assertThat(reader).isInstanceOf(MessageBatchReaderAdapter.class);
+  }
+
+  @Test
+  public void validateMessageBatchReader() {
+    SqsMessageBatchReader reader = commonBeans.messageBatchReader("some_path", 10, amazonSQS);
+    assertThat(reader).isInstanceOf(SqsMessageBatchReader.class);
+    reader.close();
+    verify(amazonSQS, never()).shutdown();
   }
 }
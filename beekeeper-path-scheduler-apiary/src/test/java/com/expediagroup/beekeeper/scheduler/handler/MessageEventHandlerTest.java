@@ -16,6 +16,8 @@
 package com.expediagroup.beekeeper.scheduler.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static com.expedia.apiary.extensions.receiver.common.event.EventType.ALTER_PARTITION;
@@ -30,6 +32,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import com.expedia.apiary.extensions.receiver.common.event.AlterPartitionEvent;
 import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
 
@@ -49,6 +53,7 @@ public class MessageEventHandlerTest {
   );
   @Mock private MessageEvent messageEvent;
   @Mock private AlterPartitionEvent listenerEvent;
+  @Mock private AlterPartitionEvent otherListenerEvent;
   @Mock private WhitelistedListenerEventFilter whiteListFilter;
   @Mock private TableParameterListenerEventFilter tableFilter;
 
@@ -82,6 +87,40 @@ public class MessageEventHandlerTest {
     assertThat(paths.isEmpty()).isTrue();
   }
 
+  @Test
+  public void tableDecisionsAreCached() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    UnreferencedMessageHandler handler = new UnreferencedMessageHandler(UNREF_HIVE_KEY, UNREF_DEFAULT,
+        List.of(tableFilter), 10L, meterRegistry);
+    setupListenerEvent();
+    when(tableFilter.isTableScoped()).thenReturn(true);
+    when(tableFilter.filter(listenerEvent, UNREFERENCED)).thenReturn(false);
+
+    assertThat(handler.handleMessage(messageEvent)).isNotEmpty();
+    assertThat(handler.handleMessage(messageEvent)).isNotEmpty();
+
+    verify(tableFilter, times(1)).filter(listenerEvent, UNREFERENCED);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  public void tableDecisionsAreMadeAgainWhenTableParametersChange() {
+    UnreferencedMessageHandler handler = new UnreferencedMessageHandler(UNREF_HIVE_KEY, UNREF_DEFAULT,
+        List.of(tableFilter), 10L, new SimpleMeterRegistry());
+    when(messageEvent.getEvent()).thenReturn(listenerEvent, otherListenerEvent);
+    when(listenerEvent.getTableParameters()).thenReturn(defaultProperties);
+    when(listenerEvent.getEventType()).thenReturn(ALTER_PARTITION);
+    when(otherListenerEvent.getTableParameters()).thenReturn(Map.of(UNREFERENCED.getTableParameterName(), "false"));
+    when(otherListenerEvent.getEventType()).thenReturn(ALTER_PARTITION);
+    when(tableFilter.isTableScoped()).thenReturn(true);
+    when(tableFilter.filter(listenerEvent, UNREFERENCED)).thenReturn(false);
+    when(tableFilter.filter(otherListenerEvent, UNREFERENCED)).thenReturn(true);
+
+    assertThat(handler.handleMessage(messageEvent)).isNotEmpty();
+    assertThat(handler.handleMessage(messageEvent)).isEmpty();
+  }
+
   private void setupListenerEvent() {
     when(messageEvent.getEvent()).thenReturn(listenerEvent);
     when(listenerEvent.getTableParameters()).thenReturn(defaultProperties);
@@ -39,6 +39,7 @@ import com.expedia.apiary.extensions.receiver.common.event.EventType;
 import com.expedia.apiary.extensions.receiver.common.event.ListenerEvent;
 import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
 
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.scheduler.apiary.filter.EventTypeListenerEventFilter;
 import com.expediagroup.beekeeper.scheduler.apiary.filter.MetadataOnlyListenerEventFilter;
@@ -132,6 +133,37 @@ public class UnreferencedMessageEventHandlerTest {
     assertPath(paths, CLEANUP_DELAY);
   }
 
+  @Test
+  public void estimatedSizeFromTableStatistics() {
+    setupListenerEvent(dropTableEvent);
+    setupFilterMocks(dropTableEvent, true, false, true, false, true, false, true, false);
+    when(dropTableEvent.getTableParameters()).thenReturn(Map.of(
+        UNREFERENCED.getTableParameterName(), "true",
+        "totalSize", "3000",
+        "numFiles", "2"));
+    when(dropTableEvent.getEventType()).thenReturn(EventType.DROP_TABLE);
+    when(dropTableEvent.getTableLocation()).thenReturn(OLD_PATH);
+    EntityHousekeepingPath path = (EntityHousekeepingPath) msgHandler.handleMessage(messageEvent).get(0);
+    assertThat(path.getEstimatedBytes()).isEqualTo(3000L);
+    assertThat(path.getEstimatedObjects()).isEqualTo(2L);
+    assertThat(path.getReclaimPriority()).isEqualTo(1000L);
+  }
+
+  @Test
+  public void noEstimatedSizeForPartitions() {
+    setupListenerEvent(dropPartitionEvent);
+    setupFilterMocks(dropPartitionEvent, true, false, true, false, true, false, true, false);
+    when(dropPartitionEvent.getTableParameters()).thenReturn(Map.of(
+        UNREFERENCED.getTableParameterName(), "true",
+        "totalSize", "3000",
+        "numFiles", "2"));
+    when(dropPartitionEvent.getEventType()).thenReturn(EventType.DROP_PARTITION);
+    when(dropPartitionEvent.getPartitionLocation()).thenReturn(OLD_PATH);
+    EntityHousekeepingPath path = (EntityHousekeepingPath) msgHandler.handleMessage(messageEvent).get(0);
+    assertThat(path.getEstimatedBytes()).isNull();
+    assertThat(path.getReclaimPriority()).isEqualTo(0L);
+  }
+
   @Test
   public void typicalHandleDefaultDelay() {
     setupListenerEvent(alterPartitionEvent);
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.scheduler.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.AmazonClientException;
+
+import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
+
+import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.scheduler.apiary.handler.MessageEventHandler;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.MessageBatchReaderAdapter;
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.SqsMessageBatchReader;
+import com.expediagroup.beekeeper.scheduler.apiary.model.BeekeeperEvent;
+
+@ExtendWith(MockitoExtension.class)
+public class MessageBatchReaderAdapterTest {
+
+  @Mock private SqsMessageBatchReader delegate;
+  @Mock private MessageEvent messageEvent;
+  @Mock private MessageEvent otherMessageEvent;
+  @Mock private EntityHousekeepingPath path;
+  @Mock private MessageEventHandler handler;
+  private MessageBatchReaderAdapter messageBatchReaderAdapter;
+  private List<HousekeepingPath> pathsList;
+
+  @BeforeEach
+  public void beforeEach() {
+    pathsList = List.of(path);
+    messageBatchReaderAdapter = new MessageBatchReaderAdapter(delegate, List.of(handler));
+  }
+
+  @Test
+  public void typicalReadBatch() {
+    when(delegate.read()).thenReturn(List.of(messageEvent, otherMessageEvent));
+    when(handler.handleMessage(messageEvent)).thenReturn(pathsList);
+    when(handler.handleMessage(otherMessageEvent)).thenReturn(Collections.emptyList());
+
+    List<BeekeeperEvent> read = messageBatchReaderAdapter.readBatch();
+    assertThat(read).hasSize(2);
+    assertThat(read.get(0).getMessageEvent()).isEqualTo(messageEvent);
+    assertThat(read.get(0).getHousekeepingPaths()).isEqualTo(pathsList);
+    // left for the caller to delete together with the messages whose paths were scheduled
+    assertThat(read.get(1).getMessageEvent()).isEqualTo(otherMessageEvent);
+    assertThat(read.get(1).getHousekeepingPaths()).isEmpty();
+  }
+
+  @Test
+  public void readBatchLeavesOutMessagesWhichCannotBeHandled() {
+    when(delegate.read()).thenReturn(List.of(messageEvent, otherMessageEvent));
+    when(handler.handleMessage(messageEvent)).thenThrow(new RuntimeException("error"));
+    when(handler.handleMessage(otherMessageEvent)).thenReturn(pathsList);
+
+    List<BeekeeperEvent> read = messageBatchReaderAdapter.readBatch();
+    assertThat(read).hasSize(1);
+    assertThat(read.get(0).getMessageEvent()).isEqualTo(otherMessageEvent);
+    assertThat(read.get(0).getHousekeepingPaths()).isEqualTo(pathsList);
+  }
+
+  @Test
+  public void typicalEmptyReadBatch() {
+    when(delegate.read()).thenReturn(List.of());
+    assertThat(messageBatchReaderAdapter.readBatch()).isEmpty();
+    verifyZeroInteractions(handler);
+  }
+
+  @Test
+  public void readHandsOutOneBatchAtATime() {
+    when(delegate.read()).thenReturn(List.of(messageEvent, otherMessageEvent));
+    when(handler.handleMessage(messageEvent)).thenReturn(pathsList);
+    when(handler.handleMessage(otherMessageEvent)).thenReturn(pathsList);
+
+    Optional<BeekeeperEvent> first = messageBatchReaderAdapter.read();
+    Optional<BeekeeperEvent> second = messageBatchReaderAdapter.read();
+    assertThat(first.map(BeekeeperEvent::getMessageEvent)).hasValue(messageEvent);
+    assertThat(second.map(BeekeeperEvent::getMessageEvent)).hasValue(otherMessageEvent);
+    verify(delegate, times(1)).read();
+  }
+
+  @Test
+  public void typicalDeleteBatch() {
+    List<BeekeeperEvent> beekeeperEvents = List.of(new BeekeeperEvent(pathsList, messageEvent),
+        new BeekeeperEvent(Collections.emptyList(), otherMessageEvent));
+    when(delegate.delete(List.of(messageEvent, otherMessageEvent))).thenReturn(List.of());
+    messageBatchReaderAdapter.delete(beekeeperEvents);
+    verify(delegate).delete(List.of(messageEvent, otherMessageEvent));
+  }
+
+  @Test
+  public void typicalDelete() {
+    when(delegate.delete(List.of(messageEvent))).thenReturn(List.of());
+    messageBatchReaderAdapter.delete(new BeekeeperEvent(pathsList, messageEvent));
+    verify(delegate).delete(List.of(messageEvent));
+  }
+
+  @Test
+  public void deletionFailure() {
+    doThrow(AmazonClientException.class).when(delegate).delete(List.of(messageEvent));
+    messageBatchReaderAdapter.delete(List.of(new BeekeeperEvent(pathsList, messageEvent)));
+    verify(delegate).delete(List.of(messageEvent));
+  }
+
+  @Test
+  public void typicalClose() throws IOException {
+    messageBatchReaderAdapter.close();
+    verify(delegate).close();
+  }
+}
@@ -17,6 +17,7 @@ package com.expediagroup.beekeeper.scheduler.messaging;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -101,8 +102,8 @@ public class MessageReaderAdapterTest {
   }
 
   @Test
-  public void typicalClose() throws IOException {
+  public void closeLeavesSharedClientRunning() throws IOException {
     messageReaderAdapter.close();
-    verify(delegate).close();
+    verify(delegate, never()).close();
   }
 }
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2019-2020 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.scheduler.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+
+import com.expedia.apiary.extensions.receiver.common.event.ListenerEvent;
+import com.expedia.apiary.extensions.receiver.common.messaging.MessageDeserializer;
+import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
+import com.expedia.apiary.extensions.receiver.sqs.messaging.SqsMessageProperty;
+
+import com.expediagroup.beekeeper.scheduler.apiary.messaging.SqsMessageBatchReader;
+
+@ExtendWith(MockitoExtension.class)
+public class SqsMessageBatchReaderTest {
+
+  private static final String QUEUE_URL = "queue_url";
+
+  @Mock private AmazonSQS amazonSQS;
+  @Mock private MessageDeserializer messageDeserializer;
+  @Mock private ListenerEvent listenerEvent;
+  @Captor private ArgumentCaptor<ReceiveMessageRequest> receiveRequestCaptor;
+  @Captor private ArgumentCaptor<DeleteMessageBatchRequest> deleteRequestCaptor;
+
+  private SqsMessageBatchReader messageBatchReader;
+
+  @BeforeEach
+  public void init() {
+    messageBatchReader = new SqsMessageBatchReader(amazonSQS, QUEUE_URL, messageDeserializer, 5);
+  }
+
+  @Test
+  public void typicalRead() {
+    when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class)))
+        .thenReturn(new ReceiveMessageResult().withMessages(message("1"), message("2")));
+    when(messageDeserializer.unmarshal("body1")).thenReturn(listenerEvent);
+    when(messageDeserializer.unmarshal("body2")).thenReturn(listenerEvent);
+
+    List<MessageEvent> messageEvents = messageBatchReader.read();
+
+    assertThat(messageEvents).hasSize(2);
+    assertThat(messageEvents.get(0).getEvent()).isEqualTo(listenerEvent);
+    assertThat(messageEvents.get(1).getMessageProperties())
+        .containsEntry(SqsMessageProperty.SQS_MESSAGE_RECEIPT_HANDLE, "handle2");
+    verify(amazonSQS).receiveMessage(receiveRequestCaptor.capture());
+    assertThat(receiveRequestCaptor.getValue().getQueueUrl()).isEqualTo(QUEUE_URL);
+    assertThat(receiveRequestCaptor.getValue().getMaxNumberOfMessages()).isEqualTo(5);
+  }
+
+  @Test
+  public void messagesWhichCannotBeDeserializedAreLeftOnTheQueue() {
+    when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class)))
+        .thenReturn(new ReceiveMessageResult().withMessages(message("1"), message("2")));
+    when(messageDeserializer.unmarshal("body1")).thenThrow(new IllegalArgumentException("Not an event"));
+    when(messageDeserializer.unmarshal("body2")).thenReturn(listenerEvent);
+
+    List<MessageEvent> messageEvents = messageBatchReader.read();
+
+    assertThat(messageEvents).hasSize(1);
+    assertThat(messageEvents.get(0).getMessageProperties())
+        .containsEntry(SqsMessageProperty.SQS_MESSAGE_RECEIPT_HANDLE, "handle2");
+  }
+
+  @Test
+  public void batchSizeIsCapped() {
+    messageBatchReader = new SqsMessageBatchReader(amazonSQS, QUEUE_URL, messageDeserializer, 100);
+    when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new ReceiveMessageResult());
+
+    assertThat(messageBatchReader.read()).isEmpty();
+    verify(amazonSQS).receiveMessage(receiveRequestCaptor.capture());
+    assertThat(receiveRequestCaptor.getValue().getMaxNumberOfMessages())
+        .isEqualTo(SqsMessageBatchReader.MAX_BATCH_SIZE);
+  }
+
+  @Test
+  public void typicalDelete() {
+    List<MessageEvent> messageEvents = List.of(messageEvent("handle1"), messageEvent("handle2"));
+    when(amazonSQS.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+        .thenReturn(new DeleteMessageBatchResult());
+
+    assertThat(messageBatchReader.delete(messageEvents)).isEmpty();
+    verify(amazonSQS).deleteMessageBatch(deleteRequestCaptor.capture());
+    assertThat(deleteRequestCaptor.getValue().getQueueUrl()).isEqualTo(QUEUE_URL);
+    assertThat(receiptHandles(deleteRequestCaptor.getValue())).containsExactly("handle1", "handle2");
+  }
+
+  @Test
+  public void partiallyFailedDeleteReturnsTheMessagesNotDeleted() {
+    List<MessageEvent> messageEvents = List.of(messageEvent("handle1"), messageEvent("handle2"));
+    when(amazonSQS.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+        .thenReturn(new DeleteMessageBatchResult()
+            .withFailed(new BatchResultErrorEntry().withId("1").withCode("ReceiptHandleIsInvalid")));
+
+    assertThat(messageBatchReader.delete(messageEvents)).containsExactly(messageEvents.get(1));
+  }
+
+  @Test
+  public void closeLeavesSharedClientRunning() {
+    messageBatchReader.close();
+    verify(amazonSQS, never()).shutdown();
+  }
+
+  private Message message(String id) {
+    return new Message().withMessageId(id).withBody("body" + id).withReceiptHandle("handle" + id);
+  }
+
+  private MessageEvent messageEvent(String receiptHandle) {
+    return new MessageEvent(listenerEvent, Map.of(SqsMessageProperty.SQS_MESSAGE_RECEIPT_HANDLE, receiptHandle));
+  }
+
+  private List<String> receiptHandles(DeleteMessageBatchRequest request) {
+    return request.getEntries()
+        .stream()
+        .map(DeleteMessageBatchRequestEntry::getReceiptHandle)
+        .collect(Collectors.toList());
+  }
+}
@@ -18,7 +18,9 @@ package com.expediagroup.beekeeper.scheduler.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -28,7 +30,6 @@ import static com.expediagroup.beekeeper.core.model.LifecycleEventType.UNREFEREN
 
 import java.util.EnumMap;
 import java.util.List;
-import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.expedia.apiary.extensions.receiver.common.messaging.MessageEvent;
 
@@ -54,6 +56,8 @@ public class PathSchedulerApiaryTest {
   @Mock private SchedulerService pathSchedulerService;
   @Mock private BeekeeperEventReader beekeeperEventReader;
   @Mock private EntityHousekeepingPath path;
+  @Mock private EntityHousekeepingPath otherPath;
+  @Mock private PlatformTransactionManager transactionManager;
 
   private PathSchedulerApiary scheduler;
 
@@ -61,39 +65,81 @@ public class PathSchedulerApiaryTest {
   public void init() {
     EnumMap schedulerMap = new EnumMap(LifecycleEventType.class);
     schedulerMap.put(UNREFERENCED, pathSchedulerService);
-    scheduler = new PathSchedulerApiary(beekeeperEventReader, schedulerMap);
+    scheduler = new PathSchedulerApiary(beekeeperEventReader, schedulerMap, transactionManager);
   }
 
   @Test
   public void typicalSchedule() {
-    Optional<BeekeeperEvent> event = Optional.of(newPathEvent(path, UNREFERENCED));
-    when(beekeeperEventReader.read()).thenReturn(event);
+    BeekeeperEvent event = newPathEvent(path, UNREFERENCED);
+    when(beekeeperEventReader.readBatch()).thenReturn(List.of(event));
     scheduler.scheduleBeekeeperEvent();
-    verify(pathSchedulerService).scheduleForHousekeeping(path);
-    verify(beekeeperEventReader).delete(event.get());
+    verify(pathSchedulerService).scheduleForHousekeeping(List.of(path));
+    verify(beekeeperEventReader).delete(List.of(event));
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  public void pathsOfAnEventAreScheduledTogether() {
+    when(path.getLifecycleType()).thenReturn(UNREFERENCED.name());
+    when(otherPath.getLifecycleType()).thenReturn(UNREFERENCED.name());
+    BeekeeperEvent event = new BeekeeperEvent(List.of(path, otherPath), Mockito.mock(MessageEvent.class));
+    when(beekeeperEventReader.readBatch()).thenReturn(List.of(event));
+    scheduler.scheduleBeekeeperEvent();
+    verify(pathSchedulerService).scheduleForHousekeeping(List.of(path, otherPath));
+    verify(beekeeperEventReader).delete(List.of(event));
   }
 
   @Test
   public void typicalNoSchedule() {
-    when(beekeeperEventReader.read()).thenReturn(Optional.empty());
+    when(beekeeperEventReader.readBatch()).thenReturn(List.of());
+    scheduler.scheduleBeekeeperEvent();
+    verifyZeroInteractions(pathSchedulerService);
+    verify(beekeeperEventReader, times(0)).delete(anyList());
+  }
+
+  @Test
+  public void eventWithoutPathsIsDeleted() {
+    BeekeeperEvent event = new BeekeeperEvent(List.of(), Mockito.mock(MessageEvent.class));
+    when(beekeeperEventReader.readBatch()).thenReturn(List.of(event));
     scheduler.scheduleBeekeeperEvent();
     verifyZeroInteractions(pathSchedulerService);
-    verify(beekeeperEventReader, times(0)).delete(any());
+    verify(beekeeperEventReader).delete(List.of(event));
+  }
+
+  @Test
+  public void onlyFailedEventsGoBackOnTheQueue() {
+    when(path.getPath()).thenReturn(PATH);
+    BeekeeperEvent failedEvent = newPathEvent(path, UNREFERENCED);
+    BeekeeperEvent scheduledEvent = newPathEvent(otherPath, UNREFERENCED);
+    when(beekeeperEventReader.readBatch()).thenReturn(List.of(failedEvent, scheduledEvent));
+    doThrow(new BeekeeperException("exception")).when(pathSchedulerService).scheduleForHousekeeping(List.of(path));
+
+    try {
+      scheduler.scheduleBeekeeperEvent();
+      fail("Should have thrown exception");
+    } catch (BeekeeperException e) {
+      verify(pathSchedulerService).scheduleForHousekeeping(List.of(otherPath));
+      verify(beekeeperEventReader).delete(List.of(scheduledEvent));
+      verify(transactionManager).rollback(any());
+      assertThat(e.getMessage()).isEqualTo(
+          "Unable to schedule path 'path' for deletion, this message will go back on the queue");
+    }
   }
 
   @Test
   public void repositoryThrowsException() {
     when(path.getPath()).thenReturn(PATH);
-    Optional<BeekeeperEvent> event = Optional.of(newPathEvent(path, UNREFERENCED));
-    when(beekeeperEventReader.read()).thenReturn(event);
-    doThrow(new BeekeeperException("exception")).when(pathSchedulerService).scheduleForHousekeeping(path);
+    BeekeeperEvent event = newPathEvent(path, UNREFERENCED);
+    when(beekeeperEventReader.readBatch()).thenReturn(List.of(event));
+    doThrow(new BeekeeperException("exception")).when(pathSchedulerService).scheduleForHousekeeping(List.of(path));
 
     try {
       scheduler.scheduleBeekeeperEvent();
       fail("Should have thrown exception");
     } catch (Exception e) {
-      verify(pathSchedulerService).scheduleForHousekeeping(path);
-      verify(beekeeperEventReader, times(0)).delete(any());
+      verify(pathSchedulerService).scheduleForHousekeeping(List.of(path));
+      verify(beekeeperEventReader, never()).delete(anyList());
+      verify(beekeeperEventReader, never()).delete(any(BeekeeperEvent.class));
       assertThat(e).isInstanceOf(BeekeeperException.class);
       assertThat(e.getMessage()).isEqualTo(
           "Unable to schedule path 'path' for deletion, this message will go back on the queue");
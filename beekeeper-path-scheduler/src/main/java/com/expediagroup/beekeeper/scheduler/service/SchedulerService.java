@@ -15,6 +15,8 @@
  */
 package com.expediagroup.beekeeper.scheduler.service;
 
+import java.util.List;
+
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 
@@ -28,4 +30,13 @@ public interface SchedulerService {
    * @param cleanUpPath file system path encapsulation
    */
   void scheduleForHousekeeping(HousekeepingPath cleanUpPath);
+
+  /**
+   * Schedules many file system paths for deletion at once. By default they are scheduled one at a time.
+   *
+   * @param cleanUpPaths file system path encapsulations
+   */
+  default void scheduleForHousekeeping(List<HousekeepingPath> cleanUpPaths) {
+    cleanUpPaths.forEach(this::scheduleForHousekeeping);
+  }
 }
@@ -16,6 +16,9 @@
 package com.expediagroup.beekeeper.scheduler.service;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -43,13 +46,35 @@ public class UnreferencedPathSchedulerService implements SchedulerService {
     return LIFECYCLE_EVENT_TYPE;
   }
 
+  /**
+   * Schedules {@code cleanUpPath}, or schedules it afresh if it has already been scheduled.
+   */
   @Override
   @TimedTaggable("paths-scheduled")
   public void scheduleForHousekeeping(HousekeepingPath cleanUpPath) {
     try {
-      housekeepingPathRepository.save((EntityHousekeepingPath) cleanUpPath);
+      housekeepingPathRepository.upsertAll(List.of((EntityHousekeepingPath) cleanUpPath));
     } catch (Exception e) {
       throw new BeekeeperException(format("Unable to schedule path '%s' for deletion", cleanUpPath.getPath()), e);
     }
   }
+
+  /**
+   * Schedules {@code cleanUpPaths} with multi-row inserts rather than one insert per path. Paths which have already
+   * been scheduled are scheduled afresh.
+   */
+  @Override
+  @TimedTaggable("paths-scheduled")
+  public void scheduleForHousekeeping(List<HousekeepingPath> cleanUpPaths) {
+    if (cleanUpPaths.isEmpty()) {
+      return;
+    }
+    try {
+      housekeepingPathRepository.upsertAll(cleanUpPaths.stream()
+          .map(EntityHousekeepingPath.class::cast)
+          .collect(toList()));
+    } catch (Exception e) {
+      throw new BeekeeperException(format("Unable to schedule %d paths for deletion", cleanUpPaths.size()), e);
+    }
+  }
 }
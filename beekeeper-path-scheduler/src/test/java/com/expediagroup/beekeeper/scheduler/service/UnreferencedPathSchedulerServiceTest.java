@@ -17,11 +17,13 @@ package com.expediagroup.beekeeper.scheduler.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +33,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 
@@ -50,7 +53,7 @@ public class UnreferencedPathSchedulerServiceTest {
         .cleanupDelay(Duration.parse("P3D"))
         .build();
     unreferencedPathSchedulerService.scheduleForHousekeeping(path);
-    verify(housekeepingPathRepository).save(path);
+    verify(housekeepingPathRepository).upsertAll(List.of(path));
   }
 
   @Test
@@ -67,11 +70,48 @@ public class UnreferencedPathSchedulerServiceTest {
         .cleanupDelay(Duration.parse("P3D"))
         .build();
 
-    when(housekeepingPathRepository.save(path)).thenThrow(new RuntimeException());
+    doThrow(new RuntimeException()).when(housekeepingPathRepository).upsertAll(List.of(path));
 
     assertThatExceptionOfType(BeekeeperException.class)
         .isThrownBy(() -> unreferencedPathSchedulerService.scheduleForHousekeeping(path))
         .withMessage("Unable to schedule path 'path_to_schedule' for deletion");
-    verify(housekeepingPathRepository).save(path);
+    verify(housekeepingPathRepository).upsertAll(List.of(path));
+  }
+
+  @Test
+  public void typicalScheduleAllForHousekeeping() {
+    EntityHousekeepingPath path = new EntityHousekeepingPath.Builder()
+        .path("path_to_schedule")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.parse("P3D"))
+        .build();
+    EntityHousekeepingPath otherPath = new EntityHousekeepingPath.Builder()
+        .path("other_path_to_schedule")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.parse("P3D"))
+        .build();
+    unreferencedPathSchedulerService.scheduleForHousekeeping(List.of(path, otherPath));
+    verify(housekeepingPathRepository).upsertAll(List.of(path, otherPath));
+  }
+
+  @Test
+  public void scheduleAllWithoutPaths() {
+    unreferencedPathSchedulerService.scheduleForHousekeeping(List.<HousekeepingPath>of());
+    verifyZeroInteractions(housekeepingPathRepository);
+  }
+
+  @Test
+  public void scheduleAllFails() {
+    EntityHousekeepingPath path = new EntityHousekeepingPath.Builder()
+        .path("path_to_schedule")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.parse("P3D"))
+        .build();
+
+    doThrow(new RuntimeException()).when(housekeepingPathRepository).upsertAll(List.of(path));
+
+    assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> unreferencedPathSchedulerService.scheduleForHousekeeping(List.of(path)))
+        .withMessage("Unable to schedule 1 paths for deletion");
   }
 }
@@ -19,7 +19,9 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -43,6 +45,8 @@ import org.springframework.stereotype.Component;
 import com.google.common.base.Supplier;
 
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.core.model.PathStatus;
 import com.expediagroup.beekeeper.scheduler.service.SchedulerService;
 import com.expediagroup.beekeeper.vacuum.repository.BeekeeperRepository;
@@ -65,7 +69,6 @@ public class BeekeeperVacuumToolApplication implements ApplicationRunner {
   private final String tableName;
   private final String cleanupDelay;
   private final HiveConf conf;
-  private Set<String> housekeepingPaths;
   private IMetaStoreClient metastore;
 
   @Autowired
@@ -98,7 +101,6 @@ public class BeekeeperVacuumToolApplication implements ApplicationRunner {
     }
     try {
       metastore = clientSupplier.get();
-      housekeepingPaths = fetchHousekeepingPaths(beekeeperRepository);
       vacuumTable(databaseName, tableName);
     } catch (URISyntaxException | TException | IOException e) {
       throw new RuntimeException(e);
@@ -109,16 +111,6 @@ public class BeekeeperVacuumToolApplication implements ApplicationRunner {
     }
   }
 
-  private Set<String> fetchHousekeepingPaths(BeekeeperRepository repository) {
-    log.info("Fetching scheduled paths");
-    Set<String> paths = new HashSet<>();
-    Iterable<EntityHousekeepingPath> repositoryPaths = repository.findAllScheduledPaths();
-    for (EntityHousekeepingPath repositoryPath : repositoryPaths) {
-      paths.add(repositoryPath.getPath());
-    }
-    return paths;
-  }
-
   private void vacuumTable(String databaseName, String tableName) throws TException, URISyntaxException, IOException {
     log.info("Vacuuming table '{}.{}'.", databaseName, tableName);
     Table table = metastore.getTable(databaseName, tableName);
@@ -145,7 +137,7 @@ public class BeekeeperVacuumToolApplication implements ApplicationRunner {
         log.info("KEEP path '{}', referenced in the metastore.", path);
         unvisitedMetastorePaths.remove(normalisedPath);
         metaStorePathCount++;
-      } else if (housekeepingPaths.contains(path.toString())) {
+      } else if (beekeeperRepository.isScheduledPath(path.toString())) {
         log.info("KEEP path '{}', referenced in housekeeping.", path);
         housekeepingPathCount++;
       } else {
@@ -157,11 +149,14 @@ public class BeekeeperVacuumToolApplication implements ApplicationRunner {
       ConsistencyCheck.checkUnvisitedPath(fs, unvisitedMetastorePath);
     }
     long totalBytesConsumed = 0;
+    List<HousekeepingPath> housekeepingPaths = new ArrayList<>(pathsToRemove.size());
     for (Path toRemove : pathsToRemove) {
       ContentSummary contentSummary = fs.getContentSummary(toRemove);
       totalBytesConsumed += contentSummary.getSpaceConsumed();
-      removePath(toRemove, databaseName, tableName);
+      log.info("REMOVE path '{}'; it is not referenced and can be deleted.", toRemove);
+      housekeepingPaths.add(housekeepingPath(toRemove, contentSummary, databaseName, tableName));
     }
+    removePaths(housekeepingPaths);
 
     log.info("Vacuum summary; filesystem: {}, metastore: {}, housekeeping: {}, to remove: {}, bytes: {}.",
         listStatus.length, metaStorePathCount, housekeepingPathCount, pathsToRemove.size(), totalBytesConsumed);
@@ -171,20 +166,28 @@ public class BeekeeperVacuumToolApplication implements ApplicationRunner {
     return new Path(StringUtils.stripEnd(path.toString(), "/"));
   }
 
-  private void removePath(Path toRemove, String databaseName, String tableName) {
-    log.info("REMOVE path '{}'; it is not referenced and can be deleted.", toRemove);
-    if (!isDryRun) {
-      schedulerService.scheduleForHousekeeping(new EntityHousekeepingPath.Builder().databaseName(databaseName)
-          .tableName(tableName)
-          .path(toRemove.toString())
-          .pathStatus(PathStatus.SCHEDULED)
-          .creationTimestamp(LocalDateTime.now())
-          .cleanupDelay(Duration.parse(cleanupDelay))
-          .clientId("beekeeper-vacuum-tool")
-          .build());
-      log.info("Scheduled path '{}' for deletion.", toRemove.toString());
-    } else {
-      log.warn("DRY RUN ENABLED: path '{}' left as is.", toRemove);
+  private HousekeepingPath housekeepingPath(Path toRemove, ContentSummary contentSummary, String databaseName,
+      String tableName) {
+    return new EntityHousekeepingPath.Builder().databaseName(databaseName)
+        .tableName(tableName)
+        .path(toRemove.toString())
+        .pathStatus(PathStatus.SCHEDULED)
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(Duration.parse(cleanupDelay))
+        .clientId("beekeeper-vacuum-tool")
+        .lifecycleType(LifecycleEventType.UNREFERENCED.toString())
+        .estimatedSize(contentSummary.getLength(), contentSummary.getFileCount())
+        .build();
+  }
+
+  private void removePaths(List<HousekeepingPath> housekeepingPaths) {
+    if (isDryRun) {
+      housekeepingPaths.forEach(path -> log.warn("DRY RUN ENABLED: path '{}' left as is.", path.getPath()));
+      return;
+    }
+    if (!housekeepingPaths.isEmpty()) {
+      schedulerService.scheduleForHousekeeping(housekeepingPaths);
+      housekeepingPaths.forEach(path -> log.info("Scheduled path '{}' for deletion.", path.getPath()));
     }
   }
 }
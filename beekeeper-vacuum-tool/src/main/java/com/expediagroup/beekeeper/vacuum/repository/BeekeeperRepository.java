@@ -21,12 +21,28 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.PathStatus;
+import com.expediagroup.beekeeper.core.repository.BulkHousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 
+/**
+ * Spring Data only looks for the implementation of a fragment among the interfaces a repository extends directly, so
+ * {@link BulkHousekeepingPathRepository} is repeated here for its implementation to be found.
+ */
 @Repository
-public interface BeekeeperRepository extends HousekeepingPathRepository {
+public interface BeekeeperRepository extends HousekeepingPathRepository, BulkHousekeepingPathRepository {
 
   @Query(value = "from EntityHousekeepingPath p where "
       + "p.pathStatus = 'SCHEDULED' or p.pathStatus = 'FAILED'")
   List<EntityHousekeepingPath> findAllScheduledPaths();
+
+  /**
+   * @return Whether {@code path} is still to be cleaned up, or was given up on and is left for someone to look into.
+   */
+  default boolean isScheduledPath(String path) {
+    return findByPath(path)
+        .map(EntityHousekeepingPath::getPathStatus)
+        .filter(status -> status != PathStatus.DELETED)
+        .isPresent();
+  }
 }
@@ -16,7 +16,6 @@
 package com.expediagroup.beekeeper.vacuum;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -60,6 +59,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import com.google.common.base.Supplier;
 
 import com.expediagroup.beekeeper.core.model.EntityHousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
 import com.expediagroup.beekeeper.core.model.PathStatus;
 import com.expediagroup.beekeeper.scheduler.service.SchedulerService;
@@ -97,7 +97,7 @@ class BeekeeperVacuumToolApplicationTest {
   private @MockBean Supplier<CloseableMetaStoreClient> clientSupplier;
   private @MockBean SchedulerService schedulerService;
   private @Mock CloseableMetaStoreClient closeableMetaStoreClient;
-  private @Captor ArgumentCaptor<EntityHousekeepingPath> housekeepingPath;
+  private @Captor ArgumentCaptor<List<HousekeepingPath>> housekeepingPaths;
   private BeekeeperVacuumToolApplication application;
   private TestAppender appender = new TestAppender();
 
@@ -127,8 +127,9 @@ class BeekeeperVacuumToolApplicationTest {
     setUnpartitionedTable();
     application.run(args);
 
-    verify(schedulerService).scheduleForHousekeeping(housekeepingPath.capture());
-    EntityHousekeepingPath path = housekeepingPath.getValue();
+    verify(schedulerService).scheduleForHousekeeping(housekeepingPaths.capture());
+    assertThat(housekeepingPaths.getValue()).hasSize(1);
+    EntityHousekeepingPath path = (EntityHousekeepingPath) housekeepingPaths.getValue().get(0);
     assertThat(path.getPath()).isEqualTo("file:" + snapshot0Dir.toString());
     assertThat(path.getCleanupDelay().toDays()).isEqualTo(1L);
   }
@@ -139,8 +140,8 @@ class BeekeeperVacuumToolApplicationTest {
     setPartitionedTable("partition1_");
     application.run(args);
 
-    verify(schedulerService, times(2)).scheduleForHousekeeping(housekeepingPath.capture());
-    List<EntityHousekeepingPath> scheduledPaths = housekeepingPath.getAllValues();
+    verify(schedulerService).scheduleForHousekeeping(housekeepingPaths.capture());
+    List<HousekeepingPath> scheduledPaths = housekeepingPaths.getValue();
 
     String file1Path = "file:" + partition1InSnapshot0Dir.toString();
     String file2Path = "file:" + partition2InSnapshot0Dir.toString();
@@ -189,7 +190,8 @@ class BeekeeperVacuumToolApplicationTest {
 
     application.run(args);
     // paths scheduled are the same as the ones in 'typicalRunPartitioned'
-    verify(schedulerService, times(2)).scheduleForHousekeeping(housekeepingPath.capture());
+    verify(schedulerService).scheduleForHousekeeping(housekeepingPaths.capture());
+    assertThat(housekeepingPaths.getValue()).hasSize(2);
     assertThat(assertBytesLogged(14)).isTrue();
   }
 
@@ -223,8 +225,8 @@ class BeekeeperVacuumToolApplicationTest {
 
     application.run(args);
 
-    verify(schedulerService, times(3)).scheduleForHousekeeping(housekeepingPath.capture());
-    List<EntityHousekeepingPath> scheduledPaths = housekeepingPath.getAllValues();
+    verify(schedulerService).scheduleForHousekeeping(housekeepingPaths.capture());
+    List<HousekeepingPath> scheduledPaths = housekeepingPaths.getValue();
 
     String file1Path = "file:" + partition1InSnapshot0Dir.toString();
     String file2Path = "file:" + partition2InSnapshot0Dir.toString();
@@ -98,6 +98,22 @@ class BeekeeperRepositoryTest {
     assertThat(paths.size()).isEqualTo(0);
   }
 
+  @Test
+  void isScheduledPath() {
+    EntityHousekeepingPath path = createEntityHousekeepingPath();
+    repository.save(path);
+    assertThat(repository.isScheduledPath("path")).isTrue();
+    assertThat(repository.isScheduledPath("other_path")).isFalse();
+
+    path.setPathStatus(PathStatus.ABANDONED);
+    repository.save(path);
+    assertThat(repository.isScheduledPath("path")).isTrue();
+
+    path.setPathStatus(PathStatus.DELETED);
+    repository.save(path);
+    assertThat(repository.isScheduledPath("path")).isFalse();
+  }
+
   // we've had issues with null checks being skipped so we have this test to ensure it works from outside beekeeper-core
   @Test
   public void notNullableField() {